@@ -31,6 +31,16 @@ plugins {
 
 repositories {
   mavenCentral()
+  // only for snapshots of appengine-plugins-core, installed with `mvn install` in
+  // ../appengine-plugins-core
+  mavenLocal {
+    content {
+      includeModule("com.google.cloud.tools", "appengine-plugins-core")
+    }
+    mavenContent {
+      snapshotsOnly()
+    }
+  }
 }
 
 java {
@@ -43,7 +53,7 @@ group = "com.google.cloud.tools"
 dependencies {
   implementation(localGroovy())
   implementation(gradleApi())
-  api("com.google.cloud.tools:appengine-plugins-core:0.10.0")
+  api("com.google.cloud.tools:appengine-plugins-core:0.10.1-SNAPSHOT")
 
   testImplementation("commons-io:commons-io:2.11.0")
   testImplementation("junit:junit:4.13.2")
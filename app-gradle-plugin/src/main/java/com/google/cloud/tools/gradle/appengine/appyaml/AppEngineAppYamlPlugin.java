@@ -55,8 +55,7 @@ public class AppEngineAppYamlPlugin implements Plugin<Project> {
     appengineExtension.createSubExtensions(project);
 
     new AppEngineCorePluginConfiguration()
-        .configureCoreProperties(
-            project, appengineExtension, APP_ENGINE_APP_YAML_TASK_GROUP, false);
+        .configureCoreProperties(project, appengineExtension, APP_ENGINE_APP_YAML_TASK_GROUP);
 
     configureExtensions();
     createStageTask();
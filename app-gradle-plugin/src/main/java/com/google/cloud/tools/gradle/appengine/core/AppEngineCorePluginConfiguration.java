@@ -23,8 +23,11 @@ import com.google.cloud.tools.managedcloudsdk.BadCloudSdkVersionException;
 import com.google.cloud.tools.managedcloudsdk.ManagedCloudSdk;
 import com.google.cloud.tools.managedcloudsdk.UnsupportedOsException;
 import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.stream.Collectors;
 import org.gradle.api.GradleException;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
 import org.gradle.util.GradleVersion;
 
 /**
@@ -44,6 +47,7 @@ public class AppEngineCorePluginConfiguration {
   public static final String SHOW_CONFIG_TASK_NAME = "appengineShowConfiguration";
   public static final String DOWNLOAD_CLOUD_SDK_TASK_NAME = "downloadCloudSdk";
   public static final String CHECK_CLOUD_SDK_TASK_NAME = "checkCloudSdk";
+  public static final String PRUNE_CLOUD_SDK_TASK_NAME = "pruneCloudSdk";
 
   public static final String APPENGINE_EXTENSION = "appengine";
 
@@ -52,26 +56,25 @@ public class AppEngineCorePluginConfiguration {
   private ToolsExtension toolsExtension;
   private CloudSdkOperations cloudSdkOperations;
   private ManagedCloudSdk managedCloudSdk;
-  private boolean requiresAppEngineJava;
   private String taskGroup;
 
   /** Configure core tasks for appengine app.yaml and appengine-web.xml based project plugins. */
   public void configureCoreProperties(
       Project project,
       AppEngineCoreExtensionProperties appEngineCoreExtensionProperties,
-      String taskGroup,
-      boolean requiresAppEngineJava) {
+      String taskGroup) {
     checkGradleVersion();
 
     this.project = project;
     this.taskGroup = taskGroup;
     this.toolsExtension = appEngineCoreExtensionProperties.getTools();
     this.deployExtension = appEngineCoreExtensionProperties.getDeploy();
-    this.requiresAppEngineJava = requiresAppEngineJava;
     configureFactories();
 
     createDownloadCloudSdkTask();
     createCheckCloudSdkTask();
+    configureRequiredComponents();
+    createPruneCloudSdkTask();
     createLoginTask();
     createDeployTask();
     createDeployCronTask();
@@ -129,27 +132,48 @@ public class AppEngineCorePluginConfiguration {
               downloadCloudSdkTask.setGroup(taskGroup);
               downloadCloudSdkTask.setDescription("Download the Cloud SDK");
 
-              // make sure we download our required components
-              if (requiresAppEngineJava) {
-                downloadCloudSdkTask.requiresComponent(SdkComponent.APP_ENGINE_JAVA);
-              }
-
               project.afterEvaluate(
                   p -> {
                     if (managedCloudSdk != null) {
                       downloadCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
+                      // --refresh-dependencies forces a check for Cloud SDK updates
+                      if (!p.getGradle().getStartParameter().isRefreshDependencies()) {
+                        downloadCloudSdkTask.setUpdateCheckInterval(
+                            toolsExtension.getCloudSdkUpdateCheckInterval());
+                      }
                       if (p.getGradle().getStartParameter().isOffline()) {
                         p.getLogger().debug("Skipping DownloadCloudSdk in --offline mode.");
                         return;
                       }
+                      if (toolsExtension.isCloudSdkPrefetch()) {
+                        configurePrefetch(p, downloadCloudSdkTask);
+                      }
                       p.getTasks()
-                          .matching(task -> task.getName().startsWith("appengine"))
+                          .matching(AppEngineCorePluginConfiguration::requiresCloudSdk)
                           .forEach(task -> task.dependsOn(downloadCloudSdkTask));
                     }
                   });
             });
   }
 
+  /**
+   * Start installing the managed Cloud SDK once the task graph is known, if the build is going to
+   * run the download task, so that the installation overlaps with the tasks that run before it.
+   */
+  private void configurePrefetch(Project project, DownloadCloudSdkTask downloadCloudSdkTask) {
+    CloudSdkPrefetch prefetch = new CloudSdkPrefetch(managedCloudSdk, project.getLogger());
+    downloadCloudSdkTask.setPrefetch(prefetch);
+    project
+        .getGradle()
+        .getTaskGraph()
+        .whenReady(
+            taskGraph -> {
+              if (taskGraph.hasTask(downloadCloudSdkTask)) {
+                prefetch.start();
+              }
+            });
+  }
+
   private void createCheckCloudSdkTask() {
     project
         .getTasks()
@@ -165,15 +189,64 @@ public class AppEngineCorePluginConfiguration {
                     if (managedCloudSdk == null && toolsExtension.getCloudSdkVersion() != null) {
                       checkCloudSdkTask.setVersion(toolsExtension.getCloudSdkVersion());
                       checkCloudSdkTask.setCloudSdk(cloudSdkOperations.getCloudSdk());
-                      checkCloudSdkTask.requiresAppEngineJava(requiresAppEngineJava);
                       p.getTasks()
-                          .matching(task -> task.getName().startsWith("appengine"))
+                          .matching(AppEngineCorePluginConfiguration::requiresCloudSdk)
                           .forEach(task -> task.dependsOn(checkCloudSdkTask));
                     }
                   });
             });
   }
 
+  /**
+   * Once the task graph is known, require the Cloud SDK components of the most demanding task the
+   * build is going to run, so that a build that only deploys does not install the App Engine Java
+   * components.
+   */
+  private void configureRequiredComponents() {
+    DownloadCloudSdkTask downloadCloudSdkTask =
+        (DownloadCloudSdkTask) project.getTasks().getByName(DOWNLOAD_CLOUD_SDK_TASK_NAME);
+    CheckCloudSdkTask checkCloudSdkTask =
+        (CheckCloudSdkTask) project.getTasks().getByName(CHECK_CLOUD_SDK_TASK_NAME);
+    project
+        .getGradle()
+        .getTaskGraph()
+        .whenReady(
+            taskGraph -> {
+              CloudSdkCapability required =
+                  getRequiredCloudSdkCapability(
+                      taskGraph.getAllTasks().stream()
+                          .filter(task -> task.getProject() == project)
+                          .collect(Collectors.toList()));
+              if (required == CloudSdkCapability.NONE) {
+                // downloadCloudSdk or checkCloudSdk run on their own, provide for every task
+                required = getRequiredCloudSdkCapability(project.getTasks());
+              }
+              if (required == CloudSdkCapability.APP_ENGINE_JAVA) {
+                downloadCloudSdkTask.requiresComponent(SdkComponent.APP_ENGINE_JAVA);
+                checkCloudSdkTask.requiresAppEngineJava(true);
+              }
+            });
+  }
+
+  private void createPruneCloudSdkTask() {
+    project
+        .getTasks()
+        .create(
+            PRUNE_CLOUD_SDK_TASK_NAME,
+            PruneCloudSdkTask.class,
+            pruneCloudSdkTask -> {
+              pruneCloudSdkTask.setGroup(taskGroup);
+              pruneCloudSdkTask.setDescription("Remove unused managed Cloud SDK versions");
+
+              project.afterEvaluate(
+                  p -> {
+                    if (managedCloudSdk != null) {
+                      pruneCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
+                    }
+                  });
+            });
+  }
+
   private void createLoginTask() {
     injectGcloud(CloudSdkLoginTask.class);
     project
@@ -345,6 +418,24 @@ public class AppEngineCorePluginConfiguration {
     }
   }
 
+  /** Returns the highest capability any of the tasks requires. */
+  @VisibleForTesting
+  static CloudSdkCapability getRequiredCloudSdkCapability(Iterable<? extends Task> tasks) {
+    CloudSdkCapability required = CloudSdkCapability.NONE;
+    for (Task task : tasks) {
+      CloudSdkCapability capability = RequiresCloudSdk.getRequiredCloudSdkCapability(task);
+      if (capability.compareTo(required) > 0) {
+        required = capability;
+      }
+    }
+    return required;
+  }
+
+  /** Only tasks that run the Cloud SDK depend on it being downloaded or validated. */
+  private static boolean requiresCloudSdk(Task task) {
+    return RequiresCloudSdk.getRequiredCloudSdkCapability(task) != CloudSdkCapability.NONE;
+  }
+
   private void injectGcloud(Class<? extends GcloudTask> gcloudTask) {
     project
         .getTasks()
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.gradle.appengine.core;
+
+/** The parts of the Cloud SDK a task runs. Each capability includes the ones before it. */
+public enum CloudSdkCapability {
+  /** The task does not use the Cloud SDK. */
+  NONE,
+  /** The task runs gcloud. */
+  GCLOUD,
+  /** The task runs the App Engine Java tools, which need the app-engine-java component. */
+  APP_ENGINE_JAVA
+}
@@ -24,6 +24,7 @@ import com.google.cloud.tools.appengine.operations.Gcloud;
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.LegacyProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.NonZeroExceptionExitListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.OutputLineBuffer;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.gradle.appengine.util.NullSafe;
 import java.io.File;
@@ -85,6 +86,7 @@ public class CloudSdkOperations {
     return LegacyProcessHandler.builder()
         .addStdErrLineListener(logger::lifecycle)
         .addStdOutLineListener(logger::lifecycle)
+        .bufferOutput(OutputLineBuffer.DEFAULT_CAPACITY, OutputLineBuffer.Policy.DROP_OLDEST)
         .setExitListener(new NonZeroExceptionExitListener())
         .build();
   }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.gradle.appengine.core;
+
+import com.google.cloud.tools.managedcloudsdk.ManagedCloudSdk;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Installs a managed Cloud SDK on a background thread, so that the download and extraction overlap
+ * with compilation and tests instead of running in front of the first task that needs the SDK. The
+ * installer holds an install lock and reuses an installation completed by someone else, so {@link
+ * DownloadCloudSdkTask} can safely fall back to installing on its own if the prefetch failed.
+ */
+public class CloudSdkPrefetch {
+
+  private final ManagedCloudSdk managedCloudSdk;
+  private final Logger logger;
+  private Future<?> installation;
+
+  public CloudSdkPrefetch(ManagedCloudSdk managedCloudSdk, Logger logger) {
+    this.managedCloudSdk = managedCloudSdk;
+    this.logger = logger;
+  }
+
+  /** Start installing the Cloud SDK unless it is already installed. Only the first call starts. */
+  public synchronized void start() {
+    if (installation != null) {
+      return;
+    }
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("cloud-sdk-prefetch").build());
+    installation =
+        executor.submit(
+            () -> {
+              if (!managedCloudSdk.isInstalled()) {
+                logger.info("Prefetching Cloud SDK to " + managedCloudSdk.getSdkHome());
+                managedCloudSdk
+                    .newInstaller()
+                    .install(new NoOpProgressListener(), rawString -> logger.debug(rawString));
+              }
+              return null;
+            });
+    executor.shutdown();
+  }
+
+  /**
+   * Wait for a started prefetch to complete. A failed prefetch is logged and otherwise ignored, the
+   * caller is expected to verify the installation and install again if necessary.
+   */
+  public void await() throws InterruptedException {
+    Future<?> started;
+    synchronized (this) {
+      started = installation;
+    }
+    if (started == null) {
+      return;
+    }
+    try {
+      started.get();
+    } catch (ExecutionException ex) {
+      logger.warn("Cloud SDK prefetch failed, installing again: " + ex.getCause(), ex.getCause());
+    }
+  }
+}
@@ -31,6 +31,7 @@ import com.google.cloud.tools.managedcloudsdk.install.SdkInstallerException;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import org.gradle.api.DefaultTask;
@@ -42,11 +43,34 @@ public class DownloadCloudSdkTask extends DefaultTask {
 
   private ManagedCloudSdk managedCloudSdk;
   private final List<SdkComponent> components = new ArrayList<>();
+  private Duration updateCheckInterval = Duration.ZERO;
+  private CloudSdkPrefetch prefetch;
 
   public void setManagedCloudSdk(ManagedCloudSdk managedCloudSdk) {
     this.managedCloudSdk = managedCloudSdk;
   }
 
+  public void setUpdateCheckInterval(Duration updateCheckInterval) {
+    this.updateCheckInterval = updateCheckInterval;
+  }
+
+  @VisibleForTesting
+  @Internal
+  Duration getUpdateCheckInterval() {
+    return updateCheckInterval;
+  }
+
+  /** Set a background installation to wait for before verifying the Cloud SDK. */
+  public void setPrefetch(CloudSdkPrefetch prefetch) {
+    this.prefetch = prefetch;
+  }
+
+  @VisibleForTesting
+  @Internal
+  CloudSdkPrefetch getPrefetch() {
+    return prefetch;
+  }
+
   public void requiresComponent(SdkComponent component) {
     components.add(component);
   }
@@ -71,6 +95,11 @@ public class DownloadCloudSdkTask extends DefaultTask {
     ProgressListener progressListener = new NoOpProgressListener();
     ConsoleListener consoleListener = new DownloadCloudSdkTaskConsoleListener(getProject());
 
+    // wait for a prefetch started during configuration, the checks below verify its result
+    if (prefetch != null) {
+      prefetch.await();
+    }
+
     // Install sdk if not installed
     if (!managedCloudSdk.isInstalled()) {
       SdkInstaller installer = managedCloudSdk.newInstaller();
@@ -79,17 +108,16 @@ public class DownloadCloudSdkTask extends DefaultTask {
 
     // install components
     if (components != null) {
-      for (SdkComponent component : components) {
-        if (!managedCloudSdk.hasComponent(component)) {
-          managedCloudSdk
-              .newComponentInstaller()
-              .installComponent(component, progressListener, consoleListener);
-        }
+      List<SdkComponent> missingComponents = managedCloudSdk.missingComponents(components);
+      if (!missingComponents.isEmpty()) {
+        managedCloudSdk
+            .newComponentInstaller()
+            .installComponents(missingComponents, progressListener, consoleListener);
       }
     }
 
     // If version is set to LATEST, update Cloud SDK
-    if (!managedCloudSdk.isUpToDate()) {
+    if (!managedCloudSdk.isUpToDate(updateCheckInterval)) {
       SdkUpdater updater = managedCloudSdk.newUpdater();
       updater.update(progressListener, consoleListener);
     }
@@ -19,7 +19,14 @@ package com.google.cloud.tools.gradle.appengine.core;
 
 import com.google.cloud.tools.appengine.operations.Gcloud;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.Internal;
 
-public abstract class GcloudTask extends DefaultTask {
+public abstract class GcloudTask extends DefaultTask implements RequiresCloudSdk {
   public abstract void setGcloud(Gcloud gcloud);
+
+  @Override
+  @Internal
+  public CloudSdkCapability getRequiredCloudSdkCapability() {
+    return CloudSdkCapability.GCLOUD;
+  }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.gradle.appengine.core;
+
+import com.google.cloud.tools.managedcloudsdk.ManagedCloudSdk;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+/** Removes managed Cloud SDK versions that other builds on this machine no longer use. */
+public class PruneCloudSdkTask extends DefaultTask {
+
+  private ManagedCloudSdk managedCloudSdk;
+  private Duration maxUnused = Duration.ofDays(30);
+  private long maxSizeMb = -1;
+
+  public void setManagedCloudSdk(ManagedCloudSdk managedCloudSdk) {
+    this.managedCloudSdk = managedCloudSdk;
+  }
+
+  @Internal
+  public Duration getMaxUnused() {
+    return maxUnused;
+  }
+
+  /**
+   * Set how long a Cloud SDK version may go unused before it is removed.
+   *
+   * @param maxUnused a {@link Duration} or an ISO-8601 duration string such as {@code "P30D"}
+   */
+  public void setMaxUnused(Object maxUnused) {
+    if (maxUnused instanceof Duration) {
+      this.maxUnused = (Duration) maxUnused;
+    } else {
+      this.maxUnused = Duration.parse(maxUnused.toString());
+    }
+  }
+
+  @Internal
+  public long getMaxSizeMb() {
+    return maxSizeMb;
+  }
+
+  /** Set the disk space all managed Cloud SDK versions may use together, negative for no limit. */
+  public void setMaxSizeMb(long maxSizeMb) {
+    this.maxSizeMb = maxSizeMb;
+  }
+
+  @VisibleForTesting
+  @Internal
+  ManagedCloudSdk getManagedCloudSdk() {
+    return managedCloudSdk;
+  }
+
+  /** Task entrypoint : Remove unused Cloud SDK versions. */
+  @TaskAction
+  public void pruneCloudSdkAction() throws IOException, InterruptedException {
+    // managedCloudSdk is set by AppEngineCorePluginConfiguration if the cloud SDK home is empty
+    if (managedCloudSdk == null) {
+      throw new GradleException("Cloud SDK home path must not be configured to run this task.");
+    }
+
+    long maxTotalBytes = maxSizeMb < 0 ? -1 : maxSizeMb * 1024 * 1024;
+    List<String> removed = managedCloudSdk.removeUnusedVersions(maxUnused, maxTotalBytes);
+    if (removed.isEmpty()) {
+      getLogger().lifecycle("No unused Cloud SDK versions to remove");
+    } else {
+      getLogger().lifecycle("Removed unused Cloud SDK versions " + removed);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.gradle.appengine.core;
+
+import org.gradle.api.Task;
+import org.gradle.api.tasks.Internal;
+
+/**
+ * Implemented by tasks that use the Cloud SDK. Only these tasks depend on the tasks that download
+ * or validate the Cloud SDK, so builds that never run the SDK never pay for provisioning it.
+ */
+public interface RequiresCloudSdk {
+
+  @Internal
+  CloudSdkCapability getRequiredCloudSdkCapability();
+
+  /** Returns the capability a task needs, {@link CloudSdkCapability#NONE} if it declares none. */
+  static CloudSdkCapability getRequiredCloudSdkCapability(Task task) {
+    return task instanceof RequiresCloudSdk
+        ? ((RequiresCloudSdk) task).getRequiredCloudSdkCapability()
+        : CloudSdkCapability.NONE;
+  }
+}
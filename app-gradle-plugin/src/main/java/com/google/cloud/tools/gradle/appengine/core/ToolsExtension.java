@@ -18,6 +18,7 @@
 package com.google.cloud.tools.gradle.appengine.core;
 
 import java.io.File;
+import java.time.Duration;
 import org.gradle.api.Project;
 
 /** Extension element to define the location of cloud sdk tooling. */
@@ -27,6 +28,8 @@ public class ToolsExtension {
 
   private File cloudSdkHome;
   private String cloudSdkVersion;
+  private Duration cloudSdkUpdateCheckInterval = Duration.ZERO;
+  private boolean cloudSdkPrefetch;
   private File cloudSdkServiceAccountFile;
   private String verbosity;
 
@@ -42,6 +45,36 @@ public class ToolsExtension {
     this.cloudSdkVersion = cloudSdkVersion;
   }
 
+  public Duration getCloudSdkUpdateCheckInterval() {
+    return cloudSdkUpdateCheckInterval;
+  }
+
+  /** Set the minimum time between update checks of a managed Cloud SDK without a fixed version. */
+  public void setCloudSdkUpdateCheckInterval(Duration cloudSdkUpdateCheckInterval) {
+    this.cloudSdkUpdateCheckInterval = cloudSdkUpdateCheckInterval;
+  }
+
+  /**
+   * Set the minimum time between update checks of a managed Cloud SDK without a fixed version.
+   *
+   * @param cloudSdkUpdateCheckInterval an ISO-8601 duration such as "PT24H"
+   */
+  public void setCloudSdkUpdateCheckInterval(String cloudSdkUpdateCheckInterval) {
+    this.cloudSdkUpdateCheckInterval = Duration.parse(cloudSdkUpdateCheckInterval);
+  }
+
+  public boolean isCloudSdkPrefetch() {
+    return cloudSdkPrefetch;
+  }
+
+  /**
+   * Set whether a managed Cloud SDK is installed in the background as soon as the build starts,
+   * instead of when the {@code downloadCloudSdk} task runs.
+   */
+  public void setCloudSdkPrefetch(boolean cloudSdkPrefetch) {
+    this.cloudSdkPrefetch = cloudSdkPrefetch;
+  }
+
   public File getCloudSdkHome() {
     return cloudSdkHome;
   }
@@ -69,7 +69,7 @@ public class AppEngineStandardPlugin implements Plugin<Project> {
 
     appEngineCorePluginConfiguration = new AppEngineCorePluginConfiguration();
     appEngineCorePluginConfiguration.configureCoreProperties(
-        project, appengineExtension, APP_ENGINE_STANDARD_TASK_GROUP, true);
+        project, appengineExtension, APP_ENGINE_STANDARD_TASK_GROUP);
 
     explodedWarDir = new File(project.getBuildDir(), "exploded-" + project.getName());
 
@@ -19,13 +19,16 @@ package com.google.cloud.tools.gradle.appengine.standard;
 
 import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.operations.DevServers;
+import com.google.cloud.tools.gradle.appengine.core.CloudSdkCapability;
 import com.google.cloud.tools.gradle.appengine.core.CloudSdkOperations;
+import com.google.cloud.tools.gradle.appengine.core.RequiresCloudSdk;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.ProjectConfigurationException;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 
 /** RunExtension App Engine Standard Environment applications locally. */
-public class DevAppServerRunTask extends DefaultTask {
+public class DevAppServerRunTask extends DefaultTask implements RequiresCloudSdk {
 
   private RunExtension runConfig;
   private DevServers devServers;
@@ -38,6 +41,12 @@ public class DevAppServerRunTask extends DefaultTask {
     this.devServers = devServers;
   }
 
+  @Override
+  @Internal
+  public CloudSdkCapability getRequiredCloudSdkCapability() {
+    return CloudSdkCapability.APP_ENGINE_JAVA;
+  }
+
   /** Task entrypoint : run the devappserver (blocking). */
   @TaskAction
   public void runAction() throws AppEngineException, ProjectConfigurationException {
@@ -21,17 +21,21 @@ import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.operations.DevServers;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.LegacyProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.NonZeroExceptionExitListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.OutputLineBuffer;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
+import com.google.cloud.tools.gradle.appengine.core.CloudSdkCapability;
+import com.google.cloud.tools.gradle.appengine.core.RequiresCloudSdk;
 import com.google.cloud.tools.gradle.appengine.util.io.FileOutputLineListener;
 import java.io.File;
 import java.io.IOException;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
 
 /** Start the App Engine development server asynchronously. */
-public class DevAppServerStartTask extends DefaultTask {
+public class DevAppServerStartTask extends DefaultTask implements RequiresCloudSdk {
 
   private RunExtension runConfig;
   private DevServers devServers;
@@ -59,6 +63,12 @@ public class DevAppServerStartTask extends DefaultTask {
     return devAppServerLoggingDir;
   }
 
+  @Override
+  @Internal
+  public CloudSdkCapability getRequiredCloudSdkCapability() {
+    return CloudSdkCapability.APP_ENGINE_JAVA;
+  }
+
   /** Task entrypoint : start the dev appserver (non-blocking). */
   @TaskAction
   public void startAction() throws AppEngineException, IOException {
@@ -75,7 +85,14 @@ public class DevAppServerStartTask extends DefaultTask {
             .addStdOutLineListener(logFileWriter)
             .addStdErrLineListener(taskLogger::lifecycle)
             .addStdErrLineListener(logFileWriter)
-            .setExitListener(new NonZeroExceptionExitListener())
+            // the log file gets every line, the console may drop lines if it cannot keep up
+            .unbuffered(logFileWriter)
+            .bufferOutput(OutputLineBuffer.DEFAULT_CAPACITY, OutputLineBuffer.Policy.DROP_OLDEST)
+            .setExitListener(
+                exitCode -> {
+                  logFileWriter.close();
+                  new NonZeroExceptionExitListener().onExit(exitCode);
+                })
             .buildDevAppServerAsync(runConfig.getStartSuccessTimeout());
 
     devServers.newDevAppServer(processHandler).run(runConfig.toRunConfiguration());
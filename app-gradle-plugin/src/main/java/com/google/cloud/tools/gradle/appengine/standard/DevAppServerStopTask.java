@@ -20,12 +20,15 @@ package com.google.cloud.tools.gradle.appengine.standard;
 import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.operations.DevServer;
 import com.google.cloud.tools.appengine.operations.DevServers;
+import com.google.cloud.tools.gradle.appengine.core.CloudSdkCapability;
 import com.google.cloud.tools.gradle.appengine.core.CloudSdkOperations;
+import com.google.cloud.tools.gradle.appengine.core.RequiresCloudSdk;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
 
 /** Stop the App Engine development server. */
-public class DevAppServerStopTask extends DefaultTask {
+public class DevAppServerStopTask extends DefaultTask implements RequiresCloudSdk {
 
   private RunExtension runConfig;
   private DevServers devServers;
@@ -38,6 +41,12 @@ public class DevAppServerStopTask extends DefaultTask {
     this.devServers = devServers;
   }
 
+  @Override
+  @Internal
+  public CloudSdkCapability getRequiredCloudSdkCapability() {
+    return CloudSdkCapability.APP_ENGINE_JAVA;
+  }
+
   /** Task entrypoint : Stop the dev appserver (get StopConfiguration from helper). */
   @TaskAction
   public void stopAction() {
@@ -19,13 +19,16 @@ package com.google.cloud.tools.gradle.appengine.standard;
 
 import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.operations.AppCfg;
+import com.google.cloud.tools.gradle.appengine.core.CloudSdkCapability;
 import com.google.cloud.tools.gradle.appengine.core.CloudSdkOperations;
+import com.google.cloud.tools.gradle.appengine.core.RequiresCloudSdk;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.TaskAction;
 
 /** Stage App Engine Standard Environment applications for deployment. */
-public class StageStandardTask extends DefaultTask {
+public class StageStandardTask extends DefaultTask implements RequiresCloudSdk {
 
   private StageStandardExtension stageStandardExtension;
   private AppCfg appCfg;
@@ -43,6 +46,12 @@ public class StageStandardTask extends DefaultTask {
     this.appCfg = appCfg;
   }
 
+  @Override
+  @Internal
+  public CloudSdkCapability getRequiredCloudSdkCapability() {
+    return CloudSdkCapability.APP_ENGINE_JAVA;
+  }
+
   /** Task entrypoint : stage the standard app. */
   @TaskAction
   public void stageAction() throws AppEngineException {
@@ -18,20 +18,32 @@
 package com.google.cloud.tools.gradle.appengine.util.io;
 
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessRegistry;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 
-/** A listener that redirects process output to a file. */
-public class FileOutputLineListener implements ProcessOutputLineListener {
+/**
+ * A listener that redirects process output to a file. The file is closed by {@link #close()}, or
+ * when the JVM exits.
+ */
+public class FileOutputLineListener implements ProcessOutputLineListener, Closeable {
   private final PrintStream logFilePrinter;
 
   public FileOutputLineListener(File logFile) throws IOException {
     logFilePrinter = new PrintStream(logFile);
+    ProcessRegistry.getInstance().register(this);
   }
 
   @Override
   public void onOutputLine(String line) {
     logFilePrinter.println(line);
   }
+
+  @Override
+  public void close() {
+    ProcessRegistry.getInstance().deregister(this);
+    logFilePrinter.close();
+  }
 }
@@ -105,8 +105,8 @@ public class AppEngineAppYamlPluginTest {
             ":classes",
             ":war",
             ":assemble",
-            ":downloadCloudSdk",
             ":appengineStage",
+            ":downloadCloudSdk",
             ":appengineDeploy");
     assertEquals(expected, BuildResultFilter.extractTasks(buildResult));
   }
@@ -123,8 +123,8 @@ public class AppEngineAppYamlPluginTest {
             ":classes",
             ":war",
             ":assemble",
-            ":checkCloudSdk",
             ":appengineStage",
+            ":checkCloudSdk",
             ":appengineDeploy");
     assertEquals(expected, BuildResultFilter.extractTasks(buildResult));
   }
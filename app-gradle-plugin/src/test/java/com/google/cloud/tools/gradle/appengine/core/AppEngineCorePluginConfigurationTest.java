@@ -17,10 +17,13 @@
 package com.google.cloud.tools.gradle.appengine.core;
 
 import com.google.cloud.tools.gradle.appengine.TestProject;
-import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
@@ -33,20 +36,25 @@ public class AppEngineCorePluginConfigurationTest {
   @Rule public final TemporaryFolder testProjectDir = new TemporaryFolder();
 
   @Test
-  public void testCreateDownloadSdkTask_configureAppEngineComponent() throws IOException {
+  public void testGetRequiredCloudSdkCapability() throws IOException {
     Project project =
         new TestProject(testProjectDir.getRoot())
             .addAppEngineWebXml()
             .applyStandardProjectBuilder();
 
-    DownloadCloudSdkTask task =
-        (DownloadCloudSdkTask)
-            project
-                .getTasks()
-                .getByPath(AppEngineCorePluginConfiguration.DOWNLOAD_CLOUD_SDK_TASK_NAME);
-    List<SdkComponent> components = task.getComponents();
-    MatcherAssert.assertThat(components, Matchers.hasItem(SdkComponent.APP_ENGINE_JAVA));
-    Assert.assertEquals(1, components.size());
+    Assert.assertEquals(
+        CloudSdkCapability.APP_ENGINE_JAVA,
+        AppEngineCorePluginConfiguration.getRequiredCloudSdkCapability(
+            getTasks(
+                project, "appengineStage", AppEngineCorePluginConfiguration.DEPLOY_TASK_NAME)));
+    Assert.assertEquals(
+        CloudSdkCapability.GCLOUD,
+        AppEngineCorePluginConfiguration.getRequiredCloudSdkCapability(
+            getTasks(project, AppEngineCorePluginConfiguration.DEPLOY_CRON_TASK_NAME)));
+    Assert.assertEquals(
+        CloudSdkCapability.NONE,
+        AppEngineCorePluginConfiguration.getRequiredCloudSdkCapability(
+            getTasks(project, AppEngineCorePluginConfiguration.SHOW_CONFIG_TASK_NAME)));
   }
 
   @Test
@@ -60,4 +68,53 @@ public class AppEngineCorePluginConfigurationTest {
                 .getByPath(AppEngineCorePluginConfiguration.DOWNLOAD_CLOUD_SDK_TASK_NAME);
     Assert.assertEquals(0, task.getComponents().size());
   }
+
+  @Test
+  public void testDownloadSdkTask_onlyRequiredByCloudSdkTasks() {
+    Project project = new TestProject(testProjectDir.getRoot()).applyAppYamlProjectBuilder();
+    Task downloadCloudSdkTask =
+        project.getTasks().getByPath(AppEngineCorePluginConfiguration.DOWNLOAD_CLOUD_SDK_TASK_NAME);
+
+    MatcherAssert.assertThat(
+        getDependencies(project, AppEngineCorePluginConfiguration.DEPLOY_TASK_NAME),
+        Matchers.hasItem(downloadCloudSdkTask));
+    MatcherAssert.assertThat(
+        getDependencies(project, AppEngineCorePluginConfiguration.LOGIN_TASK_NAME),
+        Matchers.hasItem(downloadCloudSdkTask));
+    MatcherAssert.assertThat(
+        getDependencies(project, "appengineStage"),
+        Matchers.not(Matchers.hasItem(downloadCloudSdkTask)));
+    MatcherAssert.assertThat(
+        getDependencies(project, AppEngineCorePluginConfiguration.SHOW_CONFIG_TASK_NAME),
+        Matchers.not(Matchers.hasItem(downloadCloudSdkTask)));
+  }
+
+  @Test
+  public void testDownloadSdkTask_requiredByStandardStaging() throws IOException {
+    Project project =
+        new TestProject(testProjectDir.getRoot())
+            .addAppEngineWebXml()
+            .applyStandardProjectBuilder();
+    Task downloadCloudSdkTask =
+        project.getTasks().getByPath(AppEngineCorePluginConfiguration.DOWNLOAD_CLOUD_SDK_TASK_NAME);
+
+    MatcherAssert.assertThat(
+        getDependencies(project, "appengineStage"), Matchers.hasItem(downloadCloudSdkTask));
+    MatcherAssert.assertThat(
+        getDependencies(project, "explodeWar"),
+        Matchers.not(Matchers.hasItem(downloadCloudSdkTask)));
+  }
+
+  private static List<Task> getTasks(Project project, String... taskNames) {
+    List<Task> tasks = new ArrayList<>();
+    for (String taskName : taskNames) {
+      tasks.add(project.getTasks().getByPath(taskName));
+    }
+    return tasks;
+  }
+
+  private static Set<Task> getDependencies(Project project, String taskName) {
+    Task task = project.getTasks().getByPath(taskName);
+    return new HashSet<>(task.getTaskDependencies().getDependencies(task));
+  }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.gradle.appengine.core;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.tools.managedcloudsdk.ManagedCloudSdk;
+import com.google.cloud.tools.managedcloudsdk.install.SdkInstaller;
+import com.google.cloud.tools.managedcloudsdk.install.SdkInstallerException;
+import java.nio.file.Paths;
+import org.gradle.api.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CloudSdkPrefetchTest {
+
+  @Mock private ManagedCloudSdk managedCloudSdk;
+  @Mock private SdkInstaller installer;
+  @Mock private Logger logger;
+
+  @Before
+  public void setup() {
+    when(managedCloudSdk.getSdkHome()).thenReturn(Paths.get("sdk"));
+    when(managedCloudSdk.newInstaller()).thenReturn(installer);
+  }
+
+  @Test
+  public void testStart_installsOnce() throws Exception {
+    when(managedCloudSdk.isInstalled()).thenReturn(false);
+    CloudSdkPrefetch prefetch = new CloudSdkPrefetch(managedCloudSdk, logger);
+
+    prefetch.start();
+    prefetch.start();
+    prefetch.await();
+
+    verify(installer, times(1)).install(any(), any());
+  }
+
+  @Test
+  public void testStart_skipsInstalledSdk() throws Exception {
+    when(managedCloudSdk.isInstalled()).thenReturn(true);
+    CloudSdkPrefetch prefetch = new CloudSdkPrefetch(managedCloudSdk, logger);
+
+    prefetch.start();
+    prefetch.await();
+
+    verify(managedCloudSdk, never()).newInstaller();
+  }
+
+  @Test
+  public void testAwait_notStarted() throws Exception {
+    new CloudSdkPrefetch(managedCloudSdk, logger).await();
+
+    verify(managedCloudSdk, never()).isInstalled();
+  }
+
+  @Test
+  public void testAwait_logsFailure() throws Exception {
+    when(managedCloudSdk.isInstalled()).thenReturn(false);
+    SdkInstallerException failure = new SdkInstallerException("failed");
+    when(installer.install(any(), any())).thenThrow(failure);
+    CloudSdkPrefetch prefetch = new CloudSdkPrefetch(managedCloudSdk, logger);
+
+    prefetch.start();
+    prefetch.await();
+
+    verify(logger).warn(anyString(), same(failure));
+  }
+}
@@ -19,8 +19,9 @@ package com.google.cloud.tools.gradle.appengine.core;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,7 +35,9 @@ import com.google.cloud.tools.managedcloudsdk.components.SdkComponentInstaller;
 import com.google.cloud.tools.managedcloudsdk.components.SdkUpdater;
 import com.google.cloud.tools.managedcloudsdk.install.SdkInstaller;
 import com.google.cloud.tools.managedcloudsdk.install.SdkInstallerException;
+import com.google.common.collect.ImmutableList;
 import java.io.IOException;
+import java.time.Duration;
 import org.gradle.api.GradleException;
 import org.gradle.api.Project;
 import org.gradle.testfixtures.ProjectBuilder;
@@ -42,6 +45,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -103,11 +107,13 @@ public class DownloadCloudSdkTaskTest {
     downloadCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
     downloadCloudSdkTask.requiresComponent(SdkComponent.APP_ENGINE_JAVA);
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.hasComponent(SdkComponent.APP_ENGINE_JAVA)).thenReturn(false);
+    when(managedCloudSdk.missingComponents(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA)))
+        .thenReturn(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA));
     downloadCloudSdkTask.downloadCloudSdkAction();
     verify(managedCloudSdk, never()).newInstaller();
     verify(managedCloudSdk).newComponentInstaller();
-    verify(componentInstaller).installComponent(eq(SdkComponent.APP_ENGINE_JAVA), any(), any());
+    verify(componentInstaller)
+        .installComponents(eq(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA)), any(), any());
   }
 
   @Test
@@ -119,13 +125,15 @@ public class DownloadCloudSdkTaskTest {
     downloadCloudSdkTask.requiresComponent(SdkComponent.APP_ENGINE_JAVA);
     downloadCloudSdkTask.requiresComponent(SdkComponent.BETA);
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.hasComponent(SdkComponent.APP_ENGINE_JAVA)).thenReturn(false);
-    when(managedCloudSdk.hasComponent(SdkComponent.BETA)).thenReturn(false);
+    when(managedCloudSdk.missingComponents(
+            ImmutableList.of(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA)))
+        .thenReturn(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA));
     downloadCloudSdkTask.downloadCloudSdkAction();
     verify(managedCloudSdk, never()).newInstaller();
-    verify(managedCloudSdk, times(2)).newComponentInstaller();
-    verify(componentInstaller).installComponent(eq(SdkComponent.APP_ENGINE_JAVA), any(), any());
-    verify(componentInstaller).installComponent(eq(SdkComponent.BETA), any(), any());
+    verify(managedCloudSdk).newComponentInstaller();
+    verify(componentInstaller)
+        .installComponents(
+            eq(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA)), any(), any());
   }
 
   @Test
@@ -137,12 +145,14 @@ public class DownloadCloudSdkTaskTest {
     downloadCloudSdkTask.requiresComponent(SdkComponent.APP_ENGINE_JAVA);
     downloadCloudSdkTask.requiresComponent(SdkComponent.BETA);
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.hasComponent(SdkComponent.APP_ENGINE_JAVA)).thenReturn(false);
-    when(managedCloudSdk.hasComponent(SdkComponent.BETA)).thenReturn(true);
+    when(managedCloudSdk.missingComponents(
+            ImmutableList.of(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA)))
+        .thenReturn(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA));
     downloadCloudSdkTask.downloadCloudSdkAction();
     verify(managedCloudSdk, never()).newInstaller();
     verify(managedCloudSdk).newComponentInstaller();
-    verify(componentInstaller).installComponent(eq(SdkComponent.APP_ENGINE_JAVA), any(), any());
+    verify(componentInstaller)
+        .installComponents(eq(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA)), any(), any());
   }
 
   @Test
@@ -153,7 +163,8 @@ public class DownloadCloudSdkTaskTest {
     downloadCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
     downloadCloudSdkTask.requiresComponent(SdkComponent.APP_ENGINE_JAVA);
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.hasComponent(SdkComponent.APP_ENGINE_JAVA)).thenReturn(true);
+    when(managedCloudSdk.missingComponents(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA)))
+        .thenReturn(ImmutableList.of());
     downloadCloudSdkTask.downloadCloudSdkAction();
     verify(managedCloudSdk, never()).newInstaller();
     verify(managedCloudSdk, never()).newComponentInstaller();
@@ -166,10 +177,42 @@ public class DownloadCloudSdkTaskTest {
           CommandExitException {
     downloadCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.isUpToDate()).thenReturn(false);
+    when(managedCloudSdk.isUpToDate(Duration.ZERO)).thenReturn(false);
     downloadCloudSdkTask.downloadCloudSdkAction();
     verify(managedCloudSdk, never()).newInstaller();
     verify(managedCloudSdk, never()).newComponentInstaller();
     verify(managedCloudSdk).newUpdater();
   }
+
+  @Test
+  public void testDownloadCloudSdkAction_updateCheckInterval()
+      throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException,
+          InterruptedException, CommandExecutionException, SdkInstallerException, IOException,
+          CommandExitException {
+    downloadCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
+    downloadCloudSdkTask.setUpdateCheckInterval(Duration.ofHours(24));
+    when(managedCloudSdk.isInstalled()).thenReturn(true);
+    when(managedCloudSdk.isUpToDate(Duration.ofHours(24))).thenReturn(true);
+    downloadCloudSdkTask.downloadCloudSdkAction();
+    verify(managedCloudSdk).isUpToDate(Duration.ofHours(24));
+    verify(managedCloudSdk, never()).newUpdater();
+  }
+
+  @Test
+  public void testDownloadCloudSdkAction_awaitsPrefetch()
+      throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException,
+          InterruptedException, CommandExecutionException, SdkInstallerException, IOException,
+          CommandExitException {
+    CloudSdkPrefetch prefetch = mock(CloudSdkPrefetch.class);
+    downloadCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
+    downloadCloudSdkTask.setPrefetch(prefetch);
+    when(managedCloudSdk.isInstalled()).thenReturn(true);
+    when(managedCloudSdk.isUpToDate(Duration.ZERO)).thenReturn(true);
+    downloadCloudSdkTask.downloadCloudSdkAction();
+
+    InOrder inOrder = inOrder(prefetch, managedCloudSdk);
+    inOrder.verify(prefetch).await();
+    inOrder.verify(managedCloudSdk).isInstalled();
+    verify(managedCloudSdk, never()).newInstaller();
+  }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.gradle.appengine.core;
+
+import static org.mockito.Mockito.verify;
+
+import com.google.cloud.tools.managedcloudsdk.ManagedCloudSdk;
+import java.io.IOException;
+import java.time.Duration;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PruneCloudSdkTaskTest {
+
+  @Mock private ManagedCloudSdk managedCloudSdk;
+
+  private PruneCloudSdkTask pruneCloudSdkTask;
+
+  /** Setup PruneCloudSdkTaskTest. */
+  @Before
+  public void setup() {
+    Project tempProject = ProjectBuilder.builder().build();
+    pruneCloudSdkTask = tempProject.getTasks().create("tempPruneTask", PruneCloudSdkTask.class);
+  }
+
+  @Test
+  public void testPruneCloudSdkAction_badConfigure() throws IOException, InterruptedException {
+    try {
+      pruneCloudSdkTask.pruneCloudSdkAction();
+      Assert.fail();
+    } catch (GradleException ex) {
+      Assert.assertEquals(
+          "Cloud SDK home path must not be configured to run this task.", ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testPruneCloudSdkAction_defaults() throws IOException, InterruptedException {
+    pruneCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
+    pruneCloudSdkTask.pruneCloudSdkAction();
+    verify(managedCloudSdk).removeUnusedVersions(Duration.ofDays(30), -1);
+  }
+
+  @Test
+  public void testPruneCloudSdkAction_configured() throws IOException, InterruptedException {
+    pruneCloudSdkTask.setManagedCloudSdk(managedCloudSdk);
+    pruneCloudSdkTask.setMaxUnused("P7D");
+    pruneCloudSdkTask.setMaxSizeMb(2048);
+    pruneCloudSdkTask.pruneCloudSdkAction();
+    verify(managedCloudSdk).removeUnusedVersions(Duration.ofDays(7), 2048L * 1024 * 1024);
+  }
+}
@@ -32,10 +32,13 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkOutOfDateExc
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkVersionFileException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.LegacyProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.NonZeroExceptionExitListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.OutputLineBuffer;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessRegistry;
 import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
 import com.google.common.annotations.VisibleForTesting;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
@@ -45,6 +48,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 
 /** Factory for App Engine dependencies. */
@@ -57,12 +61,12 @@ public class CloudSdkAppEngineFactory {
   }
 
   /** Constructs an object used for auth. */
-  public Auth auth() {
+  public Auth auth() throws MojoExecutionException {
     return getGcloud().newAuth(newDefaultProcessHandler());
   }
 
   /** Constructs an object used for appengine-web.xml based staging. */
-  public AppEngineWebXmlProjectStaging appengineWebXmlStaging() {
+  public AppEngineWebXmlProjectStaging appengineWebXmlStaging() throws MojoExecutionException {
     return getAppCfg().newStaging(newDefaultProcessHandler());
   }
 
@@ -72,31 +76,31 @@ public class CloudSdkAppEngineFactory {
   }
 
   /** Constructs an object used for deployment. */
-  public Deployment deployment() {
+  public Deployment deployment() throws MojoExecutionException {
     return getGcloud().newDeployment(newDefaultProcessHandler());
   }
 
   /** Constructs a dev server for the run goal. */
-  public DevServer devServerRunSync() {
+  public DevServer devServerRunSync() throws MojoExecutionException {
     return getDevServers().newDevAppServer(newDefaultProcessHandler());
   }
 
   /** Constructs a dev server in async mode. */
-  public DevServer devServerRunAsync(int startSuccessTimeout) {
+  public DevServer devServerRunAsync(int startSuccessTimeout) throws MojoExecutionException {
     return getDevServers().newDevAppServer(newDevAppServerAsyncHandler(startSuccessTimeout));
   }
 
   /** Constructs a dev server for the stop goal. */
-  public DevServer devServerStop() {
+  public DevServer devServerStop() throws MojoExecutionException {
     return getDevServers().newDevAppServer(newDefaultProcessHandler());
   }
 
   /** Constructs an object used for the genRepoInfoFile goal. */
-  public GenRepoInfoFile genRepoInfoFile() {
+  public GenRepoInfoFile genRepoInfoFile() throws MojoExecutionException {
     return getGcloud().newGenRepoInfo(newDefaultProcessHandler());
   }
 
-  private CloudSdk buildCloudSdkMinimal() {
+  private CloudSdk buildCloudSdkMinimal() throws MojoExecutionException {
     return buildCloudSdk(
         mojo,
         new CloudSdkChecker(),
@@ -105,7 +109,7 @@ public class CloudSdkAppEngineFactory {
   }
 
   @VisibleForTesting
-  CloudSdk buildCloudSdkWithAppEngineComponents() {
+  CloudSdk buildCloudSdkWithAppEngineComponents() throws MojoExecutionException {
     return buildCloudSdk(
         mojo,
         new CloudSdkChecker(),
@@ -117,7 +121,8 @@ public class CloudSdkAppEngineFactory {
       CloudSdkMojo mojo,
       CloudSdkChecker cloudSdkChecker,
       CloudSdkDownloader cloudSdkDownloader,
-      boolean requiresAppEngineComponents) {
+      boolean requiresAppEngineComponents)
+      throws MojoExecutionException {
 
     try {
       if (mojo.getCloudSdkHome() != null) {
@@ -143,7 +148,8 @@ public class CloudSdkAppEngineFactory {
                     mojo.getCloudSdkVersion(),
                     mojo.getLog(),
                     requiredComponents,
-                    mojo.getMavenSession().isOffline()))
+                    mojo.getMavenSession().isOffline(),
+                    mojo.getCloudSdkUpdateCheckInterval()))
             .build();
       }
     } catch (CloudSdkNotFoundException
@@ -155,7 +161,7 @@ public class CloudSdkAppEngineFactory {
   }
 
   /** Return a Gcloud instance using global configuration. */
-  public Gcloud getGcloud() {
+  public Gcloud getGcloud() throws MojoExecutionException {
     return Gcloud.builder(buildCloudSdkMinimal())
         .setMetricsEnvironment(mojo.getArtifactId(), mojo.getArtifactVersion())
         .setCredentialFile(mojo.getServiceAccountKeyFile())
@@ -163,11 +169,11 @@ public class CloudSdkAppEngineFactory {
         .build();
   }
 
-  private AppCfg getAppCfg() {
+  private AppCfg getAppCfg() throws MojoExecutionException {
     return AppCfg.builder(buildCloudSdkWithAppEngineComponents()).build();
   }
 
-  private DevServers getDevServers() {
+  private DevServers getDevServers() throws MojoExecutionException {
     return DevServers.builder(buildCloudSdkWithAppEngineComponents()).build();
   }
 
@@ -176,6 +182,7 @@ public class CloudSdkAppEngineFactory {
     return LegacyProcessHandler.builder()
         .addStdOutLineListener(lineListener)
         .addStdErrLineListener(lineListener)
+        .bufferOutput(OutputLineBuffer.DEFAULT_CAPACITY, OutputLineBuffer.Policy.DROP_OLDEST)
         .setExitListener(new NonZeroExceptionExitListener())
         .build();
   }
@@ -201,11 +208,18 @@ public class CloudSdkAppEngineFactory {
         .addStdOutLineListener(fileListener)
         .addStdErrLineListener(lineListener)
         .addStdErrLineListener(fileListener)
-        .setExitListener(new NonZeroExceptionExitListener())
+        // the log file gets every line, the console may drop lines if it cannot keep up
+        .unbuffered(fileListener)
+        .bufferOutput(OutputLineBuffer.DEFAULT_CAPACITY, OutputLineBuffer.Policy.DROP_OLDEST)
+        .setExitListener(
+            exitCode -> {
+              fileListener.close();
+              new NonZeroExceptionExitListener().onExit(exitCode);
+            })
         .buildDevAppServerAsync(timeout);
   }
 
-  public ConfigReader newConfigReader() {
+  public ConfigReader newConfigReader() throws MojoExecutionException {
     return new ConfigReader(getGcloud());
   }
 
@@ -226,21 +240,18 @@ public class CloudSdkAppEngineFactory {
     }
   }
 
-  /** A listener that redirects process output to a file. */
-  static class FileOutputLineListener implements ProcessOutputLineListener {
+  /**
+   * A listener that redirects process output to a file. The file is closed by {@link #close()}, or
+   * when the JVM exits.
+   */
+  static class FileOutputLineListener implements ProcessOutputLineListener, Closeable {
 
     private final PrintStream logFilePrinter;
 
     FileOutputLineListener(final File logFile) {
       try {
         logFilePrinter = new PrintStream(logFile, StandardCharsets.UTF_8.name());
-        Runtime.getRuntime()
-            .addShutdownHook(
-                new Thread() {
-                  public void run() {
-                    logFilePrinter.close();
-                  }
-                });
+        ProcessRegistry.getInstance().register(this);
       } catch (IOException ex) {
         throw new RuntimeException(ex);
       }
@@ -250,5 +261,11 @@ public class CloudSdkAppEngineFactory {
     public void onOutputLine(String line) {
       logFilePrinter.println(line);
     }
+
+    @Override
+    public void close() {
+      ProcessRegistry.getInstance().deregister(this);
+      logFilePrinter.close();
+    }
   }
 }
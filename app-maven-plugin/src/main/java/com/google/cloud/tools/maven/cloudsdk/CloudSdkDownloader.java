@@ -31,6 +31,7 @@ import com.google.cloud.tools.managedcloudsdk.install.SdkInstallerException;
 import com.google.common.base.Strings;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Function;
 import org.apache.maven.plugin.logging.Log;
@@ -46,10 +47,15 @@ public class CloudSdkDownloader {
   /**
    * Downloads/installs/updates the Cloud SDK.
    *
+   * @param updateCheckInterval minimum time between update checks of a LATEST Cloud SDK
    * @return The cloud SDK installation directory
    */
   public Path downloadIfNecessary(
-      String version, Log log, List<SdkComponent> components, boolean offline) {
+      String version,
+      Log log,
+      List<SdkComponent> components,
+      boolean offline,
+      Duration updateCheckInterval) {
     ManagedCloudSdk managedCloudSdk = managedCloudSdkFactory.apply(version);
     if (offline) { // in offline mode, don't download anything
       return managedCloudSdk.getSdkHome();
@@ -64,16 +70,15 @@ public class CloudSdkDownloader {
 
       // install requested components
       if (components != null) {
-        for (SdkComponent component : components) {
-          if (!managedCloudSdk.hasComponent(component)) {
-            managedCloudSdk
-                .newComponentInstaller()
-                .installComponent(component, progressListener, consoleListener);
-          }
+        List<SdkComponent> missingComponents = managedCloudSdk.missingComponents(components);
+        if (!missingComponents.isEmpty()) {
+          managedCloudSdk
+              .newComponentInstaller()
+              .installComponents(missingComponents, progressListener, consoleListener);
         }
       }
 
-      if (!managedCloudSdk.isUpToDate()) {
+      if (!managedCloudSdk.isUpToDate(updateCheckInterval)) {
         managedCloudSdk.newUpdater().update(progressListener, consoleListener);
       }
 
@@ -17,6 +17,7 @@
 package com.google.cloud.tools.maven.cloudsdk;
 
 import com.google.cloud.tools.appengine.AppEngineException;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
 
 /** Login and set the Cloud SDK common configuration user. */
@@ -24,7 +25,7 @@ import org.apache.maven.plugins.annotations.Mojo;
 public class CloudSdkLoginMojo extends CloudSdkMojo {
 
   @Override
-  public void execute() {
+  public void execute() throws MojoExecutionException {
     if (skip) {
       getLog().info("Skipping appengine:cloudSdkLogin");
       return;
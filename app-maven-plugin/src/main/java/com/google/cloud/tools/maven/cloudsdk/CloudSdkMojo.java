@@ -17,11 +17,15 @@
 package com.google.cloud.tools.maven.cloudsdk;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
 import java.io.File;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
@@ -38,6 +42,14 @@ public abstract class CloudSdkMojo extends AbstractMojo {
   @Parameter(property = "cloudSdkVersion", required = false)
   private String cloudSdkVersion;
 
+  /**
+   * Optional parameter to configure the minimum time between update checks of a managed Cloud SDK
+   * without a fixed version, as an ISO-8601 duration such as {@code PT24H}. If not set, the Cloud
+   * SDK is checked for updates on every build. Running maven with {@code -U} forces a check.
+   */
+  @Parameter(property = "cloudSdkUpdateCheckInterval", required = false)
+  private String cloudSdkUpdateCheckInterval;
+
   /** Optional parameter to configure the key file used for gcloud authentication. */
   @Parameter(property = "serviceAccountKeyFile", required = false)
   private File serviceAccountKeyFile;
@@ -76,6 +88,28 @@ public abstract class CloudSdkMojo extends AbstractMojo {
     return cloudSdkVersion;
   }
 
+  /**
+   * Returns the minimum time between update checks of a managed Cloud SDK, {@link Duration#ZERO} if
+   * updates should be checked for now.
+   *
+   * @throws MojoExecutionException if cloudSdkUpdateCheckInterval is not an ISO-8601 duration
+   */
+  public Duration getCloudSdkUpdateCheckInterval() throws MojoExecutionException {
+    if (Strings.isNullOrEmpty(cloudSdkUpdateCheckInterval)
+        || (mavenSession != null && mavenSession.getRequest().isUpdateSnapshots())) {
+      return Duration.ZERO;
+    }
+    try {
+      return Duration.parse(cloudSdkUpdateCheckInterval);
+    } catch (DateTimeParseException ex) {
+      throw new MojoExecutionException(
+          "Invalid cloudSdkUpdateCheckInterval '"
+              + cloudSdkUpdateCheckInterval
+              + "', expected an ISO-8601 duration like PT24H",
+          ex);
+    }
+  }
+
   public Path getServiceAccountKeyFile() {
     return (serviceAccountKeyFile == null) ? null : serviceAccountKeyFile.toPath();
   }
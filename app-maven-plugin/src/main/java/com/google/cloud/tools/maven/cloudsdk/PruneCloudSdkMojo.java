@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.maven.cloudsdk;
+
+import com.google.cloud.tools.managedcloudsdk.ManagedCloudSdk;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/** Remove managed Cloud SDK versions that are no longer used. */
+@Mojo(name = "pruneCloudSdk")
+public class PruneCloudSdkMojo extends CloudSdkMojo {
+
+  /**
+   * Managed Cloud SDK versions not used for longer than this are removed, as an ISO-8601 duration
+   * such as {@code P30D}.
+   */
+  @Parameter(property = "cloudSdkMaxUnused", defaultValue = "P30D")
+  @VisibleForTesting
+  String cloudSdkMaxUnused = "P30D";
+
+  /**
+   * The least recently used managed Cloud SDK versions are removed until all of them together take
+   * no more than this many megabytes. Negative for no limit.
+   */
+  @Parameter(property = "cloudSdkMaxSizeMb", defaultValue = "-1")
+  @VisibleForTesting
+  long cloudSdkMaxSizeMb = -1;
+
+  @VisibleForTesting
+  Function<String, ManagedCloudSdk> managedCloudSdkFactory =
+      CloudSdkDownloader.newManagedSdkFactory();
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    if (skip) {
+      getLog().info("Skipping appengine:pruneCloudSdk");
+      return;
+    }
+    if (getCloudSdkHome() != null) {
+      throw new MojoExecutionException(
+          "cloudSdkHome must not be configured to run appengine:pruneCloudSdk");
+    }
+
+    Duration maxUnused;
+    try {
+      maxUnused = Duration.parse(cloudSdkMaxUnused);
+    } catch (DateTimeParseException ex) {
+      throw new MojoExecutionException(
+          "Invalid cloudSdkMaxUnused '"
+              + cloudSdkMaxUnused
+              + "', expected an ISO-8601 duration like P30D",
+          ex);
+    }
+    long maxTotalBytes = cloudSdkMaxSizeMb < 0 ? -1 : cloudSdkMaxSizeMb * 1024 * 1024;
+
+    try {
+      List<String> removed =
+          managedCloudSdkFactory
+              .apply(getCloudSdkVersion())
+              .removeUnusedVersions(maxUnused, maxTotalBytes);
+      if (removed.isEmpty()) {
+        getLog().info("No unused Cloud SDK versions to remove");
+      } else {
+        getLog().info("Removed unused Cloud SDK versions " + removed);
+      }
+    } catch (IOException ex) {
+      throw new MojoExecutionException("Failed to remove unused Cloud SDK versions", ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted removing unused Cloud SDK versions", ex);
+    }
+  }
+}
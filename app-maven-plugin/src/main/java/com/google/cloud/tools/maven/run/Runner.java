@@ -102,7 +102,7 @@ public class Runner {
     return services;
   }
 
-  String processProjectId() {
+  String processProjectId() throws MojoExecutionException {
     String projectId = runMojo.getProjectId();
     if (ConfigReader.GCLOUD_CONFIG.equals(projectId)) {
       return runMojo.getAppEngineFactory().newConfigReader().getProjectId();
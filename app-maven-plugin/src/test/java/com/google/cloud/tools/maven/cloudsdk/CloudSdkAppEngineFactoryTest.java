@@ -30,7 +30,9 @@ import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
 import com.google.common.collect.ImmutableList;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.junit.Assert;
 import org.junit.Before;
@@ -60,7 +62,7 @@ public class CloudSdkAppEngineFactoryTest {
   @InjectMocks private CloudSdkAppEngineFactory factory;
 
   @Before
-  public void wireUp() {
+  public void wireUp() throws MojoExecutionException {
     when(mojoMock.getCloudSdkHome()).thenReturn(CLOUD_SDK_HOME);
     when(mojoMock.getCloudSdkVersion()).thenReturn(null);
     when(mojoMock.getArtifactId()).thenReturn(ARTIFACT_ID);
@@ -68,6 +70,7 @@ public class CloudSdkAppEngineFactoryTest {
     when(mojoMock.getLog()).thenReturn(logMock);
     when(mojoMock.getMavenSession()).thenReturn(mavenSession);
     when(mavenSession.isOffline()).thenReturn(false);
+    when(mojoMock.getCloudSdkUpdateCheckInterval()).thenReturn(Duration.ZERO);
 
     doReturn(INSTALL_SDK_PATH)
         .when(cloudSdkDownloader)
@@ -75,18 +78,20 @@ public class CloudSdkAppEngineFactoryTest {
             Mockito.isNull(),
             Mockito.eq(logMock),
             Mockito.<SdkComponent>anyList(),
-            Mockito.anyBoolean());
+            Mockito.anyBoolean(),
+            Mockito.any());
     doReturn(INSTALL_SDK_PATH)
         .when(cloudSdkDownloader)
         .downloadIfNecessary(
             Mockito.anyString(),
             Mockito.eq(logMock),
             Mockito.<SdkComponent>anyList(),
-            Mockito.anyBoolean());
+            Mockito.anyBoolean(),
+            Mockito.any());
   }
 
   @Test
-  public void testGetGcloud() {
+  public void testGetGcloud() throws MojoExecutionException {
     factory.getGcloud();
     verify(mojoMock).getArtifactId();
     verify(mojoMock).getArtifactVersion();
@@ -95,7 +100,7 @@ public class CloudSdkAppEngineFactoryTest {
   }
 
   @Test
-  public void testBuildCloudSdk_downloadWithVersion() {
+  public void testBuildCloudSdk_downloadWithVersion() throws MojoExecutionException {
     when(mojoMock.getCloudSdkHome()).thenReturn(null);
     when(mojoMock.getCloudSdkVersion()).thenReturn(CLOUD_SDK_VERSION);
 
@@ -107,12 +112,16 @@ public class CloudSdkAppEngineFactoryTest {
     Assert.assertEquals(INSTALL_SDK_PATH, sdk.getPath());
     verify(cloudSdkDownloader)
         .downloadIfNecessary(
-            CLOUD_SDK_VERSION, logMock, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false);
+            CLOUD_SDK_VERSION,
+            logMock,
+            ImmutableList.of(SdkComponent.APP_ENGINE_JAVA),
+            false,
+            Duration.ZERO);
     verifyNoMoreInteractions(cloudSdkChecker);
   }
 
   @Test
-  public void testBuildCloudSdk_downloadWithoutVersion() {
+  public void testBuildCloudSdk_downloadWithoutVersion() throws MojoExecutionException {
     when(mojoMock.getCloudSdkHome()).thenReturn(null);
     when(mojoMock.getCloudSdkVersion()).thenReturn(null);
 
@@ -123,12 +132,13 @@ public class CloudSdkAppEngineFactoryTest {
     // verify
     Assert.assertEquals(INSTALL_SDK_PATH, sdk.getPath());
     verify(cloudSdkDownloader)
-        .downloadIfNecessary(null, logMock, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false);
+        .downloadIfNecessary(
+            null, logMock, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false, Duration.ZERO);
     verifyNoMoreInteractions(cloudSdkChecker);
   }
 
   @Test
-  public void testBuildCloudSdk_offlinePassthrough() {
+  public void testBuildCloudSdk_offlinePassthrough() throws MojoExecutionException {
     when(mojoMock.getCloudSdkHome()).thenReturn(null);
     when(mojoMock.getCloudSdkVersion()).thenReturn(null);
     when(mavenSession.isOffline()).thenReturn(true);
@@ -139,14 +149,16 @@ public class CloudSdkAppEngineFactoryTest {
 
     Assert.assertEquals(INSTALL_SDK_PATH, sdk.getPath());
     verify(cloudSdkDownloader)
-        .downloadIfNecessary(null, logMock, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), true);
+        .downloadIfNecessary(
+            null, logMock, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), true, Duration.ZERO);
     verify(mavenSession).isOffline();
     verifyNoMoreInteractions(cloudSdkChecker);
   }
 
   @Test
   public void testBuildCloudSdk_checkNoAppEngine()
-      throws CloudSdkOutOfDateException, CloudSdkNotFoundException, CloudSdkVersionFileException {
+      throws CloudSdkOutOfDateException, CloudSdkNotFoundException, CloudSdkVersionFileException,
+          MojoExecutionException {
     when(mojoMock.getCloudSdkHome()).thenReturn(CLOUD_SDK_HOME);
     when(mojoMock.getCloudSdkVersion()).thenReturn(CLOUD_SDK_VERSION);
 
@@ -165,7 +177,7 @@ public class CloudSdkAppEngineFactoryTest {
   @Test
   public void testBuildCloudSdk_checkAppEngine()
       throws CloudSdkOutOfDateException, CloudSdkNotFoundException, CloudSdkVersionFileException,
-          AppEngineJavaComponentsNotInstalledException {
+          AppEngineJavaComponentsNotInstalledException, MojoExecutionException {
     when(mojoMock.getCloudSdkHome()).thenReturn(CLOUD_SDK_HOME);
     when(mojoMock.getCloudSdkVersion()).thenReturn(CLOUD_SDK_VERSION);
 
@@ -182,7 +194,7 @@ public class CloudSdkAppEngineFactoryTest {
   }
 
   @Test
-  public void testBuildCloudSdk_noCheck() {
+  public void testBuildCloudSdk_noCheck() throws MojoExecutionException {
     when(mojoMock.getCloudSdkHome()).thenReturn(CLOUD_SDK_HOME);
     when(mojoMock.getCloudSdkVersion()).thenReturn(null);
 
@@ -196,4 +208,18 @@ public class CloudSdkAppEngineFactoryTest {
     verifyNoMoreInteractions(cloudSdkDownloader);
     verifyNoMoreInteractions(cloudSdkChecker);
   }
+
+  @Test
+  public void testBuildCloudSdk_invalidUpdateCheckInterval() throws MojoExecutionException {
+    when(mojoMock.getCloudSdkHome()).thenReturn(null);
+    MojoExecutionException invalid = new MojoExecutionException("invalid interval");
+    when(mojoMock.getCloudSdkUpdateCheckInterval()).thenThrow(invalid);
+
+    try {
+      CloudSdkAppEngineFactory.buildCloudSdk(mojoMock, cloudSdkChecker, cloudSdkDownloader, true);
+      Assert.fail();
+    } catch (MojoExecutionException ex) {
+      Assert.assertSame(invalid, ex);
+    }
+  }
 }
@@ -19,7 +19,6 @@ package com.google.cloud.tools.maven.cloudsdk;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -37,7 +36,9 @@ import com.google.cloud.tools.managedcloudsdk.components.SdkComponentInstaller;
 import com.google.cloud.tools.managedcloudsdk.components.SdkUpdater;
 import com.google.cloud.tools.managedcloudsdk.install.SdkInstaller;
 import com.google.common.collect.ImmutableList;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
 import org.apache.maven.plugin.logging.Log;
 import org.junit.Assert;
@@ -75,7 +76,7 @@ public class CloudSdkDownloaderTest {
       throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException {
     when(managedCloudSdk.isInstalled()).thenReturn(false);
     downloader.downloadIfNecessary(
-        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false);
+        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false, Duration.ZERO);
     verify(managedCloudSdk).newInstaller();
   }
 
@@ -83,9 +84,10 @@ public class CloudSdkDownloaderTest {
   public void testDownloadCloudSdk_installSingeComponent()
       throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException {
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.hasComponent(SdkComponent.APP_ENGINE_JAVA)).thenReturn(false);
+    when(managedCloudSdk.missingComponents(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA)))
+        .thenReturn(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA));
     downloader.downloadIfNecessary(
-        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false);
+        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false, Duration.ZERO);
     verify(managedCloudSdk, never()).newInstaller();
     verify(managedCloudSdk).newComponentInstaller();
   }
@@ -95,14 +97,13 @@ public class CloudSdkDownloaderTest {
       throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException,
           InterruptedException, CommandExitException, CommandExecutionException {
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.hasComponent(SdkComponent.APP_ENGINE_JAVA)).thenReturn(false);
-    when(managedCloudSdk.hasComponent(SdkComponent.BETA)).thenReturn(false);
-    downloader.downloadIfNecessary(
-        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA), false);
+    List<SdkComponent> components =
+        ImmutableList.of(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA);
+    when(managedCloudSdk.missingComponents(components)).thenReturn(components);
+    downloader.downloadIfNecessary(version, log, components, false, Duration.ZERO);
     verify(managedCloudSdk, never()).newInstaller();
-    verify(managedCloudSdk, times(2)).newComponentInstaller();
-    verify(componentInstaller).installComponent(eq(SdkComponent.APP_ENGINE_JAVA), any(), any());
-    verify(componentInstaller).installComponent(eq(SdkComponent.BETA), any(), any());
+    verify(managedCloudSdk).newComponentInstaller();
+    verify(componentInstaller).installComponents(eq(components), any(), any());
   }
 
   @Test
@@ -110,20 +111,22 @@ public class CloudSdkDownloaderTest {
       throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException,
           InterruptedException, CommandExitException, CommandExecutionException {
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.hasComponent(SdkComponent.APP_ENGINE_JAVA)).thenReturn(false);
-    when(managedCloudSdk.hasComponent(SdkComponent.BETA)).thenReturn(true);
-    downloader.downloadIfNecessary(
-        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA), false);
+    List<SdkComponent> components =
+        ImmutableList.of(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA);
+    when(managedCloudSdk.missingComponents(components))
+        .thenReturn(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA));
+    downloader.downloadIfNecessary(version, log, components, false, Duration.ZERO);
     verify(managedCloudSdk, never()).newInstaller();
     verify(managedCloudSdk).newComponentInstaller();
-    verify(componentInstaller).installComponent(eq(SdkComponent.APP_ENGINE_JAVA), any(), any());
+    verify(componentInstaller)
+        .installComponents(eq(ImmutableList.of(SdkComponent.APP_ENGINE_JAVA)), any(), any());
   }
 
   @Test
   public void testDownloadCloudSdk_ignoreComponents()
       throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException {
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    downloader.downloadIfNecessary(version, log, Collections.emptyList(), false);
+    downloader.downloadIfNecessary(version, log, Collections.emptyList(), false, Duration.ZERO);
     verify(managedCloudSdk, never()).newInstaller();
     verify(managedCloudSdk, never()).newComponentInstaller();
   }
@@ -132,19 +135,29 @@ public class CloudSdkDownloaderTest {
   public void testDownloadCloudSdk_update()
       throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException {
     when(managedCloudSdk.isInstalled()).thenReturn(true);
-    when(managedCloudSdk.hasComponent(SdkComponent.APP_ENGINE_JAVA)).thenReturn(true);
-    when(managedCloudSdk.isUpToDate()).thenReturn(false);
+    when(managedCloudSdk.isUpToDate(Duration.ZERO)).thenReturn(false);
     downloader.downloadIfNecessary(
-        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false);
+        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), false, Duration.ZERO);
     verify(managedCloudSdk, never()).newInstaller();
     verify(managedCloudSdk, never()).newComponentInstaller();
     verify(managedCloudSdk).newUpdater();
   }
 
+  @Test
+  public void testDownloadCloudSdk_updateCheckInterval()
+      throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException {
+    when(managedCloudSdk.isInstalled()).thenReturn(true);
+    when(managedCloudSdk.isUpToDate(Duration.ofHours(24))).thenReturn(true);
+    downloader.downloadIfNecessary(
+        version, log, Collections.emptyList(), false, Duration.ofHours(24));
+    verify(managedCloudSdk).isUpToDate(Duration.ofHours(24));
+    verify(managedCloudSdk, never()).newUpdater();
+  }
+
   @Test
   public void testDownloadCloudSdk_offlineMode() {
     downloader.downloadIfNecessary(
-        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), true);
+        version, log, ImmutableList.of(SdkComponent.APP_ENGINE_JAVA), true, Duration.ZERO);
     verify(managedCloudSdk).getSdkHome();
     verifyNoMoreInteractions(managedCloudSdk);
   }
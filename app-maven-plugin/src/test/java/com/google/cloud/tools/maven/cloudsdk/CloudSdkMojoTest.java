@@ -17,9 +17,14 @@
 package com.google.cloud.tools.maven.cloudsdk;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.Properties;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -40,6 +45,8 @@ public class CloudSdkMojoTest {
   @Mock private MavenProject mavenProject;
   @Mock private Properties properties;
   @Mock private Plugin mockPlugin;
+  @Mock private MavenSession mavenSession;
+  @Mock private MavenExecutionRequest mavenExecutionRequest;
 
   @InjectMocks private CloudSdkMojoImpl mojo;
 
@@ -97,9 +104,56 @@ public class CloudSdkMojoTest {
     assertEquals("1.8", mojo.getCompileTargetVersion());
   }
 
+  @Test
+  public void testGetCloudSdkUpdateCheckInterval_notSet() throws MojoExecutionException {
+    assertEquals(Duration.ZERO, mojo.getCloudSdkUpdateCheckInterval());
+  }
+
+  @Test
+  public void testGetCloudSdkUpdateCheckInterval()
+      throws NoSuchFieldException, IllegalAccessException, MojoExecutionException {
+    when(mavenSession.getRequest()).thenReturn(mavenExecutionRequest);
+    mojo.injectCloudSdkUpdateCheckInterval("PT24H");
+
+    assertEquals(Duration.ofHours(24), mojo.getCloudSdkUpdateCheckInterval());
+  }
+
+  @Test
+  public void testGetCloudSdkUpdateCheckInterval_updateSnapshots()
+      throws NoSuchFieldException, IllegalAccessException, MojoExecutionException {
+    when(mavenSession.getRequest()).thenReturn(mavenExecutionRequest);
+    when(mavenExecutionRequest.isUpdateSnapshots()).thenReturn(true);
+    mojo.injectCloudSdkUpdateCheckInterval("PT24H");
+
+    assertEquals(Duration.ZERO, mojo.getCloudSdkUpdateCheckInterval());
+  }
+
+  @Test
+  public void testGetCloudSdkUpdateCheckInterval_invalid()
+      throws NoSuchFieldException, IllegalAccessException {
+    when(mavenSession.getRequest()).thenReturn(mavenExecutionRequest);
+    mojo.injectCloudSdkUpdateCheckInterval("24h");
+
+    try {
+      mojo.getCloudSdkUpdateCheckInterval();
+      fail("MojoExecutionException expected");
+    } catch (MojoExecutionException ex) {
+      assertEquals(
+          "Invalid cloudSdkUpdateCheckInterval '24h', expected an ISO-8601 duration like PT24H",
+          ex.getMessage());
+    }
+  }
+
   static class CloudSdkMojoImpl extends CloudSdkMojo {
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {}
+
+    void injectCloudSdkUpdateCheckInterval(String interval)
+        throws NoSuchFieldException, IllegalAccessException {
+      Field field = CloudSdkMojo.class.getDeclaredField("cloudSdkUpdateCheckInterval");
+      field.setAccessible(true);
+      field.set(this, interval);
+    }
   }
 }
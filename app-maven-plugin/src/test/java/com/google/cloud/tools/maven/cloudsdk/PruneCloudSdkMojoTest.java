@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.maven.cloudsdk;
+
+import static org.mockito.Mockito.verify;
+
+import com.google.cloud.tools.managedcloudsdk.ManagedCloudSdk;
+import java.time.Duration;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PruneCloudSdkMojoTest {
+
+  @Mock private ManagedCloudSdk managedCloudSdk;
+
+  private PruneCloudSdkMojo pruneCloudSdkMojo;
+
+  @Before
+  public void setUp() {
+    pruneCloudSdkMojo = new PruneCloudSdkMojo();
+    pruneCloudSdkMojo.managedCloudSdkFactory = version -> managedCloudSdk;
+  }
+
+  @Test
+  public void testExecute_defaults() throws Exception {
+    pruneCloudSdkMojo.execute();
+    verify(managedCloudSdk).removeUnusedVersions(Duration.ofDays(30), -1);
+  }
+
+  @Test
+  public void testExecute_configured() throws Exception {
+    pruneCloudSdkMojo.cloudSdkMaxUnused = "P7D";
+    pruneCloudSdkMojo.cloudSdkMaxSizeMb = 2048;
+    pruneCloudSdkMojo.execute();
+    verify(managedCloudSdk).removeUnusedVersions(Duration.ofDays(7), 2048L * 1024 * 1024);
+  }
+
+  @Test
+  public void testExecute_invalidMaxUnused() {
+    pruneCloudSdkMojo.cloudSdkMaxUnused = "30 days";
+    try {
+      pruneCloudSdkMojo.execute();
+      Assert.fail();
+    } catch (MojoExecutionException ex) {
+      Assert.assertEquals(
+          "Invalid cloudSdkMaxUnused '30 days', expected an ISO-8601 duration like P30D",
+          ex.getMessage());
+    }
+    Mockito.verifyZeroInteractions(managedCloudSdk);
+  }
+
+  @Test
+  public void testExecute_skip() throws MojoExecutionException {
+    pruneCloudSdkMojo.setSkip(true);
+    pruneCloudSdkMojo.execute();
+    Mockito.verifyZeroInteractions(managedCloudSdk);
+  }
+}
@@ -64,7 +64,7 @@ public class AppDeployerTest {
   private AppDeployer testDeployer;
 
   @Before
-  public void setup() throws IOException {
+  public void setup() throws IOException, MojoExecutionException {
     stagingDirectory = tempFolder.newFolder("staging").toPath();
     appengineDirectory = tempFolder.newFolder("appengine").toPath();
 
@@ -48,7 +48,7 @@ public class GenRepoInfoFileMojoTest {
   @InjectMocks private GenRepoInfoFileMojo genMojo;
 
   @Before
-  public void init() {
+  public void init() throws MojoExecutionException {
     genMojo.sourceDirectory = Paths.get("/a/b/c/source").toFile();
     genMojo.outputDirectory = Paths.get("/e/f/g/output").toFile();
     when(factory.genRepoInfoFile()).thenReturn(genMock);
@@ -68,7 +68,7 @@ public class RunnerTest {
   @InjectMocks private Runner testRunner;
 
   @Before
-  public void setUp() throws IOException {
+  public void setUp() throws IOException, MojoExecutionException {
     appDir = tempFolder.newFolder("artifact").toPath();
     when(runMojo.getLog()).thenReturn(logMock);
     when(runMojo.getAppEngineFactory()).thenReturn(appengineFactory);
@@ -161,14 +161,14 @@ public class RunnerTest {
   }
 
   @Test
-  public void testProcessProjectId() {
+  public void testProcessProjectId() throws MojoExecutionException {
     Mockito.when(runMojo.getProjectId()).thenReturn("some-project");
     String processedProjectId = testRunner.processProjectId();
     Assert.assertEquals("some-project", processedProjectId);
   }
 
   @Test
-  public void testProcessProjectId_gcloud() {
+  public void testProcessProjectId_gcloud() throws MojoExecutionException {
     Mockito.when(configReader.getProjectId()).thenReturn("project-from-gcloud");
     Mockito.when(runMojo.getProjectId()).thenReturn(ConfigReader.GCLOUD_CONFIG);
     String processedProjectId = testRunner.processProjectId();
@@ -176,7 +176,7 @@ public class RunnerTest {
   }
 
   @Test
-  public void testProcessProjectId_nullIgnored() {
+  public void testProcessProjectId_nullIgnored() throws MojoExecutionException {
     Assert.assertNull(testRunner.processProjectId());
   }
 
@@ -42,7 +42,7 @@ public class StopMojoTest {
   @InjectMocks private StopMojo stopMojo;
 
   @Before
-  public void setUp() {
+  public void setUp() throws MojoExecutionException {
     Mockito.when(factoryMock.devServerStop()).thenReturn(devServerMock);
   }
 
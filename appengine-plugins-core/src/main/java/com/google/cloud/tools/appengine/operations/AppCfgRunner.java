@@ -19,12 +19,15 @@ package com.google.cloud.tools.appengine.operations;
 import com.google.cloud.tools.appengine.operations.cloudsdk.AppEngineJavaComponentsNotInstalledException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.InvalidJavaSdkException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessBuilderFactory;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.AsyncProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessResult;
 import com.google.common.base.Joiner;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 public class AppCfgRunner {
@@ -52,6 +55,23 @@ public class AppCfgRunner {
   public void run(List<String> args)
       throws ProcessHandlerException, AppEngineJavaComponentsNotInstalledException,
           InvalidJavaSdkException, IOException {
+    processHandler.handleProcess(startProcess(args));
+  }
+
+  /**
+   * Executes an App Engine SDK CLI command without waiting for it, see {@link #run(List)}.
+   *
+   * @param asyncProcessHandler handles the process instead of the handler of this runner
+   * @return the result of the command, cancel it to destroy the process
+   */
+  public CompletableFuture<ProcessResult> runAsync(
+      List<String> args, AsyncProcessHandler asyncProcessHandler)
+      throws AppEngineJavaComponentsNotInstalledException, InvalidJavaSdkException, IOException {
+    return asyncProcessHandler.handleProcessAsync(startProcess(args));
+  }
+
+  private Process startProcess(List<String> args)
+      throws AppEngineJavaComponentsNotInstalledException, InvalidJavaSdkException, IOException {
     sdk.validateAppEngineJavaComponents();
     sdk.validateJdk();
 
@@ -71,8 +91,7 @@ public class AppCfgRunner {
 
     ProcessBuilder processBuilder = processBuilderFactory.newProcessBuilder();
     processBuilder.command(command);
-    Process process = processBuilder.start();
-    processHandler.handleProcess(process);
+    return processBuilder.start();
   }
 
   static class Factory {
@@ -19,8 +19,10 @@ package com.google.cloud.tools.appengine.operations;
 import com.google.cloud.tools.appengine.operations.cloudsdk.AppEngineJavaComponentsNotInstalledException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.InvalidJavaSdkException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessBuilderFactory;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.AsyncProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessResult;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Maps;
 import java.io.IOException;
@@ -28,6 +30,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
@@ -64,6 +67,33 @@ public class DevAppServerRunner {
       @Nullable Path workingDirectory)
       throws ProcessHandlerException, AppEngineJavaComponentsNotInstalledException,
           InvalidJavaSdkException, IOException {
+    processHandler.handleProcess(startProcess(jvmArgs, args, environment, workingDirectory));
+  }
+
+  /**
+   * Starts the classic Java SDK devappserver without waiting for it, see {@link #run(List, List,
+   * Map, Path)}.
+   *
+   * @param asyncProcessHandler handles the process instead of the handler of this runner
+   * @return the result of the devappserver process, cancel it to stop the devappserver
+   */
+  public CompletableFuture<ProcessResult> runAsync(
+      List<String> jvmArgs,
+      List<String> args,
+      Map<String, String> environment,
+      @Nullable Path workingDirectory,
+      AsyncProcessHandler asyncProcessHandler)
+      throws AppEngineJavaComponentsNotInstalledException, InvalidJavaSdkException, IOException {
+    return asyncProcessHandler.handleProcessAsync(
+        startProcess(jvmArgs, args, environment, workingDirectory));
+  }
+
+  private Process startProcess(
+      List<String> jvmArgs,
+      List<String> args,
+      Map<String, String> environment,
+      @Nullable Path workingDirectory)
+      throws AppEngineJavaComponentsNotInstalledException, InvalidJavaSdkException, IOException {
     sdk.validateAppEngineJavaComponents();
     sdk.validateJdk();
 
@@ -94,9 +124,7 @@ public class DevAppServerRunner {
       processBuilder.directory(workingDirectory.toFile());
     }
     processBuilder.environment().putAll(devServerEnvironment);
-    Process process = processBuilder.start();
-
-    processHandler.handleProcess(process);
+    return processBuilder.start();
   }
 
   static class Factory {
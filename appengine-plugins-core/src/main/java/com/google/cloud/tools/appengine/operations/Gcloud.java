@@ -40,6 +40,7 @@ import javax.annotation.Nullable;
 public class Gcloud {
   private final CloudSdk sdk;
   private final GcloudRunner.Factory gcloudRunnerFactory;
+  private final GcloudQueryCache queryCache;
   @Nullable private final String metricsEnvironment;
   @Nullable private final String metricsEnvironmentVersion;
   @Nullable private final Path credentialFile;
@@ -51,6 +52,7 @@ public class Gcloud {
   private Gcloud(
       CloudSdk sdk,
       GcloudRunner.Factory gcloudRunnerFactory,
+      GcloudQueryCache queryCache,
       @Nullable String metricsEnvironment,
       @Nullable String metricsEnvironmentVersion,
       @Nullable Path credentialFile,
@@ -59,6 +61,7 @@ public class Gcloud {
       @Nullable String showStructuredLogs,
       @Nullable String verbosity) {
     this.gcloudRunnerFactory = gcloudRunnerFactory;
+    this.queryCache = queryCache;
     this.sdk = sdk;
     this.metricsEnvironment = metricsEnvironment;
     this.metricsEnvironmentVersion = metricsEnvironmentVersion;
@@ -88,7 +91,8 @@ public class Gcloud {
   /**
    * Returns the list of Cloud SDK Components and their settings, reported by the current gcloud
    * installation. Unlike other methods in this class that call gcloud, this method always uses a
-   * synchronous ProcessRunner and will block until the gcloud process returns.
+   * synchronous ProcessRunner and will block until the gcloud process returns. The result is cached
+   * until components or the gcloud configuration change.
    *
    * @throws ProcessHandlerException when process runner encounters an error
    * @throws JsonSyntaxException when the cloud SDK output cannot be parsed
@@ -108,13 +112,15 @@ public class Gcloud {
             .addAll(GcloudArgs.get("format", "json"))
             .build();
 
-    String componentsJson = runCommand(command);
+    // installing or removing components updates the .install directory
+    String componentsJson =
+        runCachedCommand(command, ImmutableList.of(sdk.getPath().resolve(".install")));
     return CloudSdkComponent.fromJsonList(componentsJson);
   }
 
   /**
    * Returns a representation of gcloud config, it makes a synchronous call to gcloud config list to
-   * do so.
+   * do so. The result is cached until the gcloud configuration changes.
    */
   public CloudSdkConfig getConfig()
       throws CloudSdkNotFoundException, CloudSdkOutOfDateException, CloudSdkVersionFileException,
@@ -127,10 +133,20 @@ public class Gcloud {
             .addAll(GcloudArgs.get("format", "json"))
             .build();
 
-    String configJson = runCommand(command);
+    String configJson = runCachedCommand(command, ImmutableList.of());
     return CloudSdkConfig.fromJson(configJson);
   }
 
+  private String runCachedCommand(List<String> args, List<Path> watchedFiles)
+      throws CloudSdkNotFoundException, IOException, ProcessHandlerException {
+    List<String> command =
+        new ImmutableList.Builder<String>()
+            .add(sdk.getGCloudPath().toAbsolutePath().toString())
+            .addAll(args)
+            .build();
+    return queryCache.get(command, watchedFiles, () -> runCommand(args));
+  }
+
   /**
    * Run short lived gcloud commands.
    *
@@ -194,6 +210,7 @@ public class Gcloud {
 
     private final CloudSdk sdk;
     private final GcloudRunner.Factory gcloudRunnerFactory;
+    private final GcloudQueryCache queryCache;
 
     @Nullable private String metricsEnvironment;
     @Nullable private String metricsEnvironmentVersion;
@@ -209,8 +226,14 @@ public class Gcloud {
 
     @VisibleForTesting
     Builder(CloudSdk sdk, GcloudRunner.Factory gcloudRunnerFactory) {
+      this(sdk, gcloudRunnerFactory, GcloudQueryCache.getInstance());
+    }
+
+    @VisibleForTesting
+    Builder(CloudSdk sdk, GcloudRunner.Factory gcloudRunnerFactory, GcloudQueryCache queryCache) {
       this.sdk = sdk;
       this.gcloudRunnerFactory = gcloudRunnerFactory;
+      this.queryCache = queryCache;
     }
 
     /** Set metrics environment and version. */
@@ -266,6 +289,7 @@ public class Gcloud {
       return new Gcloud(
           sdk,
           gcloudRunnerFactory,
+          queryCache,
           metricsEnvironment,
           metricsEnvironmentVersion,
           credentialFile,
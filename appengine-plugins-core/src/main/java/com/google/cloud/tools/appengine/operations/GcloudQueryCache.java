@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Caches the output of read-only gcloud commands, like {@code gcloud config list}, for the life of
+ * the JVM, so a long lived build daemon does not start gcloud for every query. Concurrent calls for
+ * the same command share one gcloud process.
+ *
+ * <p>An entry is used only while the files it depends on are unchanged: the active gcloud
+ * configuration file, the file that selects it, the configurations directory and any files the
+ * caller adds. Their modification times are compared on every call, which is much cheaper than
+ * starting gcloud. The environment is read again on every call too, as a build daemon may change it
+ * between builds, and entries are keyed by the {@code CLOUDSDK_*} variables that gcloud reads.
+ */
+final class GcloudQueryCache {
+
+  /** A gcloud command whose output can be cached. */
+  interface Query {
+    String run() throws CloudSdkNotFoundException, IOException, ProcessHandlerException;
+  }
+
+  private static final boolean IS_WINDOWS = System.getProperty("os.name").contains("Windows");
+
+  private static final GcloudQueryCache instance = new GcloudQueryCache(System::getenv);
+
+  private final Supplier<Map<String, String>> environment;
+  private final Map<List<String>, Entry> entries = new ConcurrentHashMap<>();
+
+  @VisibleForTesting
+  GcloudQueryCache(Supplier<Map<String, String>> environment) {
+    this.environment = environment;
+  }
+
+  /** Returns the cache shared by all {@link Gcloud} instances in this JVM. */
+  static GcloudQueryCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Returns the output of a gcloud command, running it only if there is no valid cached output.
+   *
+   * @param command the gcloud executable and its arguments, the cache key along with the {@code
+   *     CLOUDSDK_*} environment variables
+   * @param watchedFiles files besides the gcloud configuration that invalidate the entry when they
+   *     change
+   * @param query runs the command
+   */
+  String get(List<String> command, List<Path> watchedFiles, Query query)
+      throws CloudSdkNotFoundException, IOException, ProcessHandlerException {
+    Map<String, String> currentEnvironment = environment.get();
+    List<Path> files = new ArrayList<>(getConfigFiles(currentEnvironment));
+    files.addAll(watchedFiles);
+    // taken before running the command, so a change while it runs invalidates the result
+    List<Long> stamp = getModificationTimes(files);
+
+    List<String> key = getKey(command, currentEnvironment);
+    Entry newEntry = new Entry(stamp);
+    Entry entry =
+        entries.compute(
+            key,
+            (unused, cached) -> cached != null && cached.stamp.equals(stamp) ? cached : newEntry);
+
+    if (entry == newEntry) {
+      try {
+        String output = query.run();
+        newEntry.output.complete(output);
+        return output;
+      } catch (CloudSdkNotFoundException | IOException | ProcessHandlerException ex) {
+        fail(key, newEntry, ex);
+        throw ex;
+      } catch (RuntimeException ex) {
+        fail(key, newEntry, ex);
+        throw ex;
+      }
+    }
+    return await(entry);
+  }
+
+  /** Remove all entries. */
+  void clear() {
+    entries.clear();
+  }
+
+  private void fail(List<String> key, Entry entry, Exception ex) {
+    // failures are not cached, but calls already waiting for this entry share the failure
+    entries.remove(key, entry);
+    entry.output.completeExceptionally(ex);
+  }
+
+  private static String await(Entry entry)
+      throws CloudSdkNotFoundException, IOException, ProcessHandlerException {
+    try {
+      return entry.output.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ProcessHandlerException(ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof CloudSdkNotFoundException) {
+        throw (CloudSdkNotFoundException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof ProcessHandlerException) {
+        throw (ProcessHandlerException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ProcessHandlerException(ex);
+    }
+  }
+
+  private static List<String> getKey(List<String> command, Map<String, String> environment) {
+    ImmutableList.Builder<String> key = ImmutableList.<String>builder().addAll(command);
+    new TreeMap<>(environment)
+        .forEach(
+            (name, value) -> {
+              if (name.startsWith("CLOUDSDK_")) {
+                key.add(name + "=" + value);
+              }
+            });
+    return key.build();
+  }
+
+  private static List<Path> getConfigFiles(Map<String, String> environment) throws IOException {
+    Path configDirectory = getConfigDirectory(environment);
+    Path activeConfigFile = configDirectory.resolve("active_config");
+    String configName = environment.get("CLOUDSDK_ACTIVE_CONFIG_NAME");
+    if (configName == null) {
+      try {
+        configName =
+            new String(Files.readAllBytes(activeConfigFile), StandardCharsets.UTF_8).trim();
+      } catch (NoSuchFileException ex) {
+        configName = "";
+      }
+      if (configName.isEmpty()) {
+        configName = "default";
+      }
+    }
+    Path configurations = configDirectory.resolve("configurations");
+    return ImmutableList.of(
+        activeConfigFile, configurations, configurations.resolve("config_" + configName));
+  }
+
+  private static List<Long> getModificationTimes(List<Path> files) throws IOException {
+    List<Long> modificationTimes = new ArrayList<>(files.size());
+    for (Path file : files) {
+      try {
+        modificationTimes.add(Files.getLastModifiedTime(file).toMillis());
+      } catch (NoSuchFileException ex) {
+        modificationTimes.add(-1L);
+      }
+    }
+    return modificationTimes;
+  }
+
+  /** Returns the gcloud configuration directory, following gcloud's own lookup. */
+  @VisibleForTesting
+  static Path getConfigDirectory(Map<String, String> environment) {
+    String cloudSdkConfig = environment.get("CLOUDSDK_CONFIG");
+    if (cloudSdkConfig != null) {
+      return Paths.get(cloudSdkConfig);
+    }
+    String appData = environment.get("APPDATA");
+    if (IS_WINDOWS && appData != null) {
+      return Paths.get(appData, "gcloud");
+    }
+    return Paths.get(System.getProperty("user.home"), ".config", "gcloud");
+  }
+
+  private static class Entry {
+    private final List<Long> stamp;
+    private final CompletableFuture<String> output = new CompletableFuture<>();
+
+    private Entry(List<Long> stamp) {
+      this.stamp = stamp;
+    }
+  }
+}
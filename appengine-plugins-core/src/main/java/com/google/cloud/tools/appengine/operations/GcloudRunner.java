@@ -21,8 +21,10 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkOutOfDateExc
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkVersionFileException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.args.GcloudArgs;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessBuilderFactory;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.AsyncProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessResult;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Maps;
@@ -31,6 +33,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
@@ -80,7 +83,28 @@ public class GcloudRunner {
   void run(List<String> arguments, @Nullable Path workingDirectory)
       throws ProcessHandlerException, CloudSdkNotFoundException, CloudSdkOutOfDateException,
           CloudSdkVersionFileException, IOException {
+    processHandler.handleProcess(startProcess(arguments, workingDirectory));
+  }
+
+  /**
+   * Launch an external process that runs gcloud, without waiting for it.
+   *
+   * @param workingDirectory if null then the working directory of current Java process
+   * @param asyncProcessHandler handles the process instead of the handler of this runner
+   * @return the result of the process, cancel it to destroy the process
+   */
+  public CompletableFuture<ProcessResult> runAsync(
+      List<String> arguments,
+      @Nullable Path workingDirectory,
+      AsyncProcessHandler asyncProcessHandler)
+      throws CloudSdkNotFoundException, CloudSdkOutOfDateException, CloudSdkVersionFileException,
+          IOException {
+    return asyncProcessHandler.handleProcessAsync(startProcess(arguments, workingDirectory));
+  }
 
+  private Process startProcess(List<String> arguments, @Nullable Path workingDirectory)
+      throws CloudSdkNotFoundException, CloudSdkOutOfDateException, CloudSdkVersionFileException,
+          IOException {
     sdk.validateCloudSdk();
 
     List<String> command = new ArrayList<>();
@@ -113,8 +137,7 @@ public class GcloudRunner {
       processBuilder.directory(workingDirectory.toFile());
     }
     processBuilder.environment().putAll(getGcloudCommandEnvironment());
-    Process process = processBuilder.start();
-    processHandler.handleProcess(process);
+    return processBuilder.start();
   }
 
   @VisibleForTesting
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.cloud.tools.io.ProcessIoExecutor;
+import com.google.cloud.tools.io.Utf8LineReader;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Process handler that does not block the caller. {@link #handleProcessAsync(Process)} returns a
+ * future that completes with a {@link ProcessResult} once the process has exited and all of its
+ * output was read. Cancelling the future destroys the process.
+ *
+ * <p>Both output streams are always read, whether or not there are listeners and even after a line
+ * listener throws, so a process never blocks on a full pipe. The last lines of output are kept for
+ * the result. The process is destroyed if the JVM exits before it does.
+ */
+public class AsyncProcessHandler implements ProcessHandler {
+
+  private static final Logger logger = Logger.getLogger(AsyncProcessHandler.class.getName());
+
+  private final List<ProcessOutputLineListener> stdOutLineListeners;
+  private final List<ProcessOutputLineListener> stdErrLineListeners;
+  private final List<ProcessStartListener> startListeners;
+  private final List<ProcessExitListener> exitListeners;
+  private final int outputTailLines;
+  @Nullable private final OutputLineBuffer.Policy outputBufferPolicy;
+  private final int outputBufferCapacity;
+  private final ProcessIoExecutor processIoExecutor;
+
+  @VisibleForTesting
+  AsyncProcessHandler(
+      List<ProcessOutputLineListener> stdOutLineListeners,
+      List<ProcessOutputLineListener> stdErrLineListeners,
+      List<ProcessStartListener> startListeners,
+      List<ProcessExitListener> exitListeners,
+      int outputTailLines,
+      @Nullable OutputLineBuffer.Policy outputBufferPolicy,
+      int outputBufferCapacity,
+      ProcessIoExecutor processIoExecutor) {
+    this.stdOutLineListeners = ImmutableList.copyOf(stdOutLineListeners);
+    this.stdErrLineListeners = ImmutableList.copyOf(stdErrLineListeners);
+    this.startListeners = ImmutableList.copyOf(startListeners);
+    this.exitListeners = ImmutableList.copyOf(exitListeners);
+    this.outputTailLines = outputTailLines;
+    this.outputBufferPolicy = outputBufferPolicy;
+    this.outputBufferCapacity = outputBufferCapacity;
+    this.processIoExecutor = processIoExecutor;
+  }
+
+  /**
+   * Handle a started process without blocking.
+   *
+   * @return a future that completes when the process has exited and its output was read, or
+   *     completes exceptionally if a start or exit listener throws. Cancelling it destroys the
+   *     process. If a start listener throws, the process is destroyed too.
+   */
+  public CompletableFuture<ProcessResult> handleProcessAsync(Process process) {
+    Instant startTime = Instant.now();
+    long startNanos = System.nanoTime();
+    OutputTail outputTail = new OutputTail(outputTailLines);
+
+    ListenableFuture<?> stdOut =
+        handleOutput("standard-out", process.getInputStream(), stdOutLineListeners, outputTail);
+    ListenableFuture<?> stdErr =
+        handleOutput("standard-err", process.getErrorStream(), stdErrLineListeners, outputTail);
+
+    try {
+      for (ProcessStartListener startListener : startListeners) {
+        startListener.onStart(process);
+      }
+    } catch (RuntimeException ex) {
+      // destroying the process closes its streams, which ends the output handlers
+      process.destroy();
+      CompletableFuture<ProcessResult> failed = new CompletableFuture<>();
+      failed.completeExceptionally(ex);
+      return failed;
+    }
+
+    ProcessFuture result = new ProcessFuture(process);
+    ProcessRegistry.getInstance().register(process);
+    result.exitHandler =
+        processIoExecutor.submit(
+            "wait-for-process-exit",
+            () -> {
+              try {
+                int exitCode = process.waitFor();
+                stdOut.get();
+                stdErr.get();
+                for (ProcessExitListener exitListener : exitListeners) {
+                  exitListener.onExit(exitCode);
+                }
+                result.complete(
+                    new ProcessResult(
+                        exitCode,
+                        startTime,
+                        Duration.ofNanos(System.nanoTime() - startNanos),
+                        outputTail.get()));
+              } catch (ExecutionException ex) {
+                result.completeExceptionally(ex.getCause());
+              } catch (Throwable ex) {
+                // anything a listener throws must complete the result, or callers wait forever
+                result.completeExceptionally(ex);
+              } finally {
+                ProcessRegistry.getInstance().deregister(process);
+              }
+            });
+    return result;
+  }
+
+  /** Handle a process, blocking until it has exited and all of its output was read. */
+  @Override
+  public void handleProcess(Process process) throws ProcessHandlerException {
+    CompletableFuture<ProcessResult> result = handleProcessAsync(process);
+    try {
+      result.get();
+    } catch (InterruptedException ex) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ProcessHandlerException(ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      throw new ProcessHandlerException(cause instanceof Exception ? (Exception) cause : ex);
+    }
+  }
+
+  private ListenableFuture<?> handleOutput(
+      String name,
+      InputStream output,
+      List<ProcessOutputLineListener> lineListeners,
+      OutputTail outputTail) {
+    return processIoExecutor.submit(
+        name,
+        () -> {
+          OutputLineBuffer buffer =
+              outputBufferPolicy == null || lineListeners.isEmpty()
+                  ? null
+                  : new OutputLineBuffer(
+                      name, lineListeners, outputBufferCapacity, outputBufferPolicy);
+          boolean listenerFailed = false;
+          try (Utf8LineReader reader = new Utf8LineReader(output)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+              outputTail.add(line);
+              if (buffer != null) {
+                buffer.add(line);
+              } else if (!listenerFailed) {
+                try {
+                  for (ProcessOutputLineListener lineListener : lineListeners) {
+                    lineListener.onOutputLine(line);
+                  }
+                } catch (RuntimeException ex) {
+                  // keep reading, so the process does not block on a full pipe
+                  logger.log(
+                      Level.WARNING, name + " listener failed, discarding further output", ex);
+                  listenerFailed = true;
+                }
+              }
+            }
+          } catch (IOException ex) {
+            // the stream closes when the process is destroyed
+            logger.log(Level.FINE, name + " of process closed", ex);
+          } finally {
+            if (buffer != null) {
+              buffer.close();
+            }
+          }
+          return null;
+        });
+  }
+
+  /** Result of a process, cancelling it destroys the process. */
+  private static class ProcessFuture extends CompletableFuture<ProcessResult> {
+    private final Process process;
+    @Nullable private volatile Future<?> exitHandler;
+
+    ProcessFuture(Process process) {
+      this.process = process;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled) {
+        // destroying the process closes its streams, which ends the output handlers
+        process.destroy();
+        ProcessRegistry.getInstance().deregister(process);
+        Future<?> handler = exitHandler;
+        if (handler != null) {
+          handler.cancel(true);
+        }
+      }
+      return cancelled;
+    }
+  }
+
+  /** The last lines of both output streams. */
+  private static class OutputTail {
+    private final int maxLines;
+    private final ArrayDeque<String> lines = new ArrayDeque<>();
+
+    OutputTail(int maxLines) {
+      this.maxLines = maxLines;
+    }
+
+    synchronized void add(String line) {
+      if (maxLines == 0) {
+        return;
+      }
+      if (lines.size() == maxLines) {
+        lines.removeFirst();
+      }
+      lines.addLast(line);
+    }
+
+    synchronized List<String> get() {
+      return new ArrayList<>(lines);
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static class Builder {
+    /** Number of output lines kept for the {@link ProcessResult} by default. */
+    public static final int DEFAULT_OUTPUT_TAIL_LINES = 100;
+
+    private final List<ProcessOutputLineListener> stdOutLineListeners = new ArrayList<>();
+    private final List<ProcessOutputLineListener> stdErrLineListeners = new ArrayList<>();
+    private final List<ProcessStartListener> startListeners = new ArrayList<>();
+    private final List<ProcessExitListener> exitListeners = new ArrayList<>();
+    private int outputTailLines = DEFAULT_OUTPUT_TAIL_LINES;
+    @Nullable private OutputLineBuffer.Policy outputBufferPolicy;
+    private int outputBufferCapacity = OutputLineBuffer.DEFAULT_CAPACITY;
+
+    private Builder() {}
+
+    public Builder addStdOutLineListener(ProcessOutputLineListener listener) {
+      stdOutLineListeners.add(listener);
+      return this;
+    }
+
+    public Builder addStdErrLineListener(ProcessOutputLineListener listener) {
+      stdErrLineListeners.add(listener);
+      return this;
+    }
+
+    /** Set/override start listener configuration. */
+    public Builder setStartListener(ProcessStartListener listener) {
+      startListeners.clear();
+      startListeners.add(listener);
+      return this;
+    }
+
+    /**
+     * Set/override exit listener configuration. An exception thrown by the listener completes the
+     * result exceptionally.
+     */
+    public Builder setExitListener(ProcessExitListener listener) {
+      exitListeners.clear();
+      exitListeners.add(listener);
+      return this;
+    }
+
+    /** Set the number of output lines kept for the {@link ProcessResult}, 0 to keep none. */
+    public Builder outputTailLines(int outputTailLines) {
+      Preconditions.checkArgument(outputTailLines >= 0, "outputTailLines must not be negative");
+      this.outputTailLines = outputTailLines;
+      return this;
+    }
+
+    /**
+     * Deliver output lines to the listeners through an {@link OutputLineBuffer} per stream, so slow
+     * listeners do not hold up the process. By default listeners are called directly by the thread
+     * reading the output.
+     */
+    public Builder bufferOutput(int capacity, OutputLineBuffer.Policy policy) {
+      Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+      this.outputBufferCapacity = capacity;
+      this.outputBufferPolicy = Preconditions.checkNotNull(policy);
+      return this;
+    }
+
+    public AsyncProcessHandler build() {
+      return new AsyncProcessHandler(
+          stdOutLineListeners,
+          stdErrLineListeners,
+          startListeners,
+          exitListeners,
+          outputTailLines,
+          outputBufferPolicy,
+          outputBufferCapacity,
+          ProcessIoExecutor.getInstance());
+    }
+  }
+}
@@ -18,11 +18,18 @@ package com.google.cloud.tools.appengine.operations.cloudsdk.process;
 
 import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.WaitingProcessOutputLineListener;
+import com.google.cloud.tools.io.ProcessIoExecutor;
+import com.google.cloud.tools.io.Utf8LineReader;
 import com.google.common.annotations.VisibleForTesting;
-import java.nio.charset.StandardCharsets;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -35,9 +42,10 @@ public class LegacyProcessHandler implements ProcessHandler {
   private final List<ProcessStartListener> startListeners;
   @Nullable private final WaitingProcessOutputLineListener waitingProcessOutputLineListener;
   private final boolean async;
-
-  // TODO: historically it looks like this code hasn't been testable, we need to pass an
-  // TODO: executor service and get rid of the separate thread instantiation that we've done here.
+  private final ProcessIoExecutor processIoExecutor;
+  @Nullable private final OutputLineBuffer.Policy outputBufferPolicy;
+  private final int outputBufferCapacity;
+  private final Set<ProcessOutputLineListener> unbufferedLineListeners;
 
   /**
    * Non-public constructor, but waitingProcessOutputLineListener must be part of the other
@@ -49,8 +57,40 @@ public class LegacyProcessHandler implements ProcessHandler {
       List<ProcessOutputLineListener> stdErrLineListeners,
       List<ProcessStartListener> processStartListeners,
       List<ProcessExitListener> processExitListeners,
-      @Nullable WaitingProcessOutputLineListener waitingProcessOutputLineListener) {
+      @Nullable WaitingProcessOutputLineListener waitingProcessOutputLineListener,
+      @Nullable OutputLineBuffer.Policy outputBufferPolicy,
+      int outputBufferCapacity,
+      Set<ProcessOutputLineListener> unbufferedLineListeners) {
+    this(
+        async,
+        stdOutLineListeners,
+        stdErrLineListeners,
+        processStartListeners,
+        processExitListeners,
+        waitingProcessOutputLineListener,
+        outputBufferPolicy,
+        outputBufferCapacity,
+        unbufferedLineListeners,
+        ProcessIoExecutor.getInstance());
+  }
+
+  @VisibleForTesting
+  LegacyProcessHandler(
+      boolean async,
+      List<ProcessOutputLineListener> stdOutLineListeners,
+      List<ProcessOutputLineListener> stdErrLineListeners,
+      List<ProcessStartListener> processStartListeners,
+      List<ProcessExitListener> processExitListeners,
+      @Nullable WaitingProcessOutputLineListener waitingProcessOutputLineListener,
+      @Nullable OutputLineBuffer.Policy outputBufferPolicy,
+      int outputBufferCapacity,
+      Set<ProcessOutputLineListener> unbufferedLineListeners,
+      ProcessIoExecutor processIoExecutor) {
     this.async = async;
+    this.processIoExecutor = processIoExecutor;
+    this.outputBufferPolicy = outputBufferPolicy;
+    this.outputBufferCapacity = outputBufferCapacity;
+    this.unbufferedLineListeners = unbufferedLineListeners;
     this.stdOutLineListeners = stdOutLineListeners;
     this.stdErrLineListeners = stdErrLineListeners;
     this.exitListeners = processExitListeners;
@@ -60,8 +100,8 @@ public class LegacyProcessHandler implements ProcessHandler {
 
   @Override
   public void handleProcess(Process process) throws ProcessHandlerException {
-    Thread stdOutHandler = null;
-    Thread stdErrHandler = null;
+    Future<?> stdOutHandler = null;
+    Future<?> stdErrHandler = null;
     try {
 
       // Only handle stdout or stderr if there are listeners.
@@ -79,8 +119,13 @@ public class LegacyProcessHandler implements ProcessHandler {
       if (async) {
         asyncRun(process, stdOutHandler, stdErrHandler);
       } else {
-        shutdownProcessHook(process);
-        syncRun(process, stdOutHandler, stdErrHandler);
+        // destroy the process if the JVM exits while waiting for it
+        ProcessRegistry.getInstance().register(process);
+        try {
+          syncRun(process, stdOutHandler, stdErrHandler);
+        } finally {
+          ProcessRegistry.getInstance().deregister(process);
+        }
       }
 
     } catch (InterruptedException | AppEngineException ex) {
@@ -88,56 +133,65 @@ public class LegacyProcessHandler implements ProcessHandler {
     }
   }
 
-  private Thread handleStdOut(Process process) {
-    final Scanner stdOut = new Scanner(process.getInputStream(), StandardCharsets.UTF_8.name());
-    Thread stdOutThread =
-        new Thread("standard-out") {
-          @Override
-          public void run() {
-            while (stdOut.hasNextLine() && !Thread.interrupted()) {
-              String line = stdOut.nextLine();
-              for (ProcessOutputLineListener stdOutLineListener : stdOutLineListeners) {
-                stdOutLineListener.onOutputLine(line);
-              }
-            }
-            stdOut.close();
-          }
-        };
-    stdOutThread.setDaemon(true);
-    stdOutThread.start();
-    return stdOutThread;
+  private Future<?> handleStdOut(Process process) {
+    return handleOutput("standard-out", process.getInputStream(), stdOutLineListeners);
   }
 
-  private Thread handleErrOut(Process process) {
-    final Scanner stdErr = new Scanner(process.getErrorStream(), StandardCharsets.UTF_8.name());
-    Thread stdErrThread =
-        new Thread("standard-err") {
-          @Override
-          public void run() {
-            while (stdErr.hasNextLine() && !Thread.interrupted()) {
-              String line = stdErr.nextLine();
-              for (ProcessOutputLineListener stdErrLineListener : stdErrLineListeners) {
-                stdErrLineListener.onOutputLine(line);
+  private Future<?> handleErrOut(Process process) {
+    return handleOutput("standard-err", process.getErrorStream(), stdErrLineListeners);
+  }
+
+  private Future<?> handleOutput(
+      String name, InputStream output, List<ProcessOutputLineListener> lineListeners) {
+    return processIoExecutor.submit(
+        name,
+        () -> {
+          List<ProcessOutputLineListener> directListeners = new ArrayList<>();
+          List<ProcessOutputLineListener> bufferedListeners = new ArrayList<>();
+          for (ProcessOutputLineListener lineListener : lineListeners) {
+            if (outputBufferPolicy == null || unbufferedLineListeners.contains(lineListener)) {
+              directListeners.add(lineListener);
+            } else {
+              bufferedListeners.add(lineListener);
+            }
+          }
+          OutputLineBuffer buffer =
+              outputBufferPolicy == null || bufferedListeners.isEmpty()
+                  ? null
+                  : new OutputLineBuffer(
+                      name, bufferedListeners, outputBufferCapacity, outputBufferPolicy);
+          try (Utf8LineReader reader = new Utf8LineReader(output)) {
+            String line;
+            while (!Thread.interrupted() && (line = reader.readLine()) != null) {
+              for (ProcessOutputLineListener lineListener : directListeners) {
+                lineListener.onOutputLine(line);
+              }
+              if (buffer != null) {
+                buffer.add(line);
               }
             }
-            stdErr.close();
+          } catch (IOException ex) {
+            // the stream closes when the process is destroyed
+            logger.log(Level.FINE, name + " of process closed", ex);
+          } finally {
+            if (buffer != null) {
+              buffer.close();
+            }
           }
-        };
-    stdErrThread.setDaemon(true);
-    stdErrThread.start();
-    return stdErrThread;
+          return null;
+        });
   }
 
   private void syncRun(
-      Process process, @Nullable Thread stdOutThread, @Nullable Thread stdErrThread)
+      Process process, @Nullable Future<?> stdOutHandler, @Nullable Future<?> stdErrHandler)
       throws InterruptedException, AppEngineException {
     int exitCode = process.waitFor();
     // https://github.com/GoogleCloudPlatform/appengine-plugins-core/issues/269
-    if (stdOutThread != null) {
-      stdOutThread.join();
+    if (stdOutHandler != null) {
+      awaitOutputHandler(stdOutHandler);
     }
-    if (stdErrThread != null) {
-      stdErrThread.join();
+    if (stdErrHandler != null) {
+      awaitOutputHandler(stdErrHandler);
     }
 
     for (ProcessExitListener exitListener : exitListeners) {
@@ -145,49 +199,40 @@ public class LegacyProcessHandler implements ProcessHandler {
     }
   }
 
+  private static void awaitOutputHandler(Future<?> outputHandler) throws InterruptedException {
+    try {
+      outputHandler.get();
+    } catch (ExecutionException ex) {
+      // a failing listener stops reading the output, but does not affect the process
+      logger.log(Level.WARNING, "Process output handler failed", ex.getCause());
+    }
+  }
+
   private static final Logger logger = Logger.getLogger(LegacyProcessHandler.class.getName());
 
   private void asyncRun(
       final Process process,
-      @Nullable final Thread stdOutHandler,
-      @Nullable final Thread stdErrHandler)
+      @Nullable final Future<?> stdOutHandler,
+      @Nullable final Future<?> stdErrHandler)
       throws ProcessHandlerException {
     if (!exitListeners.isEmpty()
         || !stdOutLineListeners.isEmpty()
         || !stdErrLineListeners.isEmpty()) {
-      Thread exitThread =
-          new Thread("wait-for-process-exit-and-output-handlers") {
-            @Override
-            public void run() {
-              try {
-                syncRun(process, stdOutHandler, stdErrHandler);
-              } catch (InterruptedException | AppEngineException ex) {
-                logger.log(
-                    Level.INFO, "wait-for-process-exit-and-output-handlers exited early", ex);
-              }
+      processIoExecutor.execute(
+          "wait-for-process-exit-and-output-handlers",
+          () -> {
+            try {
+              syncRun(process, stdOutHandler, stdErrHandler);
+            } catch (InterruptedException | AppEngineException ex) {
+              logger.log(Level.INFO, "wait-for-process-exit-and-output-handlers exited early", ex);
             }
-          };
-      exitThread.setDaemon(true);
-      exitThread.start();
+          });
       if (waitingProcessOutputLineListener != null) {
         waitingProcessOutputLineListener.await();
       }
     }
   }
 
-  private static void shutdownProcessHook(final Process process) {
-    Runtime.getRuntime()
-        .addShutdownHook(
-            new Thread("destroy-process") {
-              @Override
-              public void run() {
-                if (process != null) {
-                  process.destroy();
-                }
-              }
-            });
-  }
-
   public static Builder builder() {
     return new Builder();
   }
@@ -200,6 +245,10 @@ public class LegacyProcessHandler implements ProcessHandler {
     private final DevAppServerAsyncOutputWatcherFactory devAppServerAsyncOutputWatcherFactory;
 
     private boolean async;
+    @Nullable private OutputLineBuffer.Policy outputBufferPolicy;
+    private int outputBufferCapacity = OutputLineBuffer.DEFAULT_CAPACITY;
+    private final Set<ProcessOutputLineListener> unbufferedLineListeners =
+        Sets.newIdentityHashSet();
 
     private Builder() {
       this(
@@ -253,9 +302,39 @@ public class LegacyProcessHandler implements ProcessHandler {
       return this;
     }
 
+    /**
+     * Deliver output lines to the listeners through an {@link OutputLineBuffer} per stream, so slow
+     * listeners do not hold up the process. By default listeners are called directly by the thread
+     * reading the output. {@link OutputLineBuffer.Policy#BLOCK} only delays a stall until the
+     * buffer is full, the other policies drop lines instead.
+     */
+    public Builder bufferOutput(int capacity, OutputLineBuffer.Policy policy) {
+      Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+      this.outputBufferCapacity = capacity;
+      this.outputBufferPolicy = Preconditions.checkNotNull(policy);
+      return this;
+    }
+
+    /**
+     * Call an output listener directly from the thread reading the output even when output is
+     * buffered, so it receives every line. Meant for fast sinks, like log files.
+     */
+    public Builder unbuffered(ProcessOutputLineListener listener) {
+      unbufferedLineListeners.add(listener);
+      return this;
+    }
+
     public LegacyProcessHandler build() {
       return new LegacyProcessHandler(
-          async, stdOutLineListeners, stdErrLineListeners, startListeners, exitListeners, null);
+          async,
+          stdOutLineListeners,
+          stdErrLineListeners,
+          startListeners,
+          exitListeners,
+          null,
+          outputBufferPolicy,
+          outputBufferCapacity,
+          unbufferedLineListeners);
     }
 
     /**
@@ -268,13 +347,18 @@ public class LegacyProcessHandler implements ProcessHandler {
       stdOutLineListeners.add(devAppServerOutputListener);
       stdErrLineListeners.add(devAppServerOutputListener);
       exitListeners.add(devAppServerOutputListener);
+      // the start message must not be dropped by a buffer
+      unbufferedLineListeners.add(devAppServerOutputListener);
       return new LegacyProcessHandler(
           true,
           stdOutLineListeners,
           stdErrLineListeners,
           startListeners,
           exitListeners,
-          devAppServerOutputListener);
+          devAppServerOutputListener,
+          outputBufferPolicy,
+          outputBufferCapacity,
+          unbufferedLineListeners);
     }
 
     static class DevAppServerAsyncOutputWatcherFactory {
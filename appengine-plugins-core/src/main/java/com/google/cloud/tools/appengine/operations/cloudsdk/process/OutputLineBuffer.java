@@ -0,0 +1,307 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.cloud.tools.io.ProcessIoExecutor;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded ring buffer between the thread that reads a process output stream and the listeners of
+ * that stream. Lines are delivered to the listeners on a process I/O thread, so a slow listener
+ * does not stop the output from being read until the buffer is full. What happens then is decided
+ * by the {@link Policy}. Lines that are being delivered count against the capacity, so the buffer
+ * never holds more than capacity lines.
+ *
+ * <p>If a listener throws, the buffer stops delivering and discards further lines, so that the
+ * process output is still read.
+ */
+public final class OutputLineBuffer {
+
+  private static final Logger logger = Logger.getLogger(OutputLineBuffer.class.getName());
+
+  /** Default number of lines a buffer holds. */
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  /** With {@link Policy#SAMPLE}, one of this many lines is kept while the buffer is full. */
+  public static final int SAMPLE_INTERVAL = 10;
+
+  /** What to do with a new line when the buffer is full. */
+  public enum Policy {
+    /**
+     * Wait until the listeners catch up, no lines are lost. A listener that is slower than the
+     * process output still stalls the process once the buffer is full.
+     */
+    BLOCK,
+    /**
+     * Drop the oldest buffered line to make room for the new one, or the new line if all lines are
+     * being delivered.
+     */
+    DROP_OLDEST,
+    /**
+     * Keep one of every {@link #SAMPLE_INTERVAL} lines, replacing the oldest buffered line, and
+     * drop the rest, so the listeners still see a sample of a burst of output.
+     */
+    SAMPLE
+  }
+
+  private final List<ProcessOutputLineListener> lineListeners;
+  private final Policy policy;
+  private final String[] lines;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private final Future<?> delivery;
+
+  // guarded by lock
+  private int head;
+  private int size;
+  private int inFlight;
+  private boolean closed;
+  private boolean failed;
+  private int maxDepth;
+  private long overflowedLines;
+  private long droppedLines;
+  private long deliveredLines;
+
+  /**
+   * Create a buffer and start delivering its lines.
+   *
+   * @param name name of the stream, for thread names and logs
+   * @param lineListeners the listeners that receive the lines
+   * @param capacity the maximum number of buffered lines
+   * @param policy what to do with a new line when the buffer is full
+   */
+  public OutputLineBuffer(
+      String name, List<ProcessOutputLineListener> lineListeners, int capacity, Policy policy) {
+    this(name, lineListeners, capacity, policy, ProcessIoExecutor.getInstance());
+  }
+
+  @VisibleForTesting
+  OutputLineBuffer(
+      String name,
+      List<ProcessOutputLineListener> lineListeners,
+      int capacity,
+      Policy policy,
+      ProcessIoExecutor processIoExecutor) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+    this.lineListeners = ImmutableList.copyOf(lineListeners);
+    this.policy = Preconditions.checkNotNull(policy);
+    this.lines = new String[capacity];
+    this.delivery = processIoExecutor.submit(name + "-listeners", () -> deliver(name));
+  }
+
+  /**
+   * Add a line, following the {@link Policy} if the buffer is full.
+   *
+   * @throws InterruptedException if interrupted while waiting with {@link Policy#BLOCK}
+   */
+  public void add(String line) throws InterruptedException {
+    lock.lock();
+    try {
+      Preconditions.checkState(!closed, "buffer is closed");
+      if (failed) {
+        droppedLines++;
+        return;
+      }
+      if (size + inFlight == lines.length) {
+        overflowedLines++;
+        switch (policy) {
+          case BLOCK:
+            while (size + inFlight == lines.length && !failed) {
+              notFull.await();
+            }
+            if (failed) {
+              droppedLines++;
+              return;
+            }
+            break;
+          case SAMPLE:
+            if (overflowedLines % SAMPLE_INTERVAL != 1 || size == 0) {
+              droppedLines++;
+              return;
+            }
+            removeOldest();
+            break;
+          case DROP_OLDEST:
+            if (size == 0) {
+              droppedLines++;
+              return;
+            }
+            removeOldest();
+            break;
+          default:
+            throw new IllegalStateException("Unknown policy: " + policy);
+        }
+      }
+      lines[(head + size) % lines.length] = line;
+      size++;
+      maxDepth = Math.max(maxDepth, size + inFlight);
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Mark the end of the output and wait until all buffered lines were delivered.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void close() throws InterruptedException {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+    try {
+      delivery.get();
+    } catch (ExecutionException ex) {
+      // deliver() catches listener exceptions, only errors are rethrown
+      logger.log(Level.WARNING, "Output line delivery failed", ex.getCause());
+    }
+  }
+
+  /** Returns the largest number of lines that were buffered at the same time. */
+  public int getMaxDepth() {
+    lock.lock();
+    try {
+      return maxDepth;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the number of lines that were lost because the buffer was full or delivery failed. */
+  public long getDroppedLines() {
+    lock.lock();
+    try {
+      return droppedLines;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the number of lines that were delivered to the listeners. */
+  public long getDeliveredLines() {
+    lock.lock();
+    try {
+      return deliveredLines;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // guarded by lock
+  private void removeOldest() {
+    lines[head] = null;
+    head = (head + 1) % lines.length;
+    size--;
+    droppedLines++;
+  }
+
+  private void deliver(String name) {
+    // half the capacity, so the reader can keep adding lines while a batch is delivered
+    int maxBatchSize = Math.max(1, lines.length / 2);
+    List<String> batch = new ArrayList<>(maxBatchSize);
+    while (true) {
+      lock.lock();
+      try {
+        while (size == 0 && !closed) {
+          notEmpty.awaitUninterruptibly();
+        }
+        if (size == 0) {
+          logger.fine(
+              name
+                  + " buffer closed: delivered "
+                  + deliveredLines
+                  + " lines, dropped "
+                  + droppedLines
+                  + ", max depth "
+                  + maxDepth);
+          return;
+        }
+        // take a batch at once, so the reader is not held up by the lock for every line
+        while (size > 0 && batch.size() < maxBatchSize) {
+          batch.add(lines[head]);
+          lines[head] = null;
+          head = (head + 1) % lines.length;
+          size--;
+        }
+        inFlight = batch.size();
+      } finally {
+        lock.unlock();
+      }
+
+      int delivered = 0;
+      try {
+        for (String line : batch) {
+          for (ProcessOutputLineListener lineListener : lineListeners) {
+            lineListener.onOutputLine(line);
+          }
+          delivered++;
+        }
+      } catch (RuntimeException ex) {
+        logger.log(Level.WARNING, name + " listener failed, discarding further output", ex);
+        fail(delivered, batch.size() - delivered);
+        return;
+      } catch (Error ex) {
+        // release blocked writers before the error ends delivery
+        fail(delivered, batch.size() - delivered);
+        throw ex;
+      }
+      lock.lock();
+      try {
+        deliveredLines += delivered;
+        inFlight = 0;
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+      batch.clear();
+    }
+  }
+
+  private void fail(int delivered, int undelivered) {
+    lock.lock();
+    try {
+      failed = true;
+      inFlight = 0;
+      deliveredLines += delivered;
+      droppedLines += undelivered + size;
+      while (size > 0) {
+        lines[head] = null;
+        head = (head + 1) % lines.length;
+        size--;
+      }
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tracks child processes and open log sinks that must not outlive the JVM. A single shutdown hook,
+ * added on first use, destroys the live processes and closes the open sinks. Processes and sinks
+ * are removed again when they are done, so a long lived JVM, like a Gradle daemon, does not keep a
+ * shutdown hook or a reference for every process it ever ran.
+ */
+public final class ProcessRegistry {
+
+  private static final Logger logger = Logger.getLogger(ProcessRegistry.class.getName());
+
+  private static final ProcessRegistry instance =
+      new ProcessRegistry(hook -> Runtime.getRuntime().addShutdownHook(hook));
+
+  private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+  private final Set<Closeable> sinks = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean hookAdded = new AtomicBoolean();
+  private final Consumer<Thread> shutdownHookInstaller;
+
+  @VisibleForTesting
+  ProcessRegistry(Consumer<Thread> shutdownHookInstaller) {
+    this.shutdownHookInstaller = shutdownHookInstaller;
+  }
+
+  /** Returns the registry shared by all processes in this JVM. */
+  public static ProcessRegistry getInstance() {
+    return instance;
+  }
+
+  /** Destroy the process if the JVM exits before {@link #deregister(Process)} is called. */
+  public void register(Process process) {
+    addShutdownHook();
+    // drop processes that exited without being deregistered
+    processes.removeIf(registered -> !registered.isAlive());
+    processes.add(process);
+  }
+
+  /** Stop tracking the process, usually because it has exited. */
+  public void deregister(Process process) {
+    processes.remove(process);
+  }
+
+  /** Close the sink if the JVM exits before {@link #deregister(Closeable)} is called. */
+  public void register(Closeable sink) {
+    addShutdownHook();
+    sinks.add(sink);
+  }
+
+  /** Stop tracking the sink, usually because it was closed. */
+  public void deregister(Closeable sink) {
+    sinks.remove(sink);
+  }
+
+  /** Returns the number of tracked processes that are still alive. */
+  public int getLiveProcessCount() {
+    return (int) processes.stream().filter(Process::isAlive).count();
+  }
+
+  /** Returns the number of tracked sinks. */
+  public int getOpenSinkCount() {
+    return sinks.size();
+  }
+
+  private void addShutdownHook() {
+    if (hookAdded.compareAndSet(false, true)) {
+      shutdownHookInstaller.accept(new Thread(this::shutdown, "destroy-processes"));
+    }
+  }
+
+  @VisibleForTesting
+  void shutdown() {
+    for (Process process : processes) {
+      process.destroy();
+    }
+    processes.clear();
+    for (Closeable sink : sinks) {
+      try {
+        sink.close();
+      } catch (IOException ex) {
+        logger.log(Level.WARNING, "Failed to close process output sink", ex);
+      }
+    }
+    sinks.clear();
+  }
+}
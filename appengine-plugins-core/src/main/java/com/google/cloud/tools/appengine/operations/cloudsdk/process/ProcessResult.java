@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/** The outcome of a process run by an {@link AsyncProcessHandler}. */
+public final class ProcessResult {
+
+  private final int exitCode;
+  private final Instant startTime;
+  private final Duration duration;
+  private final List<String> outputTail;
+
+  ProcessResult(int exitCode, Instant startTime, Duration duration, List<String> outputTail) {
+    this.exitCode = exitCode;
+    this.startTime = startTime;
+    this.duration = duration;
+    this.outputTail = ImmutableList.copyOf(outputTail);
+  }
+
+  public int getExitCode() {
+    return exitCode;
+  }
+
+  /** Returns when the handler took over the process. */
+  public Instant getStartTime() {
+    return startTime;
+  }
+
+  /** Returns the time from the start until the process exited and all its output was read. */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  /** Returns the last lines of standard output and standard error, interleaved as they arrived. */
+  public List<String> getOutputTail() {
+    return outputTail;
+  }
+
+  @Override
+  public String toString() {
+    return "ProcessResult{exitCode=" + exitCode + ", duration=" + duration + "}";
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Runs the tasks that pump the output streams of child processes and wait for them to exit. All
+ * processes started by this library share one executor, so a long lived JVM that runs many gcloud
+ * commands reuses threads instead of starting new ones for every process.
+ *
+ * <p>On Java 21 and later every task runs on its own virtual thread. Otherwise tasks run on a
+ * cached pool of daemon threads. When all pooled threads are busy, a task gets a thread of its own
+ * rather than waiting, because a process whose output is not read can block forever.
+ */
+public final class ProcessIoExecutor {
+
+  private static final Logger logger = Logger.getLogger(ProcessIoExecutor.class.getName());
+
+  /** Maximum number of pooled threads when virtual threads are not available. */
+  @VisibleForTesting static final int MAX_POOLED_THREADS = 64;
+
+  private static final ProcessIoExecutor instance = newProcessIoExecutor();
+
+  private final Executor executor;
+  private final boolean virtualThreads;
+  private final AtomicInteger activeTasks = new AtomicInteger();
+  private final AtomicInteger peakActiveTasks = new AtomicInteger();
+  private final AtomicLong completedTasks = new AtomicLong();
+
+  @VisibleForTesting
+  ProcessIoExecutor(Executor executor, boolean virtualThreads) {
+    this.executor = executor;
+    this.virtualThreads = virtualThreads;
+  }
+
+  /** Returns the executor shared by all processes in this JVM. */
+  public static ProcessIoExecutor getInstance() {
+    return instance;
+  }
+
+  /**
+   * Run a task on a process I/O thread.
+   *
+   * @param name thread name while the task runs, for thread dumps
+   * @param task the task, interrupted if the returned future is cancelled
+   * @return the result of the task
+   */
+  public <T> ListenableFuture<T> submit(String name, Callable<T> task) {
+    ListenableFutureTask<T> future = ListenableFutureTask.create(() -> call(name, task));
+    executor.execute(future);
+    return future;
+  }
+
+  /** Run a task without a result on a process I/O thread, see {@link #submit(String, Callable)}. */
+  public ListenableFuture<?> submit(String name, Runnable task) {
+    return submit(name, Executors.callable(task));
+  }
+
+  /**
+   * Run a task on a process I/O thread without tracking its completion. An exception thrown by the
+   * task goes to the thread's uncaught exception handler.
+   *
+   * @param name thread name while the task runs, for thread dumps
+   * @param task the task
+   */
+  public void execute(String name, Runnable task) {
+    executor.execute(
+        () -> {
+          try {
+            call(name, Executors.callable(task));
+          } catch (RuntimeException ex) {
+            throw ex;
+          } catch (Exception ex) {
+            // a Runnable cannot throw checked exceptions
+            throw new IllegalStateException(ex);
+          }
+        });
+  }
+
+  private <T> T call(String name, Callable<T> task) throws Exception {
+    Thread thread = Thread.currentThread();
+    String threadName = thread.getName();
+    thread.setName(name);
+    peakActiveTasks.accumulateAndGet(activeTasks.incrementAndGet(), Math::max);
+    try {
+      return task.call();
+    } finally {
+      activeTasks.decrementAndGet();
+      completedTasks.incrementAndGet();
+      thread.setName(threadName);
+    }
+  }
+
+  /** Returns the number of tasks that are running now. */
+  public int getActiveTasks() {
+    return activeTasks.get();
+  }
+
+  /** Returns the largest number of tasks that ran at the same time. */
+  public int getPeakActiveTasks() {
+    return peakActiveTasks.get();
+  }
+
+  /** Returns the number of tasks that have finished. */
+  public long getCompletedTasks() {
+    return completedTasks.get();
+  }
+
+  /** Returns true if tasks run on virtual threads. */
+  public boolean usesVirtualThreads() {
+    return virtualThreads;
+  }
+
+  private static ProcessIoExecutor newProcessIoExecutor() {
+    try {
+      // Java 21+, looked up reflectively because this library targets Java 8
+      ExecutorService virtualThreadExecutor =
+          (ExecutorService)
+              Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      logger.fine("Running process I/O on virtual threads");
+      return new ProcessIoExecutor(virtualThreadExecutor, true);
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      return new ProcessIoExecutor(newPooledExecutor(), false);
+    }
+  }
+
+  @VisibleForTesting
+  static ThreadPoolExecutor newPooledExecutor() {
+    return new ThreadPoolExecutor(
+        0,
+        MAX_POOLED_THREADS,
+        60,
+        TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("process-io-%d").build(),
+        (task, executor) -> {
+          logger.fine("All process I/O threads are busy, starting an extra thread");
+          Thread thread = new Thread(task, "process-io-overflow");
+          thread.setDaemon(true);
+          thread.start();
+        });
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * Reads lines of UTF-8 text from a stream, like the output of a process. Lines end with {@code \n},
+ * {@code \r\n} or a lone {@code \r}. Line breaks are found in the raw bytes, which is safe because
+ * UTF-8 never uses those byte values inside multibyte characters, and only whole lines are decoded,
+ * so characters split across reads are decoded correctly. Both buffers are reused for all lines.
+ *
+ * <p>Lines longer than the maximum line length are returned in parts of at most that many bytes,
+ * split between characters, so that output without line breaks cannot exhaust memory.
+ */
+public final class Utf8LineReader implements Closeable {
+
+  /** Default maximum line length in bytes. */
+  public static final int DEFAULT_MAX_LINE_LENGTH = 1024 * 1024;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final InputStream inputStream;
+  private final int maxLineLength;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+  private int limit;
+  private byte[] line = new byte[256];
+  private int lineLength;
+  private boolean skipLineFeed;
+  private boolean endOfStream;
+
+  /** Create a reader with the {@link #DEFAULT_MAX_LINE_LENGTH default maximum line length}. */
+  public Utf8LineReader(InputStream inputStream) {
+    this(inputStream, DEFAULT_MAX_LINE_LENGTH);
+  }
+
+  /**
+   * Create a reader.
+   *
+   * @param inputStream the stream to read, closed by {@link #close()}
+   * @param maxLineLength the maximum length of a returned line in bytes, at least 4 so that every
+   *     character fits
+   */
+  public Utf8LineReader(InputStream inputStream, int maxLineLength) {
+    Preconditions.checkArgument(maxLineLength >= 4, "maxLineLength must be at least 4");
+    this.inputStream = Preconditions.checkNotNull(inputStream);
+    this.maxLineLength = maxLineLength;
+  }
+
+  /**
+   * Read the next line.
+   *
+   * @return the line without its line break, or null at the end of the stream
+   */
+  @Nullable
+  public String readLine() throws IOException {
+    while (true) {
+      if (position == limit && !fill()) {
+        // the last line may not end with a line break
+        return lineLength > 0 ? takeLine(lineLength) : null;
+      }
+      if (skipLineFeed) {
+        skipLineFeed = false;
+        if (buffer[position] == '\n') {
+          position++;
+          continue;
+        }
+      }
+      int start = position;
+      while (position < limit) {
+        byte b = buffer[position];
+        if (b == '\n' || b == '\r') {
+          append(start, position - start);
+          position++;
+          skipLineFeed = b == '\r';
+          return takeLine(lineLength);
+        }
+        if (lineLength + position - start == maxLineLength) {
+          append(start, position - start);
+          return takeOverlongLine();
+        }
+        position++;
+      }
+      append(start, position - start);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+
+  private boolean fill() throws IOException {
+    if (endOfStream) {
+      return false;
+    }
+    int read;
+    do {
+      read = inputStream.read(buffer);
+    } while (read == 0);
+    if (read < 0) {
+      endOfStream = true;
+      return false;
+    }
+    position = 0;
+    limit = read;
+    return true;
+  }
+
+  private void append(int start, int length) {
+    if (lineLength + length > line.length) {
+      line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+    }
+    System.arraycopy(buffer, start, line, lineLength, length);
+    lineLength += length;
+  }
+
+  /** Returns the longest prefix of the line that ends between characters, keeping the rest. */
+  private String takeOverlongLine() {
+    int end = lineLength;
+    // back up over at most 3 continuation bytes (10xxxxxx) to the start of the last character
+    int lead = end - 1;
+    while (lead > end - 4 && lead > 0 && (line[lead] & 0xC0) == 0x80) {
+      lead--;
+    }
+    if (characterLength(line[lead]) > end - lead) {
+      end = lead;
+    }
+    return takeLine(end);
+  }
+
+  private static int characterLength(byte lead) {
+    if ((lead & 0x80) == 0) {
+      return 1;
+    } else if ((lead & 0xE0) == 0xC0) {
+      return 2;
+    } else if ((lead & 0xF0) == 0xE0) {
+      return 3;
+    } else if ((lead & 0xF8) == 0xF0) {
+      return 4;
+    }
+    // malformed, decoded as a replacement character
+    return 1;
+  }
+
+  /** Decodes the first bytes of the line, the remaining bytes start the next line. */
+  private String takeLine(int length) {
+    String result = new String(line, 0, length, StandardCharsets.UTF_8);
+    lineLength -= length;
+    System.arraycopy(line, length, line, 0, lineLength);
+    return result;
+  }
+}
@@ -21,6 +21,12 @@ import com.google.common.base.Preconditions;
 /** Default implementation of a child listener. Should satisfy the simple use case. */
 public class ChildProgressListener implements ProgressListener {
 
+  /**
+   * Exponent of the curve used for an unknown amount of work, the child reports about 30% of its
+   * allocation after 1,000 units of work and about 55% after 10,000,000 units.
+   */
+  private static final double UNKNOWN_WORK_DECAY = 0.05;
+
   private final ProgressListener parent;
   private boolean isStarted = false;
   private boolean isDone = false;
@@ -55,14 +61,16 @@ public class ChildProgressListener implements ProgressListener {
     Preconditions.checkArgument(isStarted && !isDone);
     totalWorkDone += workDone;
 
+    long totalAllocatedWorkDone;
     if (totalWork == UNKNOWN) {
-      // there is room here for an implementation of an unknown amount of work
-      // algorithm, but for now we just ignore any update.
-      return;
+      // without a total, approach the allocation asymptotically: every update makes visible
+      // progress but the allocation is only reached when the child is done
+      double fraction = 1 - Math.pow(1 + (double) totalWorkDone, -UNKNOWN_WORK_DECAY);
+      totalAllocatedWorkDone = (long) (fraction * totalAllocatedWork);
+    } else {
+      totalAllocatedWorkDone = totalWorkDone * totalAllocatedWork / totalWork;
     }
 
-    long totalAllocatedWorkDone = totalWorkDone * totalAllocatedWork / totalWork;
-
     if (totalAllocatedWorkDone > totalReportedAllocatedWorkDone) {
       parent.update(totalAllocatedWorkDone - totalReportedAllocatedWorkDone);
       totalReportedAllocatedWorkDone = totalAllocatedWorkDone;
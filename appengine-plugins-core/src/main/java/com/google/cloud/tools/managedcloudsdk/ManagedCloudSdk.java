@@ -23,18 +23,28 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.CloudS
 import com.google.cloud.tools.managedcloudsdk.command.CommandCaller;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExecutionException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
+import com.google.cloud.tools.managedcloudsdk.components.ComponentSnapshot;
 import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
 import com.google.cloud.tools.managedcloudsdk.components.SdkComponentInstaller;
 import com.google.cloud.tools.managedcloudsdk.components.SdkUpdater;
+import com.google.cloud.tools.managedcloudsdk.install.InstallProfile;
+import com.google.cloud.tools.managedcloudsdk.install.SdkDeduplicator;
+import com.google.cloud.tools.managedcloudsdk.install.SdkGarbageCollector;
 import com.google.cloud.tools.managedcloudsdk.install.SdkInstaller;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -51,16 +61,33 @@ public class ManagedCloudSdk {
   private final Version version;
   private final Path managedSdkDirectory;
   private final OsInfo osInfo;
+  @Nullable private final Path configDirectory;
 
   /** Instantiated with {@link ManagedCloudSdk#newManagedSdk}. */
   ManagedCloudSdk(Version version, Path managedSdkDirectory, OsInfo osInfo) {
+    this(version, managedSdkDirectory, osInfo, null);
+  }
+
+  /**
+   * Instantiated with {@link ManagedCloudSdk#newManagedSdk}.
+   *
+   * @param configDirectory the per-user gcloud configuration directory of an SDK in a shared
+   *     read-only store, or null for an SDK managed by this user
+   */
+  ManagedCloudSdk(
+      Version version, Path managedSdkDirectory, OsInfo osInfo, @Nullable Path configDirectory) {
     this.version = version;
     this.managedSdkDirectory = managedSdkDirectory;
     this.osInfo = osInfo;
+    this.configDirectory = configDirectory;
   }
 
   public Path getSdkHome() {
-    return managedSdkDirectory.resolve(version.getVersion()).resolve("google-cloud-sdk");
+    return getVersionDirectory().resolve("google-cloud-sdk");
+  }
+
+  private Path getVersionDirectory() {
+    return managedSdkDirectory.resolve(version.getVersion());
   }
 
   /** Returns a path to gcloud executable (operating system specific). */
@@ -70,6 +97,35 @@ public class ManagedCloudSdk {
         .resolve(osInfo.name().equals(WINDOWS) ? "gcloud.cmd" : "gcloud");
   }
 
+  /**
+   * Returns true if this SDK lives in a shared read-only store. Shared SDKs are provisioned once
+   * per machine, they are never installed, updated or modified by this library.
+   */
+  public boolean isShared() {
+    return configDirectory != null;
+  }
+
+  /**
+   * Returns the per-user gcloud configuration directory of a shared SDK, or null if gcloud uses its
+   * default configuration directory.
+   */
+  @Nullable
+  public Path getConfigDirectory() {
+    return configDirectory;
+  }
+
+  /**
+   * Returns the environment variables to run this SDK's gcloud with. For a shared SDK this points
+   * {@code CLOUDSDK_CONFIG} to the per-user overlay, so configuration and credentials are never
+   * written to the shared store.
+   */
+  public Map<String, String> getEnvironment() {
+    if (configDirectory == null) {
+      return Collections.emptyMap();
+    }
+    return Collections.singletonMap("CLOUDSDK_CONFIG", configDirectory.toString());
+  }
+
   /** Simple check to verify Cloud SDK installed by verifying the existence of gcloud. */
   public boolean isInstalled()
       throws ManagedSdkVerificationException, ManagedSdkVersionMismatchException {
@@ -82,8 +138,15 @@ public class ManagedCloudSdk {
     if (!Files.isRegularFile(getGcloudPath())) {
       return false;
     }
+    if (!isShared()) {
+      SdkGarbageCollector.recordUse(getVersionDirectory());
+    }
     // Verify the versions match up for fixed version installs
     if (version != Version.LATEST) {
+      SdkVerificationState state = SdkVerificationState.load(getSdkHome());
+      if (state.isVersionVerified(version.getVersion())) {
+        return true;
+      }
       try {
         String versionFileContents =
             new String(Files.readAllBytes(getSdkHome().resolve("VERSION")), StandardCharsets.UTF_8)
@@ -99,19 +162,26 @@ public class ManagedCloudSdk {
       } catch (IOException ex) {
         throw new ManagedSdkVerificationException(ex);
       }
+      state.setVerifiedVersion(version.getVersion());
+      saveState(state);
     }
     return true;
   }
 
   /**
    * Query gcloud to see if component is installed. Uses gcloud's '--local-state-only' to avoid
-   * network accesses.
+   * network accesses. Components found are remembered until the installed components change.
    */
   public boolean hasComponent(SdkComponent component) throws ManagedSdkVerificationException {
     if (!Files.isRegularFile(getGcloudPath())) {
       return false;
     }
 
+    SdkVerificationState state = SdkVerificationState.load(getSdkHome());
+    if (state.hasComponent(component)) {
+      return true;
+    }
+
     List<String> listComponentCommand =
         Arrays.asList(
             getGcloudPath().toString(),
@@ -122,25 +192,84 @@ public class ManagedCloudSdk {
             "--filter=id:" + component);
 
     try {
-      String result = CommandCaller.newCaller().call(listComponentCommand, null, null);
+      String result = CommandCaller.newCaller().call(listComponentCommand, null, getEnvironment());
       List<CloudSdkComponent> components = CloudSdkComponent.fromJsonList(result);
       if (components.size() > 1) {
         // not a unique component id
         throw new ManagedSdkVerificationException("Invalid component " + component);
       }
-      return !components.isEmpty();
+      if (components.isEmpty()) {
+        return false;
+      }
+      state.addComponent(component);
+      saveState(state);
+      return true;
     } catch (CommandExecutionException | InterruptedException | CommandExitException ex) {
       throw new ManagedSdkVerificationException(ex);
     }
   }
 
-  /** Query gcloud to see if SDK is up to date. Gcloud makes a call to the server to check this. */
+  /**
+   * Determine which of the components are not installed. Reads the component snapshots of the
+   * installed SDK directly, so unlike {@link #hasComponent} this does not run gcloud.
+   *
+   * @param components components to check
+   * @return the components that are not installed, in the order they were given
+   */
+  public List<SdkComponent> missingComponents(Collection<SdkComponent> components)
+      throws ManagedSdkVerificationException {
+    if (!Files.isRegularFile(getGcloudPath())) {
+      return ImmutableList.copyOf(ImmutableSet.copyOf(components));
+    }
+
+    SdkVerificationState state = SdkVerificationState.load(getSdkHome());
+    Set<SdkComponent> unverified = new LinkedHashSet<>();
+    for (SdkComponent component : components) {
+      if (!state.hasComponent(component)) {
+        unverified.add(component);
+      }
+    }
+    if (unverified.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    try {
+      ComponentSnapshot installed = ComponentSnapshot.fromInstalledSdk(getSdkHome());
+      ImmutableList.Builder<SdkComponent> missing = ImmutableList.builder();
+      for (SdkComponent component : unverified) {
+        if (installed.hasComponent(component)) {
+          state.addComponent(component);
+        } else {
+          missing.add(component);
+        }
+      }
+      saveState(state);
+      return missing.build();
+    } catch (IOException ex) {
+      throw new ManagedSdkVerificationException(ex);
+    }
+  }
+
+  /**
+   * Check that all the components are installed, without running gcloud.
+   *
+   * @see #missingComponents
+   */
+  public boolean hasComponents(Collection<SdkComponent> components)
+      throws ManagedSdkVerificationException {
+    return missingComponents(components).isEmpty();
+  }
+
+  /**
+   * Query gcloud to see if SDK is up to date. Gcloud makes a call to the server to check this. A
+   * shared SDK is always considered up to date, it is updated by whoever provisions the store.
+   */
   public boolean isUpToDate() throws ManagedSdkVerificationException {
     if (!Files.isRegularFile(getGcloudPath())) {
       return false;
     }
 
-    if (version != Version.LATEST) {
+    if (version != Version.LATEST || isShared()) {
       return true;
     }
 
@@ -153,28 +282,90 @@ public class ManagedCloudSdk {
             "--filter=state.name:Update Available");
 
     try {
-      String result = CommandCaller.newCaller().call(updateAvailableCommand, null, null);
+      String result =
+          CommandCaller.newCaller().call(updateAvailableCommand, null, getEnvironment());
+      boolean upToDate = true;
       for (CloudSdkComponent component : CloudSdkComponent.fromJsonList(result)) {
         State state = component.getState();
         if (state != null) {
           if ("Update Available".equals(state.getName())) {
-            return false;
+            upToDate = false;
+            break;
           }
         }
       }
-      return true;
+      SdkVerificationState verificationState = SdkVerificationState.load(getSdkHome());
+      verificationState.setUpdateCheck(System.currentTimeMillis(), upToDate);
+      saveState(verificationState);
+      return upToDate;
     } catch (CommandExecutionException | InterruptedException | CommandExitException ex) {
       throw new ManagedSdkVerificationException(ex);
     }
   }
 
+  /**
+   * Query gcloud to see if SDK is up to date, unless a previous query within the check interval
+   * found it up to date. Results are remembered until the installed components change, so an update
+   * or component install always causes the next call to query gcloud again.
+   *
+   * @param checkInterval minimum time between queries, {@link Duration#ZERO} to always query
+   */
+  public boolean isUpToDate(Duration checkInterval) throws ManagedSdkVerificationException {
+    if (!Files.isRegularFile(getGcloudPath())) {
+      return false;
+    }
+
+    if (version != Version.LATEST) {
+      return true;
+    }
+
+    if (!checkInterval.isZero() && !checkInterval.isNegative()) {
+      SdkVerificationState state = SdkVerificationState.load(getSdkHome());
+      long sinceLastCheck = System.currentTimeMillis() - state.getLastUpdateCheck();
+      if (state.wasUpToDate() && sinceLastCheck >= 0 && sinceLastCheck < checkInterval.toMillis()) {
+        logger.fine("Skipping update check, last checked " + sinceLastCheck + "ms ago");
+        return true;
+      }
+    }
+    return isUpToDate();
+  }
+
+  /**
+   * Compare the installed components with the snapshot of a local component mirror. Unlike {@link
+   * #isUpToDate()} this does not run gcloud or access the network. A shared SDK is always
+   * considered up to date.
+   *
+   * @param mirrorDirectory directory containing a {@code components-2.json} snapshot
+   */
+  public boolean isUpToDate(Path mirrorDirectory) throws ManagedSdkVerificationException {
+    if (!Files.isRegularFile(getGcloudPath())) {
+      return false;
+    }
+
+    if (version != Version.LATEST || isShared()) {
+      return true;
+    }
+
+    try {
+      ComponentSnapshot mirrorSnapshot =
+          ComponentSnapshot.fromFile(mirrorDirectory.resolve(ComponentSnapshot.SNAPSHOT_FILE_NAME));
+      return ComponentSnapshot.fromInstalledSdk(getSdkHome())
+          .getChangedComponents(mirrorSnapshot)
+          .isEmpty();
+    } catch (IOException ex) {
+      throw new ManagedSdkVerificationException(ex);
+    }
+  }
+
   // TODO : fix passthrough for useragent and client side usage reporting
   public SdkInstaller newInstaller() {
+    checkModifiable();
     return SdkInstaller.newInstaller(
         managedSdkDirectory, version, osInfo, USER_AGENT_STRING, false, Collections.emptyMap());
   }
 
   public SdkInstaller newInstaller(Map<String, String> environmentVariables) {
+    checkModifiable();
     return SdkInstaller.newInstaller(
         managedSdkDirectory, version, osInfo, USER_AGENT_STRING, false, environmentVariables);
   }
@@ -189,6 +380,7 @@ public class ManagedCloudSdk {
    */
   public SdkInstaller newInstaller(
       @Nullable Set<String> overrideComponents, Map<String, String> environmentVariables) {
+    checkModifiable();
     return SdkInstaller.newInstaller(
         managedSdkDirectory,
         version,
@@ -199,7 +391,58 @@ public class ManagedCloudSdk {
         environmentVariables);
   }
 
+  /**
+   * Create a new {@link SdkInstaller} that obtains the Cloud SDK archive from a mirror instead of
+   * the default download locations. The mirror is a directory (local, network mounted or served
+   * over http) containing the archives and an {@code index.json} that lists their version, os,
+   * architecture, file name and sha256 digest.
+   *
+   * @param archiveMirror the URI of the mirror directory
+   * @param overrideComponents gcloud components to install instead of the defaults
+   * @param environmentVariables environment variables used during installation script run
+   * @return a {@link SdkInstaller}
+   */
+  public SdkInstaller newInstaller(
+      URI archiveMirror,
+      @Nullable Set<String> overrideComponents,
+      Map<String, String> environmentVariables) {
+    checkModifiable();
+    return SdkInstaller.newInstaller(
+        managedSdkDirectory,
+        version,
+        osInfo,
+        USER_AGENT_STRING,
+        false,
+        overrideComponents,
+        environmentVariables,
+        archiveMirror);
+  }
+
+  /**
+   * Create a new {@link SdkInstaller} for a minimal installation described by a profile, like
+   * {@link InstallProfile#APP_ENGINE_JAVA}. Parts of the archive the profile excludes are not
+   * extracted and the profile's pruned components are removed after installation.
+   *
+   * @param profile the parts of the Cloud SDK to install
+   * @param environmentVariables environment variables used during installation script run
+   * @return a {@link SdkInstaller}
+   */
+  public SdkInstaller newInstaller(
+      InstallProfile profile, Map<String, String> environmentVariables) {
+    checkModifiable();
+    return SdkInstaller.newInstaller(
+        managedSdkDirectory,
+        version,
+        osInfo,
+        USER_AGENT_STRING,
+        false,
+        profile,
+        environmentVariables,
+        null);
+  }
+
   public SdkComponentInstaller newComponentInstaller() {
+    checkModifiable();
     return SdkComponentInstaller.newComponentInstaller(osInfo.name(), getGcloudPath());
   }
 
@@ -210,12 +453,76 @@ public class ManagedCloudSdk {
    * udpated).
    */
   public SdkUpdater newUpdater() {
+    checkModifiable();
     if (version != Version.LATEST) {
       throw new UnsupportedOperationException("Cannot update a fixed version SDK.");
     }
     return SdkUpdater.newUpdater(osInfo.name(), getGcloudPath());
   }
 
+  /**
+   * Returns a new updater for a "LATEST" SDK that applies only the components that changed in a
+   * local component mirror, see {@link #newUpdater()}.
+   *
+   * @param mirrorDirectory directory containing a {@code components-2.json} snapshot and the
+   *     component archives it references
+   */
+  public SdkUpdater newUpdater(Path mirrorDirectory) {
+    checkModifiable();
+    if (version != Version.LATEST) {
+      throw new UnsupportedOperationException("Cannot update a fixed version SDK.");
+    }
+    return SdkUpdater.newUpdater(osInfo.name(), getGcloudPath(), mirrorDirectory);
+  }
+
+  /** Returns the content store shared by all managed SDK versions for deduplication. */
+  public Path getContentStore() {
+    return managedSdkDirectory.resolve(SdkDeduplicator.DIRECTORY_NAME);
+  }
+
+  /**
+   * Replaces files of this SDK that are identical to files of other deduplicated SDK versions with
+   * hard links to a shared content store. Only fixed version SDKs can be deduplicated, it will
+   * throw a {@link UnsupportedOperationException} for "LATEST" which is updated in place.
+   * Installing an SDK does not deduplicate it, call this after installing it and its components.
+   *
+   * @return the number of bytes reclaimed by this pass
+   */
+  public long deduplicate() throws IOException, InterruptedException {
+    checkModifiable();
+    if (version == Version.LATEST) {
+      throw new UnsupportedOperationException("Cannot deduplicate a LATEST SDK.");
+    }
+    return new SdkDeduplicator(getContentStore()).deduplicate(getSdkHome());
+  }
+
+  /**
+   * Returns the number of bytes currently saved across all deduplicated SDK versions, or {@code 0}
+   * if the file system does not report hard link counts.
+   */
+  public long getReclaimedSpace() throws IOException {
+    return new SdkDeduplicator(getContentStore()).getReclaimedBytes();
+  }
+
+  /**
+   * Removes other managed SDK versions that are no longer used, least recently used first. This
+   * SDK's own version is never removed, and neither are versions used within the last {@link
+   * SdkGarbageCollector#GRACE_PERIOD}. A version counts as used whenever {@link #isInstalled()}
+   * finds it installed.
+   *
+   * @param maxUnused versions not used for longer than this are removed, null to remove versions
+   *     only to stay within the size budget
+   * @param maxTotalBytes versions are removed until all of them together take no more disk space
+   *     than this, negative for no size budget
+   * @return the removed versions
+   */
+  public List<String> removeUnusedVersions(@Nullable Duration maxUnused, long maxTotalBytes)
+      throws IOException, InterruptedException {
+    checkModifiable();
+    return new SdkGarbageCollector(managedSdkDirectory)
+        .collect(maxUnused, maxTotalBytes, Collections.singleton(version.getVersion()));
+  }
+
   /** Get a new {@link ManagedCloudSdk} instance for @{link Version} specified. */
   public static ManagedCloudSdk newManagedSdk(Version version) throws UnsupportedOsException {
     OsInfo osInfo = OsInfo.getSystemOsInfo();
@@ -225,11 +532,41 @@ public class ManagedCloudSdk {
         osInfo);
   }
 
+  /**
+   * Get a new {@link ManagedCloudSdk} instance for an SDK pre-provisioned in a shared, read-only
+   * store, like {@code /opt/google-cloud-tools-java/managed-cloud-sdk}. The store has the same
+   * layout as a managed SDK home. Only gcloud's mutable state (configuration and credentials) is
+   * kept per user, in the {@code config} directory of the overlay, see {@link #getEnvironment()}.
+   *
+   * @param version the version of the SDK in the store
+   * @param sharedStore the directory of the shared store
+   * @param userOverlay a directory private to the current user
+   */
+  public static ManagedCloudSdk newManagedSdk(Version version, Path sharedStore, Path userOverlay)
+      throws UnsupportedOsException {
+    return new ManagedCloudSdk(
+        version, sharedStore, OsInfo.getSystemOsInfo(), userOverlay.resolve("config"));
+  }
+
   /** Convenience method to obtain a new LATEST {@link ManagedCloudSdk} instance. */
   public static ManagedCloudSdk newManagedSdk() throws UnsupportedOsException {
     return newManagedSdk(Version.LATEST);
   }
 
+  private void checkModifiable() {
+    if (isShared()) {
+      throw new UnsupportedOperationException(
+          "Cannot modify the shared Cloud SDK store at " + managedSdkDirectory);
+    }
+  }
+
+  /** The shared store is read-only, verification results are only remembered for owned SDKs. */
+  private void saveState(SdkVerificationState state) {
+    if (!isShared()) {
+      state.save();
+    }
+  }
+
   @VisibleForTesting
   static Path getOsSpecificManagedSdkHome(
       OsInfo.Name osName, Properties systemProperties, Map<String, String> environment) {
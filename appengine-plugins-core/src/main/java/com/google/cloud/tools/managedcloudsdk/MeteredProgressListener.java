@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Measures the throughput of a task and coalesces its work updates, so that the delegate listener
+ * is called at most once per interval however often the task reports progress. Messages and
+ * completion flush any pending work first, so the delegate always sees all the work done. Like
+ * {@link ChildProgressListener} this is not thread safe.
+ */
+public class MeteredProgressListener implements ProgressListener {
+
+  /** Default minimum time between work updates forwarded to the delegate. */
+  public static final long DEFAULT_INTERVAL_MILLIS = 100;
+
+  private final ProgressListener delegate;
+  private final long intervalNanos;
+  private final Ticker ticker;
+
+  private long totalWork = UNKNOWN;
+  private long workDone;
+  private long pendingWork;
+  private long startNanos;
+  private long lastFlushNanos;
+  private long doneNanos = -1;
+
+  /** Create a listener that forwards work updates at most every 100ms. */
+  public MeteredProgressListener(ProgressListener delegate) {
+    this(delegate, DEFAULT_INTERVAL_MILLIS);
+  }
+
+  /**
+   * Create a metered listener.
+   *
+   * @param delegate the listener to report to
+   * @param intervalMillis minimum time between work updates forwarded to the delegate
+   */
+  public MeteredProgressListener(ProgressListener delegate, long intervalMillis) {
+    this(delegate, intervalMillis, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  MeteredProgressListener(ProgressListener delegate, long intervalMillis, Ticker ticker) {
+    Preconditions.checkArgument(intervalMillis >= 0, "intervalMillis must not be negative");
+    this.delegate = delegate;
+    this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    this.ticker = ticker;
+  }
+
+  @Override
+  public void start(String message, long totalWork) {
+    this.totalWork = totalWork;
+    startNanos = ticker.read();
+    lastFlushNanos = startNanos;
+    delegate.start(message, totalWork);
+  }
+
+  @Override
+  public void update(long workDone) {
+    this.workDone += workDone;
+    pendingWork += workDone;
+    if (ticker.read() - lastFlushNanos >= intervalNanos) {
+      flush();
+    }
+  }
+
+  @Override
+  public void update(String message) {
+    flush();
+    delegate.update(message);
+  }
+
+  @Override
+  public void done() {
+    flush();
+    doneNanos = ticker.read();
+    delegate.done();
+  }
+
+  @Override
+  public ProgressListener newChild(long allocation) {
+    return new ChildProgressListener(this, allocation);
+  }
+
+  private void flush() {
+    lastFlushNanos = ticker.read();
+    if (pendingWork > 0) {
+      delegate.update(pendingWork);
+      pendingWork = 0;
+    }
+  }
+
+  /** Returns the total work of the task, or {@link #UNKNOWN}. */
+  public long getTotalWork() {
+    return totalWork;
+  }
+
+  /** Returns the work done so far, including work not yet forwarded to the delegate. */
+  public long getWorkDone() {
+    return workDone;
+  }
+
+  /** Returns the time since the task started, or its duration once it is done. */
+  public Duration getElapsed() {
+    long endNanos = doneNanos >= 0 ? doneNanos : ticker.read();
+    return Duration.ofNanos(endNanos - startNanos);
+  }
+
+  /** Returns the average amount of work done per second, {@code 0} before any time has passed. */
+  public double getRate() {
+    long elapsedNanos = getElapsed().toNanos();
+    if (elapsedNanos <= 0) {
+      return 0;
+    }
+    return workDone * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  /**
+   * Returns the estimated time until the task completes at the average rate so far, or null if the
+   * total work is unknown or no work has been done yet.
+   */
+  @Nullable
+  public Duration getEstimatedTimeRemaining() {
+    double rate = getRate();
+    if (totalWork == UNKNOWN || rate <= 0) {
+      return null;
+    }
+    long remainingWork = Math.max(0, totalWork - workDone);
+    return Duration.ofMillis((long) (remainingWork * 1000 / rate));
+  }
+}
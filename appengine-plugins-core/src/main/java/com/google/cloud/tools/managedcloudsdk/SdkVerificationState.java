@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk;
+
+import com.google.cloud.tools.managedcloudsdk.components.ComponentSnapshot;
+import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * The results of previous verifications of an installed SDK, persisted in the SDK home so that
+ * later builds can skip running gcloud. The state is only valid while the component snapshots in
+ * the SDK's {@code .install} directory are unchanged; any component install, removal or update
+ * changes their modification times and discards the state.
+ */
+final class SdkVerificationState {
+
+  @VisibleForTesting static final String STATE_FILE_NAME = ".managed-sdk-state.json";
+
+  private static final Logger logger = Logger.getLogger(SdkVerificationState.class.getName());
+  private static final Gson gson = new Gson();
+
+  private final Path stateFile;
+  private final long snapshotModified;
+  @Nullable private String verifiedVersion;
+  private final Set<String> components = new LinkedHashSet<>();
+  private long lastUpdateCheck;
+  private boolean upToDate;
+
+  private SdkVerificationState(Path stateFile, long snapshotModified) {
+    this.stateFile = stateFile;
+    this.snapshotModified = snapshotModified;
+  }
+
+  /**
+   * Load the verification state of an SDK. A missing, unreadable or outdated state file results in
+   * an empty state.
+   *
+   * @param sdkHome the home directory of an installed SDK
+   */
+  static SdkVerificationState load(Path sdkHome) {
+    Path stateFile = sdkHome.resolve(STATE_FILE_NAME);
+    long snapshotModified;
+    try {
+      snapshotModified = getSnapshotModified(sdkHome);
+    } catch (IOException ex) {
+      logger.log(Level.FINE, "Cannot read component snapshots of " + sdkHome, ex);
+      return new SdkVerificationState(stateFile, -1);
+    }
+
+    SdkVerificationState state = new SdkVerificationState(stateFile, snapshotModified);
+    StateJson json;
+    try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+      json = gson.fromJson(reader, StateJson.class);
+    } catch (NoSuchFileException ex) {
+      return state;
+    } catch (IOException | JsonParseException ex) {
+      logger.log(Level.FINE, "Ignoring unreadable sdk state " + stateFile, ex);
+      return state;
+    }
+    if (json != null && json.snapshotModified == snapshotModified) {
+      state.verifiedVersion = json.verifiedVersion;
+      if (json.components != null) {
+        state.components.addAll(json.components);
+      }
+      state.lastUpdateCheck = json.lastUpdateCheck;
+      state.upToDate = json.upToDate;
+    }
+    return state;
+  }
+
+  /** Returns the latest modification time of the installed component snapshots. */
+  @VisibleForTesting
+  static long getSnapshotModified(Path sdkHome) throws IOException {
+    Path installDirectory = ComponentSnapshot.getInstallStateDirectory(sdkHome);
+    long modified = Files.getLastModifiedTime(installDirectory).toMillis();
+    try (DirectoryStream<Path> snapshots =
+        Files.newDirectoryStream(installDirectory, "*.snapshot.json")) {
+      for (Path snapshot : snapshots) {
+        modified = Math.max(modified, Files.getLastModifiedTime(snapshot).toMillis());
+      }
+    }
+    return modified;
+  }
+
+  boolean isVersionVerified(String version) {
+    return version.equals(verifiedVersion);
+  }
+
+  void setVerifiedVersion(String version) {
+    verifiedVersion = version;
+  }
+
+  boolean hasComponent(SdkComponent component) {
+    return components.contains(component.toString());
+  }
+
+  void addComponent(SdkComponent component) {
+    components.add(component.toString());
+  }
+
+  /** Returns the time in millis of the last update check, or 0 if the SDK was never checked. */
+  long getLastUpdateCheck() {
+    return lastUpdateCheck;
+  }
+
+  /** Returns the result of the last update check. */
+  boolean wasUpToDate() {
+    return upToDate;
+  }
+
+  void setUpdateCheck(long checkTime, boolean upToDate) {
+    lastUpdateCheck = checkTime;
+    this.upToDate = upToDate;
+  }
+
+  /**
+   * Persist this state. The state is only an optimization, failures are logged and otherwise
+   * ignored.
+   */
+  void save() {
+    if (snapshotModified < 0) {
+      return;
+    }
+    StateJson json = new StateJson();
+    json.snapshotModified = snapshotModified;
+    json.verifiedVersion = verifiedVersion;
+    json.components = new ArrayList<>(components);
+    json.lastUpdateCheck = lastUpdateCheck;
+    json.upToDate = upToDate;
+
+    Path tempFile = null;
+    try {
+      tempFile = Files.createTempFile(stateFile.getParent(), STATE_FILE_NAME, ".tmp");
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        gson.toJson(json, writer);
+      }
+      Files.move(
+          tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      logger.log(Level.FINE, "Failed to save sdk state " + stateFile, ex);
+      try {
+        if (tempFile != null) {
+          Files.deleteIfExists(tempFile);
+        }
+      } catch (IOException ignored) {
+        // best effort
+      }
+    }
+  }
+
+  private static class StateJson {
+    private long snapshotModified;
+    @Nullable private String verifiedVersion;
+    @Nullable private List<String> components;
+    private long lastUpdateCheck;
+    private boolean upToDate;
+  }
+}
@@ -16,54 +16,52 @@
 
 package com.google.cloud.tools.managedcloudsdk.command;
 
+import com.google.cloud.tools.io.ProcessIoExecutor;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * AsyncWrapper to handle stream consumption on a separate thread. Do not re-use this on streams -
- * it can only handle one stream per instance.
+ * AsyncWrapper to handle stream consumption on a process I/O thread. Do not re-use this on streams
+ * - it can only handle one stream per instance.
  */
 class AsyncByteConsumer implements AsyncStreamSaver {
 
   private final ByteHandler byteHandler;
-  private final ListeningExecutorService executorService;
+  private final ProcessIoExecutor processIoExecutor;
   private final SettableFuture<String> result;
+  private final AtomicBoolean started = new AtomicBoolean();
   private static final int BUFFER_SIZE = 1024;
 
   /** Create a new instance. */
   AsyncByteConsumer(ByteHandler byteHandler) {
     this(
         Preconditions.checkNotNull(byteHandler),
-        MoreExecutors.listeningDecorator(Executors.newSingleThreadExecutor()),
+        ProcessIoExecutor.getInstance(),
         SettableFuture.<String>create());
   }
 
   @VisibleForTesting
   AsyncByteConsumer(
-      ByteHandler byteHandler,
-      ListeningExecutorService executorService,
-      SettableFuture<String> result) {
+      ByteHandler byteHandler, ProcessIoExecutor processIoExecutor, SettableFuture<String> result) {
     this.byteHandler = byteHandler;
-    this.executorService = executorService;
+    this.processIoExecutor = processIoExecutor;
     this.result = result;
   }
 
-  /** Handle an input stream on a separate thread. */
+  /** Handle an input stream on a process I/O thread. */
   @Override
   public void handleStream(final InputStream inputStream) {
-    if (executorService.isShutdown()) {
+    if (!started.compareAndSet(false, true)) {
       throw new IllegalStateException("Cannot reuse " + this.getClass().getName());
     }
-    ListenableFuture<String> submit = executorService.submit(() -> consumeBytes(inputStream));
+    ListenableFuture<String> submit =
+        processIoExecutor.submit("command-output", () -> consumeBytes(inputStream));
     result.setFuture(submit);
-    executorService.shutdown();
   }
 
   @VisibleForTesting
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.components;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * The component versions of a gcloud component snapshot. Snapshots are published by a component
+ * repository (or a mirror of one) as {@code components-2.json}, and an installed SDK records one
+ * snapshot per installed component in its {@code .install} directory, so both the installed and the
+ * available state can be read without running gcloud.
+ */
+public class ComponentSnapshot {
+
+  /** Name of the snapshot file published by a component repository. */
+  public static final String SNAPSHOT_FILE_NAME = "components-2.json";
+
+  private static final String INSTALLED_SNAPSHOT_SUFFIX = ".snapshot.json";
+  private static final Gson gson = new Gson();
+
+  private final ImmutableMap<String, Long> buildNumbers;
+
+  private ComponentSnapshot(Map<String, Long> buildNumbers) {
+    this.buildNumbers = ImmutableMap.copyOf(buildNumbers);
+  }
+
+  /**
+   * Read a single snapshot file.
+   *
+   * @param snapshotFile a {@code components-2.json} style snapshot
+   * @throws IOException if the file cannot be read or parsed
+   */
+  public static ComponentSnapshot fromFile(Path snapshotFile) throws IOException {
+    Map<String, Long> buildNumbers = new HashMap<>();
+    read(snapshotFile, buildNumbers);
+    return new ComponentSnapshot(buildNumbers);
+  }
+
+  /**
+   * Read the snapshot of all components installed in an SDK.
+   *
+   * @param sdkHome the home directory of an installed SDK
+   * @throws IOException if the installation state cannot be read or parsed
+   */
+  public static ComponentSnapshot fromInstalledSdk(Path sdkHome) throws IOException {
+    Map<String, Long> buildNumbers = new HashMap<>();
+    Path installDirectory = getInstallStateDirectory(sdkHome);
+    if (Files.isDirectory(installDirectory)) {
+      try (DirectoryStream<Path> snapshots =
+          Files.newDirectoryStream(installDirectory, "*" + INSTALLED_SNAPSHOT_SUFFIX)) {
+        for (Path snapshot : snapshots) {
+          read(snapshot, buildNumbers);
+        }
+      }
+    }
+    return new ComponentSnapshot(buildNumbers);
+  }
+
+  /** Returns the directory an installed SDK records its component state in. */
+  public static Path getInstallStateDirectory(Path sdkHome) {
+    return sdkHome.resolve(".install");
+  }
+
+  /** Returns the ids of all components in this snapshot. */
+  public Set<String> getComponentIds() {
+    return buildNumbers.keySet();
+  }
+
+  /** Returns true if this snapshot contains the component. */
+  public boolean hasComponent(SdkComponent component) {
+    return buildNumbers.containsKey(component.toString());
+  }
+
+  /**
+   * Returns the components of this snapshot whose version differs in a newer snapshot. Components
+   * missing from the newer snapshot are not considered changed.
+   */
+  public Set<String> getChangedComponents(ComponentSnapshot newer) {
+    ImmutableSet.Builder<String> changed = ImmutableSet.builder();
+    for (Map.Entry<String, Long> component : buildNumbers.entrySet()) {
+      Long newerBuildNumber = newer.buildNumbers.get(component.getKey());
+      if (newerBuildNumber != null && !Objects.equals(newerBuildNumber, component.getValue())) {
+        changed.add(component.getKey());
+      }
+    }
+    return changed.build();
+  }
+
+  private static void read(Path snapshotFile, Map<String, Long> buildNumbers) throws IOException {
+    SnapshotJson snapshot;
+    try (Reader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+      snapshot = gson.fromJson(reader, SnapshotJson.class);
+    } catch (JsonParseException ex) {
+      throw new IOException("Failed to parse component snapshot " + snapshotFile, ex);
+    }
+    if (snapshot == null || snapshot.components == null) {
+      throw new IOException("No components found in snapshot " + snapshotFile);
+    }
+    for (ComponentJson component : snapshot.components) {
+      if (component.id != null) {
+        long buildNumber =
+            component.version != null && component.version.buildNumber != null
+                ? component.version.buildNumber
+                : 0;
+        buildNumbers.put(component.id, buildNumber);
+      }
+    }
+  }
+
+  private static class SnapshotJson {
+    @Nullable private List<ComponentJson> components;
+  }
+
+  private static class ComponentJson {
+    @Nullable private String id;
+    @Nullable private VersionJson version;
+  }
+
+  private static class VersionJson {
+    @SerializedName("build_number")
+    @Nullable
+    private Long buildNumber;
+  }
+}
@@ -76,8 +76,34 @@ public class SdkComponentInstaller {
       ConsoleListener consoleListener)
       throws InterruptedException, CommandExitException, CommandExecutionException {
 
+    runComponentsCommand("install", "Installing ", components, progressListener, consoleListener);
+  }
+
+  /**
+   * Remove components, used to prune components that a minimal installation does not need.
+   *
+   * @param components list of components to remove
+   * @param progressListener listener to action progress feedback
+   * @param consoleListener listener to process console feedback
+   */
+  public void removeComponents(
+      List<SdkComponent> components,
+      ProgressListener progressListener,
+      ConsoleListener consoleListener)
+      throws InterruptedException, CommandExitException, CommandExecutionException {
+    runComponentsCommand("remove", "Removing ", components, progressListener, consoleListener);
+  }
+
+  private void runComponentsCommand(
+      String action,
+      String messagePrefix,
+      List<SdkComponent> components,
+      ProgressListener progressListener,
+      ConsoleListener consoleListener)
+      throws InterruptedException, CommandExitException, CommandExecutionException {
+
     String message =
-        "Installing "
+        messagePrefix
             + components.stream().map(SdkComponent::toString).collect(Collectors.joining(", "));
     progressListener.start(message, ProgressListener.UNKNOWN);
 
@@ -87,7 +113,7 @@ public class SdkComponentInstaller {
     }
 
     List<String> command = new ArrayList<>();
-    Collections.addAll(command, gcloudPath.toString(), "components", "install");
+    Collections.addAll(command, gcloudPath.toString(), "components", action);
     components.forEach(component -> command.add(component.toString()));
     command.add("--quiet");
 
@@ -24,25 +24,49 @@ import com.google.cloud.tools.managedcloudsdk.command.CommandExecutionException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
 import com.google.common.base.Preconditions;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
-/** Update an SDK. */
+/**
+ * Update an SDK. When configured with a mirror directory holding a component repository snapshot
+ * ({@code components-2.json} and the component archives it references), the installed component
+ * snapshot is compared with the mirror's first: gcloud is not run at all when nothing changed, and
+ * otherwise only fetches the changed components from the mirror.
+ */
 public class SdkUpdater {
 
+  private static final Logger logger = Logger.getLogger(SdkUpdater.class.getName());
+
+  /** Environment variable overriding the component repository gcloud updates from. */
+  static final String SNAPSHOT_URL_ENV = "CLOUDSDK_COMPONENT_MANAGER_SNAPSHOT_URL";
+
   private final Path gcloudPath;
   private final CommandRunner commandRunner;
   @Nullable private final BundledPythonCopier pythonCopier;
+  @Nullable private final Path mirrorDirectory;
 
   SdkUpdater(
       Path gcloudPath, CommandRunner commandRunner, @Nullable BundledPythonCopier pythonCopier) {
+    this(gcloudPath, commandRunner, pythonCopier, null);
+  }
+
+  SdkUpdater(
+      Path gcloudPath,
+      CommandRunner commandRunner,
+      @Nullable BundledPythonCopier pythonCopier,
+      @Nullable Path mirrorDirectory) {
     Preconditions.checkArgument(gcloudPath.isAbsolute());
     this.gcloudPath = gcloudPath;
     this.commandRunner = commandRunner;
     this.pythonCopier = pythonCopier;
+    this.mirrorDirectory = mirrorDirectory;
   }
 
   /**
@@ -56,8 +80,33 @@ public class SdkUpdater {
     progressListener.start("Updating Cloud SDK", ProgressListener.UNKNOWN);
 
     Map<String, String> environment = null;
+    if (mirrorDirectory != null) {
+      Path mirrorSnapshot = mirrorDirectory.resolve(ComponentSnapshot.SNAPSHOT_FILE_NAME);
+      Set<String> changedComponents;
+      try {
+        changedComponents =
+            ComponentSnapshot.fromInstalledSdk(getSdkHome(gcloudPath))
+                .getChangedComponents(ComponentSnapshot.fromFile(mirrorSnapshot));
+      } catch (IOException ex) {
+        throw new CommandExecutionException("Failed to compare component snapshots", ex);
+      }
+      if (changedComponents.isEmpty()) {
+        logger.info("Cloud SDK components match " + mirrorSnapshot + ", nothing to update");
+        progressListener.done();
+        return;
+      }
+      logger.info("Updating changed components: " + String.join(", ", changedComponents));
+      environment = new HashMap<>();
+      environment.put(SNAPSHOT_URL_ENV, mirrorSnapshot.toUri().toString());
+    }
+
     if (pythonCopier != null) {
-      environment = pythonCopier.copyPython();
+      Map<String, String> pythonEnvironment = pythonCopier.copyPython();
+      if (environment == null) {
+        environment = pythonEnvironment;
+      } else {
+        environment.putAll(pythonEnvironment);
+      }
     }
 
     Path workingDirectory = gcloudPath.getRoot();
@@ -66,6 +115,12 @@ public class SdkUpdater {
     progressListener.done();
   }
 
+  /** Returns the SDK home of a gcloud executable in {@code <sdk home>/bin}. */
+  static Path getSdkHome(Path gcloudPath) {
+    return Preconditions.checkNotNull(
+        Preconditions.checkNotNull(gcloudPath.getParent()).getParent());
+  }
+
   /**
    * Configure and create a new Updater instance.
    *
@@ -73,14 +128,28 @@ public class SdkUpdater {
    * @return a new configured Cloud SDK updater
    */
   public static SdkUpdater newUpdater(OsInfo.Name osName, Path gcloudPath) {
+    return newUpdater(osName, gcloudPath, null);
+  }
+
+  /**
+   * Configure and create a new Updater instance that updates from a local component mirror.
+   *
+   * @param gcloudPath path to gcloud in the Cloud SDK
+   * @param mirrorDirectory directory containing a {@code components-2.json} snapshot and the
+   *     component archives it references, or {@code null} to update from the default repository
+   * @return a new configured Cloud SDK updater
+   */
+  public static SdkUpdater newUpdater(
+      OsInfo.Name osName, Path gcloudPath, @Nullable Path mirrorDirectory) {
     switch (osName) {
       case WINDOWS:
         return new SdkUpdater(
             gcloudPath,
             CommandRunner.newRunner(),
-            new WindowsBundledPythonCopier(gcloudPath, CommandCaller.newCaller()));
+            new WindowsBundledPythonCopier(gcloudPath, CommandCaller.newCaller()),
+            mirrorDirectory);
       default:
-        return new SdkUpdater(gcloudPath, CommandRunner.newRunner(), null);
+        return new SdkUpdater(gcloudPath, CommandRunner.newRunner(), null, mirrorDirectory);
     }
   }
 }
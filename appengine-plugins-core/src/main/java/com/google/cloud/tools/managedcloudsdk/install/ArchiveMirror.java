@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.cloud.tools.managedcloudsdk.OsInfo;
+import com.google.cloud.tools.managedcloudsdk.Version;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * A mirror of Cloud SDK archives, for air-gapped or bandwidth constrained environments. A mirror is
+ * a directory (local, on a network share, or served over http) containing the archives and an
+ * {@code index.json} file that lists them:
+ *
+ * <pre>{@code
+ * {"archives": [
+ *   {"version": "447.0.0", "os": "linux", "arch": "x86_64",
+ *    "file": "google-cloud-sdk-447.0.0-linux-x86_64.tar.gz", "sha256": "..."},
+ *   {"version": "LATEST", "os": "windows", "arch": "x86_64",
+ *    "file": "google-cloud-sdk-windows-x86_64-bundled-python.zip"}
+ * ]}
+ * }</pre>
+ *
+ * <p>{@code os} is one of {@link OsInfo.Name}, {@code arch} one of {@link OsInfo.Architecture}
+ * (case insensitive), {@code file} is relative to the mirror and {@code sha256} is optional.
+ */
+final class ArchiveMirror {
+
+  static final String INDEX_FILE_NAME = "index.json";
+
+  private static final Gson gson = new Gson();
+
+  private final URI mirror;
+  private final int connectTimeoutMillis;
+  private final int readTimeoutMillis;
+
+  /**
+   * Creates a new mirror, read with the same timeouts as {@link Downloader}.
+   *
+   * @param mirror the mirror directory, as a {@code file:} or {@code http(s):} URI
+   */
+  ArchiveMirror(URI mirror) {
+    this(mirror, Downloader.DEFAULT_CONNECT_TIMEOUT_MILLIS, Downloader.DEFAULT_READ_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * Creates a new mirror.
+   *
+   * @param mirror the mirror directory, as a {@code file:} or {@code http(s):} URI
+   * @param connectTimeoutMillis timeout for establishing a connection, {@code 0} waits forever
+   * @param readTimeoutMillis timeout for each read from an established connection, {@code 0} waits
+   *     forever
+   */
+  ArchiveMirror(URI mirror, int connectTimeoutMillis, int readTimeoutMillis) {
+    this.mirror = mirror.toString().endsWith("/") ? mirror : URI.create(mirror + "/");
+    this.connectTimeoutMillis = connectTimeoutMillis;
+    this.readTimeoutMillis = readTimeoutMillis;
+  }
+
+  /**
+   * Looks up the archive of a Cloud SDK version in the mirror index.
+   *
+   * @throws IOException if the index cannot be read or does not list a matching archive
+   */
+  MirroredArchive find(Version version, OsInfo osInfo) throws IOException {
+    URI index = mirror.resolve(INDEX_FILE_NAME);
+    URLConnection connection = index.toURL().openConnection();
+    connection.setConnectTimeout(connectTimeoutMillis);
+    connection.setReadTimeout(readTimeoutMillis);
+    IndexJson indexJson;
+    try (Reader reader =
+        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+      indexJson = gson.fromJson(reader, IndexJson.class);
+    } catch (JsonParseException ex) {
+      throw new IOException("Failed to parse mirror index " + index, ex);
+    }
+
+    if (indexJson != null && indexJson.archives != null) {
+      for (ArchiveJson archive : indexJson.archives) {
+        if (version.getVersion().equals(archive.version)
+            && osInfo.name().name().equalsIgnoreCase(archive.os)
+            && osInfo.arch().name().equalsIgnoreCase(archive.arch)
+            && archive.file != null) {
+          return new MirroredArchive(mirror.resolve(archive.file).toURL(), archive.sha256);
+        }
+      }
+    }
+    throw new IOException(
+        String.format(
+            Locale.ENGLISH,
+            "No Cloud SDK %s archive for %s/%s in %s",
+            version.getVersion(),
+            osInfo.name(),
+            osInfo.arch(),
+            index));
+  }
+
+  /** An archive listed in the mirror index. */
+  static final class MirroredArchive {
+    private final URL url;
+    @Nullable private final String sha256;
+
+    MirroredArchive(URL url, @Nullable String sha256) {
+      this.url = url;
+      this.sha256 = sha256;
+    }
+
+    URL getUrl() {
+      return url;
+    }
+
+    /** Returns the name of the archive file. */
+    String getFileName() {
+      String path = url.getPath();
+      return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    @Nullable
+    String getSha256() {
+      return sha256;
+    }
+  }
+
+  private static class IndexJson {
+    @Nullable private List<ArchiveJson> archives;
+  }
+
+  private static class ArchiveJson {
+    @Nullable private String version;
+    @Nullable private String os;
+    @Nullable private String arch;
+    @Nullable private String file;
+    @Nullable private String sha256;
+  }
+}
@@ -16,10 +16,17 @@
 
 package com.google.cloud.tools.managedcloudsdk.install;
 
+import com.google.cloud.tools.managedcloudsdk.MeteredProgressListener;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
-import java.io.BufferedOutputStream;
+import com.google.common.base.Preconditions;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.file.FileAlreadyExistsException;
@@ -29,24 +36,68 @@ import java.nio.file.StandardOpenOption;
 import java.util.Locale;
 import java.util.logging.Logger;
 
-/** Downloader for downloading a single Cloud SDK archive. */
+/**
+ * Downloader for downloading a single Cloud SDK archive. Connections time out instead of hanging on
+ * a stalled server, and transient failures (timeouts, resets, truncated bodies, HTTP 429 and 5xx)
+ * are retried with exponential backoff, resuming from the bytes already on disk when the server
+ * supports range requests.
+ */
 final class Downloader {
 
   private static final Logger logger = Logger.getLogger(Downloader.class.getName());
 
-  static final int BUFFER_SIZE = 8 * 1024;
+  static final int BUFFER_SIZE = 64 * 1024;
+  static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 30_000;
+  static final int DEFAULT_READ_TIMEOUT_MILLIS = 60_000;
+  static final int DEFAULT_MAX_ATTEMPTS = 4;
+  static final long DEFAULT_RETRY_BACKOFF_MILLIS = 1_000;
+
   private final URL address;
   private final Path destinationFile;
   private final String userAgentString;
-  private final ProgressListener progressListener;
+  private final MeteredProgressListener progressListener;
+  private final int connectTimeoutMillis;
+  private final int readTimeoutMillis;
+  private final int maxAttempts;
+  private final long retryBackoffMillis;
+
+  private boolean progressStarted;
+  private long reportedBytes;
 
   /** Use {@link DownloaderFactory} to instantiate. */
   Downloader(
       URL source, Path destinationFile, String userAgentString, ProgressListener progressListener) {
+    this(
+        source,
+        destinationFile,
+        userAgentString,
+        progressListener,
+        DEFAULT_CONNECT_TIMEOUT_MILLIS,
+        DEFAULT_READ_TIMEOUT_MILLIS,
+        DEFAULT_MAX_ATTEMPTS,
+        DEFAULT_RETRY_BACKOFF_MILLIS);
+  }
+
+  /** Use {@link DownloaderFactory} to instantiate. */
+  Downloader(
+      URL source,
+      Path destinationFile,
+      String userAgentString,
+      ProgressListener progressListener,
+      int connectTimeoutMillis,
+      int readTimeoutMillis,
+      int maxAttempts,
+      long retryBackoffMillis) {
+    Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be positive");
     this.address = source;
     this.destinationFile = destinationFile;
     this.userAgentString = userAgentString;
-    this.progressListener = progressListener;
+    // coalesces the per-buffer updates of the copy loop
+    this.progressListener = new MeteredProgressListener(progressListener);
+    this.connectTimeoutMillis = connectTimeoutMillis;
+    this.readTimeoutMillis = readTimeoutMillis;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoffMillis = retryBackoffMillis;
   }
 
   /** Download an archive, this will NOT overwrite a previously existing file. */
@@ -58,21 +109,85 @@ final class Downloader {
     if (Files.exists(destinationFile)) {
       throw new FileAlreadyExistsException(destinationFile.toString());
     }
+
+    logger.info("Downloading " + address + " to " + destinationFile);
+    for (int attempt = 1; ; attempt++) {
+      try {
+        transfer();
+        break;
+      } catch (IOException ex) {
+        if (attempt >= maxAttempts || !isTransient(ex)) {
+          cleanUp();
+          throw ex;
+        }
+        long backoffMillis = retryBackoffMillis << (attempt - 1);
+        logger.warning(
+            "Download of " + address + " failed (" + ex + "), retrying in " + backoffMillis + "ms");
+        try {
+          Thread.sleep(backoffMillis);
+        } catch (InterruptedException interrupted) {
+          cleanUp();
+          throw interrupted;
+        }
+      }
+    }
+    progressListener.done();
+    logger.info(
+        String.format(
+            Locale.ROOT,
+            "Downloaded %,.2f MB in %.1fs (%,.2f MB/s)",
+            progressListener.getWorkDone() / 1024.0 / 1024.0,
+            progressListener.getElapsed().toMillis() / 1000.0,
+            progressListener.getRate() / 1024.0 / 1024.0));
+  }
+
+  /** Transfers the archive, continuing after the bytes already downloaded if possible. */
+  private void transfer() throws IOException, InterruptedException {
+    long offset = Files.exists(destinationFile) ? Files.size(destinationFile) : 0;
+
     URLConnection connection = address.openConnection();
     connection.setRequestProperty("User-Agent", userAgentString);
+    connection.setConnectTimeout(connectTimeoutMillis);
+    connection.setReadTimeout(readTimeoutMillis);
+    if (offset > 0) {
+      connection.setRequestProperty("Range", "bytes=" + offset + "-");
+    }
+
+    boolean resumed = false;
+    if (connection instanceof HttpURLConnection) {
+      int responseCode = ((HttpURLConnection) connection).getResponseCode();
+      if (responseCode == 429 || responseCode >= 500) {
+        throw new TransientDownloadException(
+            "Server returned HTTP " + responseCode + " for " + address);
+      }
+      if (responseCode >= 400) {
+        throw new IOException("Server returned HTTP " + responseCode + " for " + address);
+      }
+      resumed = offset > 0 && responseCode == HttpURLConnection.HTTP_PARTIAL;
+    }
+    if (!resumed) {
+      offset = 0;
+    }
 
     try (InputStream in = connection.getInputStream()) {
       // note : contentLength can potentially be -1 if it is unknown.
       long contentLength = connection.getContentLengthLong();
+      long totalLength = contentLength < 0 ? contentLength : offset + contentLength;
 
-      logger.info("Downloading " + address + " to " + destinationFile);
-
-      try (BufferedOutputStream out =
-          new BufferedOutputStream(
-              Files.newOutputStream(destinationFile, StandardOpenOption.CREATE_NEW))) {
+      if (!progressStarted) {
+        progressListener.start(getDownloadStatus(totalLength, Locale.getDefault()), totalLength);
+        progressStarted = true;
+      }
 
-        progressListener.start(
-            getDownloadStatus(contentLength, Locale.getDefault()), contentLength);
+      long position = offset;
+      try (OutputStream out =
+          resumed
+              ? Files.newOutputStream(destinationFile, StandardOpenOption.APPEND)
+              : Files.newOutputStream(
+                  destinationFile,
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.TRUNCATE_EXISTING,
+                  StandardOpenOption.WRITE)) {
 
         int bytesRead;
         byte[] buffer = new byte[BUFFER_SIZE];
@@ -80,16 +195,40 @@ final class Downloader {
         while ((bytesRead = in.read(buffer)) != -1) {
           if (Thread.currentThread().isInterrupted()) {
             logger.warning("Download was interrupted\n");
+            out.close();
             cleanUp();
             throw new InterruptedException("Download was interrupted");
           }
 
           out.write(buffer, 0, bytesRead);
-          progressListener.update(bytesRead);
+          position += bytesRead;
+          // a restarted transfer only reports progress past what was already reported
+          if (position > reportedBytes) {
+            progressListener.update(position - reportedBytes);
+            reportedBytes = position;
+          }
         }
       }
+
+      if (totalLength >= 0 && position < totalLength) {
+        throw new TransientDownloadException(
+            "Download of "
+                + address
+                + " ended after "
+                + position
+                + " of "
+                + totalLength
+                + " bytes");
+      }
     }
-    progressListener.done();
+  }
+
+  private static boolean isTransient(IOException ex) {
+    return ex instanceof TransientDownloadException
+        || ex instanceof SocketTimeoutException
+        || ex instanceof ConnectException
+        || ex instanceof SocketException
+        || ex instanceof EOFException;
   }
 
   private void cleanUp() throws IOException {
@@ -99,4 +238,11 @@ final class Downloader {
   static String getDownloadStatus(long bytes, Locale locale) {
     return String.format(locale, "Downloading %,.2f MB", bytes / 1024.0f / 1024.0f);
   }
+
+  /** A failure that is likely to succeed when retried. */
+  private static class TransientDownloadException extends IOException {
+    TransientDownloadException(String message) {
+      super(message);
+    }
+  }
 }
@@ -24,6 +24,10 @@ import java.nio.file.Path;
 final class DownloaderFactory {
 
   private final String userAgentString;
+  private final int connectTimeoutMillis;
+  private final int readTimeoutMillis;
+  private final int maxAttempts;
+  private final long retryBackoffMillis;
 
   /**
    * Creates a new factory.
@@ -32,7 +36,35 @@ final class DownloaderFactory {
    *     "Cloud Tools for Eclipse" or "com.google.cloud.tools.appengine-maven-plguin".
    */
   public DownloaderFactory(String userAgentString) {
+    this(
+        userAgentString,
+        Downloader.DEFAULT_CONNECT_TIMEOUT_MILLIS,
+        Downloader.DEFAULT_READ_TIMEOUT_MILLIS,
+        Downloader.DEFAULT_MAX_ATTEMPTS,
+        Downloader.DEFAULT_RETRY_BACKOFF_MILLIS);
+  }
+
+  /**
+   * Creates a new factory.
+   *
+   * @param userAgentString for server side tracking of clients downloading the sdk
+   * @param connectTimeoutMillis timeout for establishing a connection, {@code 0} waits forever
+   * @param readTimeoutMillis timeout for each read from an established connection, {@code 0} waits
+   *     forever
+   * @param maxAttempts number of attempts made before a transient failure is reported
+   * @param retryBackoffMillis delay before the first retry, doubled for every further retry
+   */
+  DownloaderFactory(
+      String userAgentString,
+      int connectTimeoutMillis,
+      int readTimeoutMillis,
+      int maxAttempts,
+      long retryBackoffMillis) {
     this.userAgentString = userAgentString;
+    this.connectTimeoutMillis = connectTimeoutMillis;
+    this.readTimeoutMillis = readTimeoutMillis;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoffMillis = retryBackoffMillis;
   }
 
   /**
@@ -44,6 +76,14 @@ final class DownloaderFactory {
    * @return a {@link Downloader} instance
    */
   public Downloader newDownloader(URL source, Path destination, ProgressListener progressListener) {
-    return new Downloader(source, destination, userAgentString, progressListener);
+    return new Downloader(
+        source,
+        destination,
+        userAgentString,
+        progressListener,
+        connectTimeoutMillis,
+        readTimeoutMillis,
+        maxAttempts,
+        retryBackoffMillis);
   }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The destination directory of a single archive extraction. Validates entry names against the
+ * destination without touching the file system, and remembers which directories have already been
+ * created so that each one is only created once. Safe for use from multiple threads.
+ */
+final class ExtractionDestination {
+
+  private final Path root;
+  private final boolean posixPermissions;
+  private final Predicate<String> entryFilter;
+  private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+
+  ExtractionDestination(Path destination) {
+    this(destination, entryName -> true);
+  }
+
+  /**
+   * Creates a destination that only accepts some of the entries of an archive.
+   *
+   * @param destination the destination directory
+   * @param entryFilter returns true for the names of archive entries that should be extracted
+   */
+  ExtractionDestination(Path destination, Predicate<String> entryFilter) {
+    root = destination.toAbsolutePath().normalize();
+    posixPermissions = root.getFileSystem().supportedFileAttributeViews().contains("posix");
+    this.entryFilter = entryFilter;
+  }
+
+  /** Returns true if an archive entry should not be extracted. */
+  boolean isExcluded(String entryName) {
+    return !entryFilter.test(entryName);
+  }
+
+  /**
+   * Resolves an archive entry against the destination.
+   *
+   * @param entryName the name of the entry in the archive
+   * @return the normalized path the entry should be extracted to
+   * @throws IOException if the entry would be extracted outside of the destination
+   */
+  Path resolve(String entryName) throws IOException {
+    Path target = root.resolve(entryName).normalize();
+    if (target.equals(root) || !target.startsWith(root)) {
+      throw new IOException("Blocked unzipping files outside destination: " + entryName);
+    }
+    return target;
+  }
+
+  /** Creates a directory and its parents, unless this destination has already created it. */
+  void createDirectories(Path directory) throws IOException {
+    if (createdDirectories.contains(directory)) {
+      return;
+    }
+    Files.createDirectories(directory);
+    Path created = directory;
+    while (created != null && createdDirectories.add(created)) {
+      created = created.getParent();
+    }
+  }
+
+  /** Creates the parent directories of a resolved entry. */
+  void createParentDirectories(Path entryTarget) throws IOException {
+    Path parent = entryTarget.getParent();
+    if (parent != null) {
+      createDirectories(parent);
+    }
+  }
+
+  /** Applies a unix mode to an extracted file, this is a no-op on non posix file systems. */
+  void setPermissions(Path file, int mode) throws IOException {
+    if (posixPermissions) {
+      Files.setPosixFilePermissions(file, PosixUtil.getPosixFilePermissions(mode));
+    }
+  }
+}
@@ -23,6 +23,7 @@ import com.google.common.io.RecursiveDeleteOption;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * Extractor for extracting files from a single archive. Use {@link ExtractorProvider} to provide
@@ -36,6 +37,7 @@ final class Extractor {
   private final Path destination;
   private final ExtractorProvider extractorProvider;
   private final ProgressListener progressListener;
+  @Nullable private final Trash trash;
 
   /** Use {@link ExtractorFactory} to instantiate. */
   Extractor(
@@ -43,10 +45,25 @@ final class Extractor {
       Path destination,
       ExtractorProvider extractorProvider,
       ProgressListener progressListener) {
+    this(archive, destination, extractorProvider, progressListener, null);
+  }
+
+  /**
+   * Use {@link ExtractorFactory} to instantiate.
+   *
+   * @param trash disposes of the destination if extraction fails, null to delete it in place
+   */
+  Extractor(
+      Path archive,
+      Path destination,
+      ExtractorProvider extractorProvider,
+      ProgressListener progressListener,
+      @Nullable Trash trash) {
     this.archive = archive;
     this.destination = destination;
     this.extractorProvider = extractorProvider;
     this.progressListener = progressListener;
+    this.trash = trash;
   }
 
   /** Extract an archive. */
@@ -79,6 +96,10 @@ final class Extractor {
   }
 
   private void cleanUp(final Path target) throws IOException {
-    MoreFiles.deleteRecursively(target, RecursiveDeleteOption.ALLOW_INSECURE);
+    if (trash != null) {
+      trash.dispose(target);
+    } else {
+      MoreFiles.deleteRecursively(target, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
   }
 }
@@ -18,10 +18,45 @@ package com.google.cloud.tools.managedcloudsdk.install;
 
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import java.nio.file.Path;
+import java.util.function.Predicate;
 
 /** {@link Extractor} Factory. */
 final class ExtractorFactory {
 
+  /** Default number of entries inflated concurrently by extractors that support it. */
+  static final int DEFAULT_PARALLELISM =
+      Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+  private final int parallelism;
+  private final Predicate<String> entryFilter;
+
+  /** Creates a new factory with {@link #DEFAULT_PARALLELISM}. */
+  ExtractorFactory() {
+    this(DEFAULT_PARALLELISM);
+  }
+
+  /**
+   * Creates a new factory.
+   *
+   * @param parallelism maximum number of entries extracted concurrently, {@code 1} to extract
+   *     sequentially
+   */
+  ExtractorFactory(int parallelism) {
+    this(parallelism, entryName -> true);
+  }
+
+  /**
+   * Creates a new factory for extractors that skip some archive entries.
+   *
+   * @param parallelism maximum number of entries extracted concurrently, {@code 1} to extract
+   *     sequentially
+   * @param entryFilter returns true for the names of archive entries that should be extracted
+   */
+  ExtractorFactory(int parallelism, Predicate<String> entryFilter) {
+    this.parallelism = parallelism;
+    this.entryFilter = entryFilter;
+  }
+
   /**
    * Creates a new extractor based on filetype. Filetype determination is based on the filename
    * string, this method makes no attempt to validate the file contents to verify they are the type
@@ -37,11 +72,23 @@ final class ExtractorFactory {
   public Extractor newExtractor(Path archive, Path destination, ProgressListener progressListener)
       throws UnknownArchiveTypeException {
 
+    // a failed extraction is disposed of next to the destination, on the same file system
+    Trash trash = new Trash(destination.resolveSibling(Trash.DIRECTORY_NAME));
     if (archive.toString().toLowerCase().endsWith(".tar.gz")) {
-      return new Extractor(archive, destination, new TarGzExtractorProvider(), progressListener);
+      return new Extractor(
+          archive,
+          destination,
+          new TarGzExtractorProvider(parallelism, entryFilter),
+          progressListener,
+          trash);
     }
     if (archive.toString().toLowerCase().endsWith(".zip")) {
-      return new Extractor(archive, destination, new ZipExtractorProvider(), progressListener);
+      return new Extractor(
+          archive,
+          destination,
+          new ZipExtractorProvider(parallelism, entryFilter),
+          progressListener,
+          trash);
     }
     throw new UnknownArchiveTypeException(archive);
   }
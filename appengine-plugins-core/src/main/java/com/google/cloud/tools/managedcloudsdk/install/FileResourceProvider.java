@@ -18,6 +18,7 @@ package com.google.cloud.tools.managedcloudsdk.install;
 
 import java.net.URL;
 import java.nio.file.Path;
+import javax.annotation.Nullable;
 
 /** Provider for all file information for an installation. */
 class FileResourceProvider {
@@ -26,6 +27,7 @@ class FileResourceProvider {
   private final Path archiveDestination;
   private final Path archiveExtractionDestination;
   private final String gcloudExecutableName;
+  @Nullable private final String archiveSha256;
 
   /** Instantiated by {@link FileResourceProviderFactory}. */
   FileResourceProvider(
@@ -33,16 +35,38 @@ class FileResourceProvider {
       Path archiveDestination,
       Path archiveExtractionDestination,
       String gcloudExecutableName) {
+    this(
+        archiveSource,
+        archiveDestination,
+        archiveExtractionDestination,
+        gcloudExecutableName,
+        null);
+  }
+
+  /** Instantiated by {@link FileResourceProviderFactory}. */
+  FileResourceProvider(
+      URL archiveSource,
+      Path archiveDestination,
+      Path archiveExtractionDestination,
+      String gcloudExecutableName,
+      @Nullable String archiveSha256) {
     this.archiveSource = archiveSource;
     this.archiveDestination = archiveDestination;
     this.archiveExtractionDestination = archiveExtractionDestination;
     this.gcloudExecutableName = gcloudExecutableName;
+    this.archiveSha256 = archiveSha256;
   }
 
   public URL getArchiveSource() {
     return archiveSource;
   }
 
+  /** Returns the expected SHA-256 of the archive, or {@code null} if it is not known. */
+  @Nullable
+  public String getArchiveSha256() {
+    return archiveSha256;
+  }
+
   public Path getArchiveDestination() {
     return archiveDestination;
   }
@@ -58,4 +82,34 @@ class FileResourceProvider {
   public Path getExtractedGcloud() {
     return getExtractedSdkHome().resolve("bin").resolve(gcloudExecutableName);
   }
+
+  /**
+   * Returns the sibling directory an installation is assembled in before it is moved to {@link
+   * #getArchiveExtractionDestination()}.
+   */
+  public Path getArchiveStagingDestination() {
+    return archiveExtractionDestination.resolveSibling(
+        archiveExtractionDestination.getFileName() + ".staging");
+  }
+
+  public Path getStagedSdkHome() {
+    return getArchiveStagingDestination().resolve("google-cloud-sdk");
+  }
+
+  public Path getStagedGcloud() {
+    return getStagedSdkHome().resolve("bin").resolve(gcloudExecutableName);
+  }
+
+  /** Returns the directory stale installations are moved to before they are deleted. */
+  public Path getTrashDirectory() {
+    return archiveExtractionDestination.resolveSibling(Trash.DIRECTORY_NAME);
+  }
+
+  /**
+   * Returns the lock file guarding installation into {@link #getArchiveExtractionDestination()}.
+   */
+  public Path getInstallLock() {
+    return archiveExtractionDestination.resolveSibling(
+        archiveExtractionDestination.getFileName() + ".lock");
+  }
 }
@@ -20,9 +20,10 @@ import static com.google.cloud.tools.managedcloudsdk.OsInfo.Architecture.X86_64;
 
 import com.google.cloud.tools.managedcloudsdk.OsInfo;
 import com.google.cloud.tools.managedcloudsdk.Version;
-import java.net.MalformedURLException;
+import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Path;
+import javax.annotation.Nullable;
 
 /** Factory for {@link FileResourceProvider}. * */
 class FileResourceProviderFactory {
@@ -33,6 +34,7 @@ class FileResourceProviderFactory {
   private final Version version;
   private final OsInfo os;
   private final Path managedSdkDirectory;
+  @Nullable private final ArchiveMirror archiveMirror;
 
   /**
    * Create a new factory.
@@ -42,13 +44,39 @@ class FileResourceProviderFactory {
    * @param managedSdkDirectory the managed sdk base directory
    */
   public FileResourceProviderFactory(Version version, OsInfo osInfo, Path managedSdkDirectory) {
+    this(version, osInfo, managedSdkDirectory, null);
+  }
+
+  /**
+   * Create a new factory.
+   *
+   * @param version cloud SDK version
+   * @param osInfo the target operating system information
+   * @param managedSdkDirectory the managed sdk base directory
+   * @param archiveMirror a mirror to obtain archives from instead of the default download locations
+   */
+  public FileResourceProviderFactory(
+      Version version,
+      OsInfo osInfo,
+      Path managedSdkDirectory,
+      @Nullable ArchiveMirror archiveMirror) {
     this.version = version;
     os = osInfo;
     this.managedSdkDirectory = managedSdkDirectory;
+    this.archiveMirror = archiveMirror;
   }
 
-  public FileResourceProvider newFileResourceProvider() throws MalformedURLException {
+  public FileResourceProvider newFileResourceProvider() throws IOException {
     Path downloads = managedSdkDirectory.resolve("downloads");
+    if (archiveMirror != null) {
+      ArchiveMirror.MirroredArchive archive = archiveMirror.find(version, os);
+      return new FileResourceProvider(
+          archive.getUrl(),
+          downloads.resolve(archive.getFileName()),
+          managedSdkDirectory.resolve(version.getVersion()),
+          getGcloudExecutableName(),
+          archive.getSha256());
+    }
     if (version.equals(Version.LATEST)) {
       return new FileResourceProvider(
           new URL(LATEST_BASE_URL + getLatestFilename()),
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * An exclusive lock on a managed Cloud SDK installation. The lock is held against other threads of
+ * this JVM (file locks are held on behalf of the whole JVM) and against other processes, through a
+ * {@link FileLock} on a lock file next to the installation.
+ */
+final class InstallLock implements Closeable {
+
+  private static final Logger logger = Logger.getLogger(InstallLock.class.getName());
+
+  private static final ConcurrentMap<Path, ReentrantLock> threadLocks = new ConcurrentHashMap<>();
+
+  private final ReentrantLock threadLock;
+  private final FileChannel channel;
+  private final FileLock fileLock;
+  private final boolean contended;
+
+  private InstallLock(
+      ReentrantLock threadLock, FileChannel channel, FileLock fileLock, boolean contended) {
+    this.threadLock = threadLock;
+    this.channel = channel;
+    this.fileLock = fileLock;
+    this.contended = contended;
+  }
+
+  /**
+   * Acquires the lock, blocking until any other thread or process holding it releases it.
+   *
+   * @param lockFile the lock file, created if it does not exist
+   * @return the acquired lock, release it with {@link #close()}
+   */
+  static InstallLock acquire(Path lockFile) throws IOException, InterruptedException {
+    Path key = lockFile.toAbsolutePath().normalize();
+    ReentrantLock threadLock = threadLocks.computeIfAbsent(key, ignored -> new ReentrantLock());
+    boolean contended = !threadLock.tryLock();
+    if (contended) {
+      logger.info("Waiting for another thread to release " + key);
+      threadLock.lockInterruptibly();
+    }
+
+    FileChannel channel = null;
+    try {
+      Path parent = key.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      channel = FileChannel.open(key, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      FileLock fileLock = channel.tryLock();
+      if (fileLock == null) {
+        contended = true;
+        logger.info("Waiting for another process to release " + key);
+        fileLock = channel.lock();
+      }
+      return new InstallLock(threadLock, channel, fileLock, contended);
+    } catch (IOException | RuntimeException ex) {
+      try {
+        closeQuietly(channel);
+      } finally {
+        threadLock.unlock();
+      }
+      throw ex;
+    }
+  }
+
+  /** Returns true if another thread or process held the lock when it was requested. */
+  boolean wasContended() {
+    return contended;
+  }
+
+  @VisibleForTesting
+  static boolean hasQueuedThreads(Path lockFile) {
+    ReentrantLock threadLock = threadLocks.get(lockFile.toAbsolutePath().normalize());
+    return threadLock != null && threadLock.hasQueuedThreads();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      try {
+        fileLock.release();
+      } finally {
+        channel.close();
+      }
+    } finally {
+      threadLock.unlock();
+    }
+  }
+
+  private static void closeQuietly(@Nullable FileChannel channel) {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException ex) {
+        logger.warning("Failed to close lock file: " + ex.getMessage());
+      }
+    }
+  }
+}
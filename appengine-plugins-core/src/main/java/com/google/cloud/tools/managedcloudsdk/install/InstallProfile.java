@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Describes how much of the Cloud SDK a managed installation needs. A profile selects the
+ * components the install script installs, the parts of the archive that are not extracted at all
+ * and the bundled components that are removed once the SDK is installed.
+ */
+public final class InstallProfile {
+
+  /** The complete Cloud SDK, as installed by default. */
+  public static final InstallProfile FULL = builder().build();
+
+  /** Just enough of the Cloud SDK to build, run and deploy App Engine Java applications. */
+  public static final InstallProfile APP_ENGINE_JAVA =
+      builder()
+          .components(ImmutableSet.of(SdkComponent.APP_ENGINE_JAVA.toString()))
+          .prunedComponents(Arrays.asList(SdkComponent.BQ, SdkComponent.GSUTIL))
+          .excludedPaths(ImmutableSet.of("help", "rpm", "deb", "RELEASE_NOTES"))
+          .build();
+
+  @Nullable private final Set<String> components;
+  private final List<SdkComponent> prunedComponents;
+  private final Set<String> excludedPaths;
+  private final boolean precompilePython;
+  private final boolean nativeInstall;
+
+  private InstallProfile(
+      @Nullable Set<String> components,
+      List<SdkComponent> prunedComponents,
+      Set<String> excludedPaths,
+      boolean precompilePython,
+      boolean nativeInstall) {
+    this.components = components;
+    this.prunedComponents = prunedComponents;
+    this.excludedPaths = excludedPaths;
+    this.precompilePython = precompilePython;
+    this.nativeInstall = nativeInstall;
+  }
+
+  /** Returns the components to install instead of the defaults, or null for the defaults. */
+  @Nullable
+  public Set<String> getComponents() {
+    return components;
+  }
+
+  /** Returns the components removed after installation. */
+  public List<SdkComponent> getPrunedComponents() {
+    return prunedComponents;
+  }
+
+  /** Returns the paths, relative to the SDK home, that are not extracted from the archive. */
+  public Set<String> getExcludedPaths() {
+    return excludedPaths;
+  }
+
+  /**
+   * Returns true if the SDK's Python sources are compiled to bytecode after installation. Only
+   * applies to installations that run the install script.
+   */
+  public boolean isPrecompilePython() {
+    return precompilePython;
+  }
+
+  /**
+   * Returns true if the SDK is configured in process instead of by the install script. Only applies
+   * to installations that run the install script.
+   */
+  public boolean isNativeInstall() {
+    return nativeInstall;
+  }
+
+  /**
+   * Returns true if an archive entry is needed by this profile. Archive entries are rooted in the
+   * {@code google-cloud-sdk} directory, which is stripped before matching against the excluded
+   * paths.
+   */
+  boolean includesEntry(String entryName) {
+    if (excludedPaths.isEmpty()) {
+      return true;
+    }
+    String sdkPath = entryName.replace('\\', '/');
+    int rootSeparator = sdkPath.indexOf('/');
+    if (rootSeparator < 0) {
+      return true;
+    }
+    sdkPath = sdkPath.substring(rootSeparator + 1);
+    for (String excludedPath : excludedPaths) {
+      if (sdkPath.equals(excludedPath)
+          || sdkPath.equals(excludedPath + "/")
+          || sdkPath.startsWith(excludedPath + "/")) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static class Builder {
+    @Nullable private Set<String> components;
+    private List<SdkComponent> prunedComponents = ImmutableList.of();
+    private Set<String> excludedPaths = ImmutableSet.of();
+    private boolean precompilePython;
+    private boolean nativeInstall;
+
+    private Builder() {}
+
+    /** Sets the gcloud components the install script installs instead of the defaults. */
+    public Builder components(@Nullable Set<String> components) {
+      this.components = components == null ? null : ImmutableSet.copyOf(components);
+      return this;
+    }
+
+    /** Sets bundled components that are removed after the SDK is installed. */
+    public Builder prunedComponents(List<SdkComponent> prunedComponents) {
+      this.prunedComponents = ImmutableList.copyOf(prunedComponents);
+      return this;
+    }
+
+    /**
+     * Sets paths relative to the SDK home, like {@code help} or {@code RELEASE_NOTES}, that are
+     * skipped during extraction.
+     */
+    public Builder excludedPaths(Set<String> excludedPaths) {
+      for (String excludedPath : excludedPaths) {
+        Preconditions.checkArgument(
+            !excludedPath.isEmpty() && !excludedPath.startsWith("/") && !excludedPath.endsWith("/"),
+            "Invalid excluded path: '%s'",
+            excludedPath);
+      }
+      this.excludedPaths = ImmutableSet.copyOf(excludedPaths);
+      return this;
+    }
+
+    /**
+     * Sets whether the SDK's Python sources are compiled to bytecode after installation, trading
+     * some install time for faster gcloud startup.
+     */
+    public Builder precompilePython(boolean precompilePython) {
+      this.precompilePython = precompilePython;
+      return this;
+    }
+
+    /**
+     * Sets whether the SDK is configured in process instead of by the install script, which saves
+     * starting a Python interpreter. The install script still runs if the SDK cannot be configured
+     * natively.
+     */
+    public Builder nativeInstall(boolean nativeInstall) {
+      this.nativeInstall = nativeInstall;
+      return this;
+    }
+
+    public InstallProfile build() {
+      return new InstallProfile(
+          components, prunedComponents, excludedPaths, precompilePython, nativeInstall);
+    }
+  }
+}
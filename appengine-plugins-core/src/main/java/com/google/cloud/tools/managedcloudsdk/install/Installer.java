@@ -22,16 +22,24 @@ import com.google.cloud.tools.managedcloudsdk.command.CommandExecutionException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
 /** Installer for running install scripts in a Cloud SDK download. */
 final class Installer {
 
+  private static final Logger logger = Logger.getLogger(Installer.class.getName());
+
   private final Path installedSdkRoot;
   private final InstallScriptProvider installScriptProvider;
   private final boolean usageReporting;
@@ -40,6 +48,8 @@ final class Installer {
   private final CommandRunner commandRunner;
 
   @Nullable private final Set<String> overrideComponents;
+  @Nullable private final NativeInstaller nativeInstaller;
+  @Nullable private final PythonPrecompiler pythonPrecompiler;
 
   /** Instantiated by {@link InstallerFactory}. */
   Installer(
@@ -68,10 +78,68 @@ final class Installer {
       ProgressListener progressListener,
       ConsoleListener consoleListener,
       CommandRunner commandRunner) {
+    this(
+        installedSdkRoot,
+        installScriptProvider,
+        usageReporting,
+        overrideComponents,
+        null,
+        progressListener,
+        consoleListener,
+        commandRunner);
+  }
+
+  /**
+   * Instantiated by {@link InstallerFactory}.
+   *
+   * @param pythonPrecompiler compiles the SDK's Python sources after the install script ran, null
+   *     to leave compilation to gcloud
+   */
+  Installer(
+      Path installedSdkRoot,
+      InstallScriptProvider installScriptProvider,
+      boolean usageReporting,
+      @Nullable Set<String> overrideComponents,
+      @Nullable PythonPrecompiler pythonPrecompiler,
+      ProgressListener progressListener,
+      ConsoleListener consoleListener,
+      CommandRunner commandRunner) {
+    this(
+        installedSdkRoot,
+        installScriptProvider,
+        usageReporting,
+        overrideComponents,
+        null,
+        pythonPrecompiler,
+        progressListener,
+        consoleListener,
+        commandRunner);
+  }
+
+  /**
+   * Instantiated by {@link InstallerFactory}.
+   *
+   * @param nativeInstaller configures the SDK in process instead of running the install script,
+   *     null to always run the script
+   * @param pythonPrecompiler compiles the SDK's Python sources after installation, null to leave
+   *     compilation to gcloud
+   */
+  Installer(
+      Path installedSdkRoot,
+      InstallScriptProvider installScriptProvider,
+      boolean usageReporting,
+      @Nullable Set<String> overrideComponents,
+      @Nullable NativeInstaller nativeInstaller,
+      @Nullable PythonPrecompiler pythonPrecompiler,
+      ProgressListener progressListener,
+      ConsoleListener consoleListener,
+      CommandRunner commandRunner) {
     this.installedSdkRoot = installedSdkRoot;
     this.installScriptProvider = installScriptProvider;
     this.usageReporting = usageReporting;
     this.overrideComponents = overrideComponents;
+    this.nativeInstaller = nativeInstaller;
+    this.pythonPrecompiler = pythonPrecompiler;
     this.progressListener = progressListener;
     this.consoleListener = consoleListener;
     this.commandRunner = commandRunner;
@@ -80,6 +148,35 @@ final class Installer {
   /** Install a cloud sdk (only run this on LATEST). */
   public void install()
       throws CommandExitException, CommandExecutionException, InterruptedException {
+    progressListener.start("Installing Cloud SDK", ProgressListener.UNKNOWN);
+    if (nativeInstaller == null || !installNatively(nativeInstaller)) {
+      runInstallScript();
+    }
+    if (pythonPrecompiler != null) {
+      precompile(pythonPrecompiler);
+    }
+    progressListener.done();
+  }
+
+  /** Returns false if the SDK could not be configured natively and needs the install script. */
+  private boolean installNatively(NativeInstaller nativeInstaller)
+      throws CommandExitException, CommandExecutionException, InterruptedException {
+    try {
+      nativeInstaller.install(
+          installedSdkRoot,
+          usageReporting,
+          overrideComponents,
+          installScriptProvider.getScriptEnvironment(),
+          consoleListener);
+      return true;
+    } catch (IOException ex) {
+      logger.warning("Native installation failed, running the install script: " + ex.getMessage());
+      return false;
+    }
+  }
+
+  private void runInstallScript()
+      throws CommandExitException, CommandExecutionException, InterruptedException {
     List<String> command =
         new ArrayList<>(installScriptProvider.getScriptCommandLine(installedSdkRoot));
     command.add("--path-update=false"); // don't update user's path
@@ -95,13 +192,75 @@ final class Installer {
     Path workingDirectory = installedSdkRoot.getParent();
     Map<String, String> installerEnvironment = installScriptProvider.getScriptEnvironment();
 
-    progressListener.start("Installing Cloud SDK", ProgressListener.UNKNOWN);
     commandRunner.run(command, workingDirectory, installerEnvironment, consoleListener);
-    progressListener.done();
+  }
+
+  /**
+   * Precompilation is an optimization, a failure leaves gcloud compiling its modules on demand as
+   * it would without it and does not fail the installation.
+   */
+  private void precompile(PythonPrecompiler pythonPrecompiler) throws InterruptedException {
+    boolean measure = logger.isLoggable(Level.FINE);
+    long noOpBeforeMillis = measure ? timeNoOpCommand(pythonPrecompiler) : -1;
+
+    progressListener.update("Precompiling Python sources");
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    try {
+      pythonPrecompiler.precompile(installedSdkRoot, consoleListener);
+    } catch (CommandExitException | CommandExecutionException ex) {
+      logger.warning("Failed to precompile Cloud SDK Python sources: " + ex.getMessage());
+      return;
+    }
+    logger.fine(
+        String.format(
+            Locale.ROOT,
+            "Precompiled Python sources in %.1fs",
+            stopwatch.elapsed(TimeUnit.MILLISECONDS) / 1000.0));
+
+    try {
+      if (!pythonPrecompiler.isPrecompiled(installedSdkRoot)) {
+        logger.warning("Cloud SDK Python bytecode not found after precompiling");
+      }
+    } catch (IOException | CommandExitException | CommandExecutionException ex) {
+      logger.warning("Failed to verify Cloud SDK Python bytecode: " + ex.getMessage());
+    }
+
+    if (measure) {
+      long noOpAfterMillis = timeNoOpCommand(pythonPrecompiler);
+      logger.fine(
+          String.format(
+              Locale.ROOT,
+              "gcloud startup: %dms before precompiling, %dms after",
+              noOpBeforeMillis,
+              noOpAfterMillis));
+    }
+  }
+
+  /** Returns the duration of a no-op gcloud command in milliseconds, or -1 if it failed. */
+  private long timeNoOpCommand(PythonPrecompiler pythonPrecompiler) throws InterruptedException {
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    try {
+      pythonPrecompiler.runNoOpCommand(installedSdkRoot);
+    } catch (CommandExitException | CommandExecutionException ex) {
+      return -1;
+    }
+    return stopwatch.elapsed(TimeUnit.MILLISECONDS);
   }
 
   @VisibleForTesting
   InstallScriptProvider getInstallScriptProvider() {
     return installScriptProvider;
   }
+
+  @VisibleForTesting
+  @Nullable
+  NativeInstaller getNativeInstaller() {
+    return nativeInstaller;
+  }
+
+  @VisibleForTesting
+  @Nullable
+  PythonPrecompiler getPythonPrecompiler() {
+    return pythonPrecompiler;
+  }
 }
@@ -19,6 +19,7 @@ package com.google.cloud.tools.managedcloudsdk.install;
 import com.google.cloud.tools.managedcloudsdk.ConsoleListener;
 import com.google.cloud.tools.managedcloudsdk.OsInfo;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
+import com.google.cloud.tools.managedcloudsdk.command.CommandCaller;
 import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
 import java.nio.file.Path;
 import java.util.Collections;
@@ -32,6 +33,8 @@ final class InstallerFactory {
   private final OsInfo osInfo;
   private final boolean usageReporting;
   @Nullable private final Set<String> overrideComponents;
+  private final boolean precompilePython;
+  private final boolean nativeInstall;
 
   /**
    * Creates a new factory.
@@ -40,12 +43,51 @@ final class InstallerFactory {
    * @param usageReporting enable or disable client side usage reporting. {@code true} is enabled,
    *     {@code false} is disabled
    * @param overrideComponents gcloud components to install instead of the defaults
+   * @param precompilePython compile the SDK's Python sources to bytecode after installation
+   * @param nativeInstall configure the SDK in process, falling back to the install script only if
+   *     that fails
    */
   InstallerFactory(
-      OsInfo osInfo, boolean usageReporting, @Nullable Set<String> overrideComponents) {
+      OsInfo osInfo,
+      boolean usageReporting,
+      @Nullable Set<String> overrideComponents,
+      boolean precompilePython,
+      boolean nativeInstall) {
     this.osInfo = osInfo;
     this.usageReporting = usageReporting;
     this.overrideComponents = overrideComponents;
+    this.precompilePython = precompilePython;
+    this.nativeInstall = nativeInstall;
+  }
+
+  /**
+   * Creates a new factory.
+   *
+   * @param osInfo the operating system of the computer this script is running on
+   * @param usageReporting enable or disable client side usage reporting. {@code true} is enabled,
+   *     {@code false} is disabled
+   * @param overrideComponents gcloud components to install instead of the defaults
+   * @param precompilePython compile the SDK's Python sources to bytecode after installation
+   */
+  InstallerFactory(
+      OsInfo osInfo,
+      boolean usageReporting,
+      @Nullable Set<String> overrideComponents,
+      boolean precompilePython) {
+    this(osInfo, usageReporting, overrideComponents, precompilePython, false);
+  }
+
+  /**
+   * Creates a new factory.
+   *
+   * @param osInfo the operating system of the computer this script is running on
+   * @param usageReporting enable or disable client side usage reporting. {@code true} is enabled,
+   *     {@code false} is disabled
+   * @param overrideComponents gcloud components to install instead of the defaults
+   */
+  InstallerFactory(
+      OsInfo osInfo, boolean usageReporting, @Nullable Set<String> overrideComponents) {
+    this(osInfo, usageReporting, overrideComponents, false);
   }
 
   /**
@@ -74,14 +116,24 @@ final class InstallerFactory {
       ConsoleListener consoleListener,
       Map<String, String> environmentVariables) {
 
+    CommandRunner commandRunner = CommandRunner.newRunner();
+    NativeInstaller nativeInstaller =
+        nativeInstall ? new NativeInstaller(osInfo.name(), commandRunner) : null;
+    PythonPrecompiler pythonPrecompiler =
+        precompilePython
+            ? new PythonPrecompiler(
+                osInfo.name(), environmentVariables, commandRunner, CommandCaller.newCaller())
+            : null;
     return new Installer(
         installedSdkRoot,
         getInstallScriptProvider(environmentVariables),
         usageReporting,
         overrideComponents,
+        nativeInstaller,
+        pythonPrecompiler,
         progressListener,
         consoleListener,
-        CommandRunner.newRunner());
+        commandRunner);
   }
 
   Installer newInstaller(
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.cloud.tools.managedcloudsdk.ConsoleListener;
+import com.google.cloud.tools.managedcloudsdk.OsInfo;
+import com.google.cloud.tools.managedcloudsdk.command.CommandExecutionException;
+import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
+import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Performs the post-extraction steps of the install script that a managed Cloud SDK needs, without
+ * starting the script and its Python interpreter. A managed SDK is never added to the user's path
+ * and never gets shell completion, so all that remains is to write the installation properties and
+ * to install any requested components that are not bundled in the archive.
+ *
+ * <p>Throws an {@link IOException} when the extracted SDK does not look the way this expects, in
+ * which case {@link Installer} falls back to the install script.
+ */
+final class NativeInstaller {
+
+  /** The installation scoped gcloud properties file, relative to the SDK home. */
+  @VisibleForTesting static final String PROPERTIES_FILE = "properties";
+
+  private final OsInfo.Name osName;
+  private final CommandRunner commandRunner;
+
+  /** Instantiated by {@link InstallerFactory}. */
+  NativeInstaller(OsInfo.Name osName, CommandRunner commandRunner) {
+    this.osName = osName;
+    this.commandRunner = commandRunner;
+  }
+
+  /**
+   * Configure an extracted SDK.
+   *
+   * @param sdkRoot the home directory of the extracted SDK
+   * @param usageReporting enable or disable client side usage reporting
+   * @param components gcloud components the installation must contain, or null for the bundled
+   *     components
+   * @param environment environment for gcloud, if components need to be installed
+   * @param consoleListener listener for gcloud output
+   */
+  void install(
+      Path sdkRoot,
+      boolean usageReporting,
+      @Nullable Set<String> components,
+      @Nullable Map<String, String> environment,
+      ConsoleListener consoleListener)
+      throws IOException, CommandExitException, CommandExecutionException, InterruptedException {
+    Path installState = sdkRoot.resolve(".install");
+    if (!Files.isDirectory(installState)) {
+      throw new IOException("Cloud SDK install state not found at " + installState);
+    }
+    Path properties = sdkRoot.resolve(PROPERTIES_FILE);
+    if (Files.exists(properties)) {
+      throw new IOException("Cloud SDK installation properties already exist at " + properties);
+    }
+
+    List<String> missingComponents = new ArrayList<>();
+    if (components != null) {
+      for (String component : components) {
+        if (!Files.isRegularFile(installState.resolve(component + ".snapshot.json"))) {
+          missingComponents.add(component);
+        }
+      }
+    }
+    if (!missingComponents.isEmpty() && osName == OsInfo.Name.WINDOWS) {
+      // gcloud replaces the bundled python it runs on, which only the install script handles
+      throw new IOException("Cannot install components natively on Windows: " + missingComponents);
+    }
+
+    Files.write(properties, getProperties(usageReporting), StandardCharsets.UTF_8);
+
+    if (!missingComponents.isEmpty()) {
+      List<String> command = new ArrayList<>();
+      command.add(sdkRoot.resolve("bin").resolve("gcloud").toString());
+      command.add("components");
+      command.add("install");
+      command.addAll(missingComponents);
+      command.add("--quiet");
+      commandRunner.run(command, sdkRoot, environment, consoleListener);
+    }
+  }
+
+  /**
+   * Returns the properties the install script writes, nothing else, so a natively installed SDK
+   * behaves exactly like one installed by the script.
+   */
+  @VisibleForTesting
+  static List<String> getProperties(boolean usageReporting) {
+    return Arrays.asList(
+        "[core]", "disable_usage_reporting = " + (usageReporting ? "False" : "True"));
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.cloud.tools.managedcloudsdk.ConsoleListener;
+import com.google.cloud.tools.managedcloudsdk.OsInfo;
+import com.google.cloud.tools.managedcloudsdk.command.CommandCaller;
+import com.google.cloud.tools.managedcloudsdk.command.CommandExecutionException;
+import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
+import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the Python sources of an installed Cloud SDK to bytecode, so that gcloud does not pay
+ * for compiling its modules on every cold start, or on every call at all if the SDK directory is
+ * not writable when gcloud runs. Uses the interpreter gcloud would use: {@code CLOUDSDK_PYTHON} if
+ * set, otherwise the SDK's bundled Python, otherwise {@code python3} from the path.
+ */
+final class PythonPrecompiler {
+
+  private final OsInfo.Name osName;
+  private final Map<String, String> environment;
+  private final CommandRunner commandRunner;
+  private final CommandCaller commandCaller;
+
+  /** Instantiated by {@link InstallerFactory}. */
+  PythonPrecompiler(
+      OsInfo.Name osName,
+      Map<String, String> environment,
+      CommandRunner commandRunner,
+      CommandCaller commandCaller) {
+    this.osName = osName;
+    this.environment = environment;
+    this.commandRunner = commandRunner;
+    this.commandCaller = commandCaller;
+  }
+
+  /**
+   * Compile all Python sources in the SDK's {@code lib} directory, one worker process per core.
+   *
+   * @param sdkRoot the home directory of the installed SDK
+   * @param consoleListener listener for the compiler output
+   */
+  void precompile(Path sdkRoot, ConsoleListener consoleListener)
+      throws CommandExitException, CommandExecutionException, InterruptedException {
+    commandRunner.run(getCommandLine(sdkRoot), sdkRoot, environment, consoleListener);
+  }
+
+  /** Run a gcloud command that does no work, to measure gcloud's startup time. */
+  void runNoOpCommand(Path sdkRoot)
+      throws CommandExitException, CommandExecutionException, InterruptedException {
+    String gcloud = osName == OsInfo.Name.WINDOWS ? "gcloud.cmd" : "gcloud";
+    commandRunner.run(
+        Arrays.asList(sdkRoot.resolve("bin").resolve(gcloud).toString(), "version", "--quiet"),
+        sdkRoot,
+        environment,
+        rawString -> {});
+  }
+
+  @VisibleForTesting
+  List<String> getCommandLine(Path sdkRoot) {
+    // "-j 0" compiles with as many processes as there are cores
+    return Arrays.asList(getInterpreter(sdkRoot), "-m", "compileall", "-q", "-j", "0", "lib");
+  }
+
+  @VisibleForTesting
+  String getInterpreter(Path sdkRoot) {
+    String cloudSdkPython = environment.get("CLOUDSDK_PYTHON");
+    if (cloudSdkPython != null && !cloudSdkPython.trim().isEmpty()) {
+      return cloudSdkPython;
+    }
+    Path bundledPython =
+        osName == OsInfo.Name.WINDOWS
+            ? sdkRoot.resolve("platform").resolve("bundledpython").resolve("python.exe")
+            : sdkRoot
+                .resolve("platform")
+                .resolve("bundledpythonunix")
+                .resolve("bin")
+                .resolve("python3");
+    if (Files.isRegularFile(bundledPython)) {
+      return bundledPython.toString();
+    }
+    return osName == OsInfo.Name.WINDOWS ? "python" : "python3";
+  }
+
+  /**
+   * Returns true if gcloud's own modules have been compiled to bytecode for the interpreter gcloud
+   * uses. Bytecode for other Python versions does not count, the interpreter ignores it.
+   */
+  boolean isPrecompiled(Path sdkRoot)
+      throws IOException, CommandExitException, CommandExecutionException, InterruptedException {
+    Path cacheDirectory = sdkRoot.resolve("lib").resolve("googlecloudsdk").resolve("__pycache__");
+    if (!Files.isDirectory(cacheDirectory)) {
+      return false;
+    }
+    String cacheTag = getCacheTag(sdkRoot);
+    try (DirectoryStream<Path> bytecode =
+        Files.newDirectoryStream(cacheDirectory, "*." + cacheTag + ".pyc")) {
+      return bytecode.iterator().hasNext();
+    }
+  }
+
+  /** Returns the tag of the interpreter's bytecode file names, like {@code cpython-311}. */
+  @VisibleForTesting
+  String getCacheTag(Path sdkRoot)
+      throws CommandExitException, CommandExecutionException, InterruptedException {
+    return commandCaller
+        .call(
+            Arrays.asList(
+                getInterpreter(sdkRoot), "-c", "import sys; print(sys.implementation.cache_tag)"),
+            sdkRoot,
+            environment)
+        .trim();
+  }
+}
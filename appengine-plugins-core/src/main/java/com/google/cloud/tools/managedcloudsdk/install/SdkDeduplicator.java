@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Deduplicates identical files across side by side managed Cloud SDK installs. Every regular file
+ * of an SDK is hashed and hard linked to an entry in a content store shared by all installs, so
+ * that files identical between versions only occupy disk space once.
+ *
+ * <p>Only use this on fixed version installs, files of a "LATEST" install are rewritten in place
+ * when it is updated, which would modify every other install sharing them. Files gcloud itself
+ * rewrites (the SDK root and the {@code .install} component metadata) are never linked.
+ *
+ * <p>The SDK is linked while holding its install lock, so it is not installed or removed meanwhile,
+ * and the content store is locked while SDKs are linked to it or it is pruned, against other
+ * threads and processes. Every file is replaced atomically, so an SDK stays usable if deduplication
+ * stops part way.
+ */
+public class SdkDeduplicator {
+
+  /** Name of the content store directory in the managed SDK directory. */
+  public static final String DIRECTORY_NAME = "content-store";
+
+  private static final Logger logger = Logger.getLogger(SdkDeduplicator.class.getName());
+
+  private final Path contentStore;
+
+  /**
+   * Create a new deduplicator.
+   *
+   * @param contentStore the shared content store directory, must be on the same file store as the
+   *     SDKs being deduplicated
+   */
+  public SdkDeduplicator(Path contentStore) {
+    this.contentStore = contentStore;
+  }
+
+  /**
+   * Hard links the files of an SDK to the content store.
+   *
+   * @param sdkHome the home directory of an installed SDK, in a version directory next to its
+   *     install lock file
+   * @return the number of bytes reclaimed by this pass
+   */
+  public long deduplicate(Path sdkHome) throws IOException, InterruptedException {
+    Path versionDirectory = Preconditions.checkNotNull(sdkHome.getParent());
+    Path installLock = versionDirectory.resolveSibling(versionDirectory.getFileName() + ".lock");
+    try (InstallLock ignoredInstall = InstallLock.acquire(installLock);
+        InstallLock ignoredStore = InstallLock.acquire(getLockFile())) {
+      if (!Files.isDirectory(sdkHome)) {
+        throw new NoSuchFileException(sdkHome.toString());
+      }
+      return deduplicateLocked(sdkHome);
+    }
+  }
+
+  private long deduplicateLocked(Path sdkHome) throws IOException {
+    Files.createDirectories(contentStore);
+    if (!Files.getFileStore(sdkHome).equals(Files.getFileStore(contentStore))) {
+      logger.warning(
+          "Cannot deduplicate " + sdkHome + ", it is not on the file store of " + contentStore);
+      return 0;
+    }
+    boolean posix = sdkHome.getFileSystem().supportedFileAttributeViews().contains("posix");
+
+    List<Path> files = new ArrayList<>();
+    Files.walkFileTree(
+        sdkHome,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            return sdkHome.resolve(".install").equals(dir)
+                ? FileVisitResult.SKIP_SUBTREE
+                : FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (attrs.isRegularFile() && !sdkHome.equals(file.getParent())) {
+              files.add(file);
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+
+    long reclaimed = 0;
+    int skipped = 0;
+    for (Path file : files) {
+      Path storeEntry = getStoreEntry(file, posix);
+      try {
+        if (link(file, storeEntry)) {
+          reclaimed += Files.size(file);
+        }
+      } catch (UnsupportedOperationException ex) {
+        // the file system has no hard links, nothing was linked yet
+        logger.warning("Cannot deduplicate " + sdkHome + ": hard links are not supported");
+        return 0;
+      } catch (FileSystemException ex) {
+        // the file is left as it was, like when the link limit of the store entry is reached
+        logger.fine("Cannot deduplicate " + file + ": " + ex.getMessage());
+        skipped++;
+      }
+    }
+    logger.info(
+        "Deduplicated "
+            + sdkHome
+            + ", reclaimed "
+            + reclaimed
+            + " bytes, skipped "
+            + skipped
+            + " files that could not be linked");
+    return reclaimed;
+  }
+
+  /**
+   * Returns the number of bytes currently saved by the content store across all SDKs linked to it,
+   * or {@code 0} if the file system does not report hard link counts.
+   */
+  public long getReclaimedBytes() throws IOException {
+    if (!Files.isDirectory(contentStore) || !hasLinkCounts()) {
+      return 0;
+    }
+    long reclaimed = 0;
+    try (Stream<Path> storeEntries = Files.walk(contentStore)) {
+      for (Path storeEntry : (Iterable<Path>) storeEntries::iterator) {
+        if (Files.isRegularFile(storeEntry)) {
+          // one link is the store entry itself, one is the only copy that would exist anyway
+          int links = (Integer) Files.getAttribute(storeEntry, "unix:nlink");
+          reclaimed += Files.size(storeEntry) * Math.max(0, links - 2);
+        }
+      }
+    }
+    return reclaimed;
+  }
+
+  /**
+   * Removes the store entries no SDK links to anymore, like after SDK versions were removed. Does
+   * nothing if the file system does not report hard link counts.
+   *
+   * @return the number of bytes freed
+   */
+  public long prune() throws IOException, InterruptedException {
+    if (!Files.isDirectory(contentStore) || !hasLinkCounts()) {
+      return 0;
+    }
+    try (InstallLock ignored = InstallLock.acquire(getLockFile())) {
+      List<Path> storeEntries;
+      try (Stream<Path> walk = Files.walk(contentStore)) {
+        storeEntries = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+      }
+      long freed = 0;
+      for (Path storeEntry : storeEntries) {
+        // the store entry is the only link left
+        if ((Integer) Files.getAttribute(storeEntry, "unix:nlink") == 1) {
+          freed += Files.size(storeEntry);
+          Files.delete(storeEntry);
+        }
+      }
+      return freed;
+    }
+  }
+
+  private boolean hasLinkCounts() {
+    return contentStore.getFileSystem().supportedFileAttributeViews().contains("unix");
+  }
+
+  private Path getLockFile() {
+    return contentStore.resolveSibling(contentStore.getFileName() + ".lock");
+  }
+
+  private Path getStoreEntry(Path file, boolean posix) throws IOException {
+    String hash = MoreFiles.asByteSource(file).hash(Hashing.sha256()).toString();
+    // linked files share permissions, so files that only differ in permissions are kept apart
+    String name =
+        posix
+            ? hash + "-" + PosixFilePermissions.toString(Files.getPosixFilePermissions(file))
+            : hash;
+    Path bucket = contentStore.resolve(hash.substring(0, 2));
+    Files.createDirectories(bucket);
+    return bucket.resolve(name);
+  }
+
+  /** Returns true if {@code file} was replaced by a link to an existing store entry. */
+  private static boolean link(Path file, Path storeEntry) throws IOException {
+    if (!Files.exists(storeEntry)) {
+      try {
+        Files.createLink(storeEntry, file);
+        return false;
+      } catch (FileAlreadyExistsException ex) {
+        // another install added the same content concurrently, link to that instead
+      }
+    }
+    if (Files.isSameFile(file, storeEntry) || Files.size(file) != Files.size(storeEntry)) {
+      return false;
+    }
+    Path link = file.resolveSibling(file.getFileName() + ".dedup");
+    Files.deleteIfExists(link);
+    try {
+      Files.createLink(link, storeEntry);
+      Files.move(link, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      // only left over if linking or moving failed
+      Files.deleteIfExists(link);
+    }
+    return true;
+  }
+}
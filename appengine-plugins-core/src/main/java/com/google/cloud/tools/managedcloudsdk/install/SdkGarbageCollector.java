@@ -0,0 +1,278 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Removes managed Cloud SDK versions that are no longer used. Every use of a managed SDK is
+ * recorded with {@link #recordUse(Path)}, the least recently used versions are removed first. A
+ * version is removed while holding its install lock, and is kept if it was used after the
+ * collection started or within the last {@link #GRACE_PERIOD}, so an SDK is never removed while it
+ * is being installed, picked up or run.
+ *
+ * <p>Files hard linked between versions, like deduplicated files, are counted once against the size
+ * budget, and only free disk space once the last version linking them is removed. Content store
+ * entries no longer linked by any version are removed after the versions.
+ *
+ * <p>Only version directories are collected. Downloads, staging directories and lock files are left
+ * alone.
+ */
+public final class SdkGarbageCollector {
+
+  private static final Logger logger = Logger.getLogger(SdkGarbageCollector.class.getName());
+
+  /** Marker file in a version directory whose modification time is the time it was last used. */
+  @VisibleForTesting static final String LAST_USED_FILE = ".last-used";
+
+  /** Versions used within this period are never removed, they may still be running. */
+  public static final Duration GRACE_PERIOD = Duration.ofDays(1);
+
+  private static final Set<String> RESERVED_NAMES =
+      ImmutableSet.of("downloads", SdkDeduplicator.DIRECTORY_NAME, Trash.DIRECTORY_NAME);
+
+  private final Path managedSdkDirectory;
+  private final Clock clock;
+
+  /**
+   * Create a new garbage collector.
+   *
+   * @param managedSdkDirectory the directory all managed SDK versions are installed in
+   */
+  public SdkGarbageCollector(Path managedSdkDirectory) {
+    this(managedSdkDirectory, Clock.systemUTC());
+  }
+
+  @VisibleForTesting
+  SdkGarbageCollector(Path managedSdkDirectory, Clock clock) {
+    this.managedSdkDirectory = managedSdkDirectory;
+    this.clock = clock;
+  }
+
+  /**
+   * Record that the SDK version installed in a directory is being used. Failures are logged and
+   * otherwise ignored, at worst the version is collected earlier than it should be.
+   *
+   * @param versionDirectory the version directory in the managed SDK directory, the parent of the
+   *     SDK home
+   */
+  public static void recordUse(Path versionDirectory) {
+    Path marker = versionDirectory.resolve(LAST_USED_FILE);
+    try {
+      try {
+        Files.createFile(marker);
+      } catch (FileAlreadyExistsException ex) {
+        // used before, just update the timestamp
+      }
+      Files.setLastModifiedTime(marker, FileTime.from(Instant.now()));
+    } catch (IOException ex) {
+      logger.fine("Failed to record use of " + versionDirectory + ": " + ex);
+    }
+  }
+
+  /**
+   * Remove unused SDK versions.
+   *
+   * @param maxUnused versions not used for longer than this are removed, null to remove versions
+   *     only to stay within the size budget
+   * @param maxTotalBytes the least recently used versions are removed until all versions together
+   *     take no more than this, negative for no size budget
+   * @param keptVersions versions that are never removed, like the version of the caller
+   * @return the removed versions
+   */
+  public List<String> collect(
+      @Nullable Duration maxUnused, long maxTotalBytes, Set<String> keptVersions)
+      throws IOException, InterruptedException {
+    Map<Path, FileTime> lastUsed = new HashMap<>();
+    for (Path versionDirectory : listVersionDirectories()) {
+      lastUsed.put(versionDirectory, getLastUsed(versionDirectory));
+    }
+    List<Path> leastRecentlyUsedFirst = new ArrayList<>(lastUsed.keySet());
+    leastRecentlyUsedFirst.sort(Comparator.comparing(lastUsed::get));
+
+    Instant graceCutoff = clock.instant().minus(GRACE_PERIOD);
+    List<Path> removable = new ArrayList<>();
+    for (Path versionDirectory : leastRecentlyUsedFirst) {
+      if (!keptVersions.contains(getVersion(versionDirectory))
+          && Preconditions.checkNotNull(lastUsed.get(versionDirectory))
+              .toInstant()
+              .isBefore(graceCutoff)) {
+        removable.add(versionDirectory);
+      }
+    }
+
+    List<Path> evicted = new ArrayList<>();
+    if (maxUnused != null) {
+      Instant cutoff = clock.instant().minus(maxUnused);
+      for (Path versionDirectory : removable) {
+        if (Preconditions.checkNotNull(lastUsed.get(versionDirectory))
+            .toInstant()
+            .isBefore(cutoff)) {
+          evicted.add(versionDirectory);
+        }
+      }
+    }
+    if (maxTotalBytes >= 0) {
+      // a file linked from several versions takes disk space once, and only frees it when the last
+      // of them is removed
+      Map<Object, Long> fileSizes = new HashMap<>();
+      Map<Object, Integer> linkingVersions = new HashMap<>();
+      Map<Path, Set<Object>> versionFiles = new HashMap<>();
+      for (Path versionDirectory : leastRecentlyUsedFirst) {
+        if (!evicted.contains(versionDirectory)) {
+          Set<Object> files = getFiles(versionDirectory, fileSizes);
+          versionFiles.put(versionDirectory, files);
+          for (Object file : files) {
+            linkingVersions.put(file, linkingVersions.getOrDefault(file, 0) + 1);
+          }
+        }
+      }
+      long totalBytes = 0;
+      for (long size : fileSizes.values()) {
+        totalBytes += size;
+      }
+      for (Path versionDirectory : removable) {
+        if (totalBytes <= maxTotalBytes) {
+          break;
+        }
+        Set<Object> files = versionFiles.get(versionDirectory);
+        if (files != null) {
+          evicted.add(versionDirectory);
+          for (Object file : files) {
+            int links = Preconditions.checkNotNull(linkingVersions.get(file)) - 1;
+            linkingVersions.put(file, links);
+            if (links == 0) {
+              totalBytes -= Preconditions.checkNotNull(fileSizes.get(file));
+            }
+          }
+        }
+      }
+    }
+
+    // removal is synchronous, the caller asked for the disk space now
+    Trash trash =
+        new Trash(
+            managedSdkDirectory.resolve(Trash.DIRECTORY_NAME), MoreExecutors.directExecutor());
+    trash.sweep();
+    List<String> removed = new ArrayList<>();
+    for (Path versionDirectory : evicted) {
+      if (remove(
+          versionDirectory, Preconditions.checkNotNull(lastUsed.get(versionDirectory)), trash)) {
+        removed.add(getVersion(versionDirectory));
+      }
+    }
+    if (!removed.isEmpty()) {
+      long freed =
+          new SdkDeduplicator(managedSdkDirectory.resolve(SdkDeduplicator.DIRECTORY_NAME)).prune();
+      logger.info("Removed " + freed + " bytes of content no longer used by any Cloud SDK");
+    }
+    return removed;
+  }
+
+  private boolean remove(Path versionDirectory, FileTime lastUsed, Trash trash)
+      throws IOException, InterruptedException {
+    Path lockFile = versionDirectory.resolveSibling(getVersion(versionDirectory) + ".lock");
+    try (InstallLock ignored = InstallLock.acquire(lockFile)) {
+      if (!Files.isDirectory(versionDirectory)) {
+        return false;
+      }
+      if (getLastUsed(versionDirectory).compareTo(lastUsed) > 0) {
+        logger.info("Keeping Cloud SDK " + versionDirectory + ", it is in use");
+        return false;
+      }
+      logger.info("Removing unused Cloud SDK " + versionDirectory);
+      trash.dispose(versionDirectory);
+      return true;
+    }
+  }
+
+  private List<Path> listVersionDirectories() throws IOException {
+    List<Path> versionDirectories = new ArrayList<>();
+    if (!Files.isDirectory(managedSdkDirectory)) {
+      return versionDirectories;
+    }
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(managedSdkDirectory)) {
+      for (Path entry : entries) {
+        String name = getVersion(entry);
+        if (RESERVED_NAMES.contains(name)
+            || name.endsWith(".staging")
+            || name.endsWith(".lock")
+            || !Files.isDirectory(entry.resolve("google-cloud-sdk"))) {
+          continue;
+        }
+        versionDirectories.add(entry);
+      }
+    }
+    return versionDirectories;
+  }
+
+  /** Versions installed before use was recorded fall back to the time they were installed. */
+  private static FileTime getLastUsed(Path versionDirectory) throws IOException {
+    Path marker = versionDirectory.resolve(LAST_USED_FILE);
+    return Files.getLastModifiedTime(Files.exists(marker) ? marker : versionDirectory);
+  }
+
+  private static String getVersion(Path versionDirectory) {
+    return String.valueOf(versionDirectory.getFileName());
+  }
+
+  /**
+   * Returns the files of a version, identified by their file key where the file system has one, so
+   * hard links to the same file are the same. Their sizes are added to {@code fileSizes}.
+   */
+  private static Set<Object> getFiles(Path versionDirectory, Map<Object, Long> fileSizes)
+      throws IOException {
+    Set<Object> files = new HashSet<>();
+    Files.walkFileTree(
+        versionDirectory,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            Object fileKey = attrs.fileKey();
+            Object key = fileKey != null ? fileKey : file;
+            files.add(key);
+            fileSizes.put(key, attrs.size());
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    return files;
+  }
+}
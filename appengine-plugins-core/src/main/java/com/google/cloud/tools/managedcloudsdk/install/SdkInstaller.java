@@ -22,15 +22,22 @@ import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import com.google.cloud.tools.managedcloudsdk.Version;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExecutionException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
+import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
+import com.google.cloud.tools.managedcloudsdk.components.SdkComponentInstaller;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
 import com.google.common.io.MoreFiles;
-import com.google.common.io.RecursiveDeleteOption;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
@@ -44,6 +51,8 @@ public class SdkInstaller {
   private final DownloaderFactory downloaderFactory;
   @Nullable private final InstallerFactory installerFactory;
   private final Map<String, String> environmentVariables;
+  private final List<SdkComponent> prunedComponents;
+  @Nullable private final Function<Path, SdkComponentInstaller> componentInstallerFactory;
 
   /** Use {@link #newInstaller} to instantiate. */
   SdkInstaller(
@@ -67,14 +76,50 @@ public class SdkInstaller {
       ExtractorFactory extractorFactory,
       @Nullable InstallerFactory installerFactory,
       Map<String, String> environmentVariables) {
+    this(
+        fileResourceProviderFactory,
+        downloaderFactory,
+        extractorFactory,
+        installerFactory,
+        environmentVariables,
+        Collections.emptyList(),
+        null);
+  }
+
+  /**
+   * Use {@link #newInstaller} to instantiate.
+   *
+   * @param prunedComponents components removed from the staged SDK before it is published
+   * @param componentInstallerFactory creates a component installer for the staged gcloud, required
+   *     if there are components to prune
+   */
+  @VisibleForTesting
+  SdkInstaller(
+      FileResourceProviderFactory fileResourceProviderFactory,
+      DownloaderFactory downloaderFactory,
+      ExtractorFactory extractorFactory,
+      @Nullable InstallerFactory installerFactory,
+      Map<String, String> environmentVariables,
+      List<SdkComponent> prunedComponents,
+      @Nullable Function<Path, SdkComponentInstaller> componentInstallerFactory) {
+    Preconditions.checkArgument(
+        prunedComponents.isEmpty() || componentInstallerFactory != null,
+        "pruning components requires a component installer");
     this.fileResourceProviderFactory = fileResourceProviderFactory;
     this.downloaderFactory = downloaderFactory;
     this.extractorFactory = extractorFactory;
     this.installerFactory = installerFactory;
     this.environmentVariables = environmentVariables;
+    this.prunedComponents = prunedComponents;
+    this.componentInstallerFactory = componentInstallerFactory;
   }
 
-  /** Download and install a new Cloud SDK. */
+  /**
+   * Download and install a new Cloud SDK. The installation is assembled in a staging directory and
+   * then moved into place, while holding a lock that excludes other threads and processes
+   * installing the same SDK. If another installer held the lock and completed the installation in
+   * the meantime, that installation is used instead of installing again.
+   */
   public Path install(
       final ProgressListener progressListener, final ConsoleListener consoleListener)
       throws IOException, InterruptedException, SdkInstallerException, CommandExecutionException,
@@ -83,23 +128,51 @@ public class SdkInstaller {
     FileResourceProvider fileResourceProvider =
         fileResourceProviderFactory.newFileResourceProvider();
 
+    try (InstallLock installLock = InstallLock.acquire(fileResourceProvider.getInstallLock())) {
+      if (installLock.wasContended()
+          && Files.isRegularFile(fileResourceProvider.getExtractedGcloud())) {
+        logger.info(
+            "Using Cloud SDK installed concurrently at "
+                + fileResourceProvider.getExtractedSdkHome());
+        return fileResourceProvider.getExtractedSdkHome();
+      }
+      return install(fileResourceProvider, progressListener, consoleListener);
+    }
+  }
+
+  private Path install(
+      FileResourceProvider fileResourceProvider,
+      ProgressListener progressListener,
+      ConsoleListener consoleListener)
+      throws IOException, InterruptedException, SdkInstallerException, CommandExecutionException,
+          CommandExitException {
+
     // Cleanup, remove old downloaded archive if exists
     if (Files.isRegularFile(fileResourceProvider.getArchiveDestination())) {
       logger.info("Removing stale archive: " + fileResourceProvider.getArchiveDestination());
       Files.delete(fileResourceProvider.getArchiveDestination());
     }
 
-    // Cleanup, remove old SDK directory if exists
-    if (Files.exists(fileResourceProvider.getArchiveExtractionDestination())) {
-      logger.info(
-          "Removing stale install: " + fileResourceProvider.getArchiveExtractionDestination());
+    // Cleanup, finish deleting trees trashed by earlier runs in the background
+    Trash trash = new Trash(fileResourceProvider.getTrashDirectory());
+    trash.sweep();
 
-      MoreFiles.deleteRecursively(
-          fileResourceProvider.getArchiveExtractionDestination(),
-          RecursiveDeleteOption.ALLOW_INSECURE);
+    // Cleanup, remove a staging directory left behind by an interrupted install
+    if (Files.exists(fileResourceProvider.getArchiveStagingDestination())) {
+      logger.info(
+          "Removing stale staging directory: "
+              + fileResourceProvider.getArchiveStagingDestination());
+      trash.dispose(fileResourceProvider.getArchiveStagingDestination());
     }
 
-    progressListener.start("Installing Cloud SDK", installerFactory != null ? 300 : 200);
+    long totalWork = 200;
+    if (installerFactory != null) {
+      totalWork += 100;
+    }
+    if (!prunedComponents.isEmpty()) {
+      totalWork += 100;
+    }
+    progressListener.start("Installing Cloud SDK", totalWork);
 
     // download and verify
     Downloader downloader =
@@ -113,19 +186,20 @@ public class SdkInstaller {
           "Download succeeded but valid archive not found at "
               + fileResourceProvider.getArchiveDestination());
     }
+    verifyChecksum(fileResourceProvider);
 
     try {
       // extract and verify
       extractorFactory
           .newExtractor(
               fileResourceProvider.getArchiveDestination(),
-              fileResourceProvider.getArchiveExtractionDestination(),
+              fileResourceProvider.getArchiveStagingDestination(),
               progressListener.newChild(100))
           .extract();
-      if (!Files.isDirectory(fileResourceProvider.getExtractedSdkHome())) {
+      if (!Files.isDirectory(fileResourceProvider.getStagedSdkHome())) {
         throw new SdkInstallerException(
             "Extraction succeeded but valid sdk home not found at "
-                + fileResourceProvider.getExtractedSdkHome());
+                + fileResourceProvider.getStagedSdkHome());
       }
     } catch (UnknownArchiveTypeException e) {
       // fileResourceProviderFactory.newFileResourceProvider() creates a fileResourceProvider that
@@ -137,7 +211,7 @@ public class SdkInstaller {
     if (installerFactory != null) {
       installerFactory
           .newInstaller(
-              fileResourceProvider.getExtractedSdkHome(),
+              fileResourceProvider.getStagedSdkHome(),
               progressListener.newChild(100),
               consoleListener,
               environmentVariables)
@@ -145,16 +219,56 @@ public class SdkInstaller {
     }
 
     // verify final state
-    if (!Files.isRegularFile(fileResourceProvider.getExtractedGcloud())) {
+    if (!Files.isRegularFile(fileResourceProvider.getStagedGcloud())) {
       throw new SdkInstallerException(
           "Installation succeeded but gcloud executable not found at "
-              + fileResourceProvider.getExtractedGcloud());
+              + fileResourceProvider.getStagedGcloud());
+    }
+
+    // prune components the installation does not need
+    if (!prunedComponents.isEmpty() && componentInstallerFactory != null) {
+      componentInstallerFactory
+          .apply(fileResourceProvider.getStagedGcloud())
+          .removeComponents(prunedComponents, progressListener.newChild(100), consoleListener);
+    }
+
+    // Cleanup, remove old SDK directory if exists
+    if (Files.exists(fileResourceProvider.getArchiveExtractionDestination())) {
+      logger.info(
+          "Removing stale install: " + fileResourceProvider.getArchiveExtractionDestination());
+      trash.dispose(fileResourceProvider.getArchiveExtractionDestination());
     }
 
+    // publish the complete installation
+    Files.move(
+        fileResourceProvider.getArchiveStagingDestination(),
+        fileResourceProvider.getArchiveExtractionDestination(),
+        StandardCopyOption.ATOMIC_MOVE);
+
     progressListener.done();
     return fileResourceProvider.getExtractedSdkHome();
   }
 
+  private static void verifyChecksum(FileResourceProvider fileResourceProvider)
+      throws IOException, SdkInstallerException {
+    String expectedSha256 = fileResourceProvider.getArchiveSha256();
+    if (expectedSha256 == null) {
+      return;
+    }
+    Path archive = fileResourceProvider.getArchiveDestination();
+    String actualSha256 = MoreFiles.asByteSource(archive).hash(Hashing.sha256()).toString();
+    if (!actualSha256.equalsIgnoreCase(expectedSha256)) {
+      Files.delete(archive);
+      throw new SdkInstallerException(
+          "Checksum mismatch for "
+              + fileResourceProvider.getArchiveSource()
+              + ", expected sha256 "
+              + expectedSha256
+              + " but was "
+              + actualSha256);
+    }
+  }
+
   /**
    * Configure and create a new Installer instance.
    *
@@ -205,22 +319,111 @@ public class SdkInstaller {
       boolean usageReporting,
       @Nullable Set<String> overrideComponents,
       Map<String, String> environmentVariables) {
+    return SdkInstaller.newInstaller(
+        managedSdkDirectory,
+        version,
+        osInfo,
+        userAgentString,
+        usageReporting,
+        overrideComponents,
+        environmentVariables,
+        null);
+  }
+
+  /**
+   * Configure and create a new Installer instance.
+   *
+   * @param managedSdkDirectory directory where the Cloud SDK will be installed
+   * @param version version of the Cloud SDK to install
+   * @param osInfo target operating system for installation
+   * @param userAgentString user agent string for https requests
+   * @param usageReporting enable client side usage reporting on gcloud
+   * @param overrideComponents gcloud components to install instead of the defaults
+   * @param environmentVariables map of additional environment variables to be passed to the
+   *     installer process (proxy settings, etc.)
+   * @param archiveMirror a {@code file:} or {@code http(s):} URI of a directory containing Cloud
+   *     SDK archives and an {@code index.json} listing them, or {@code null} to download from the
+   *     default locations
+   * @return a new configured Cloud SDK Installer
+   */
+  public static SdkInstaller newInstaller(
+      Path managedSdkDirectory,
+      Version version,
+      OsInfo osInfo,
+      String userAgentString,
+      boolean usageReporting,
+      @Nullable Set<String> overrideComponents,
+      Map<String, String> environmentVariables,
+      @Nullable URI archiveMirror) {
+    return SdkInstaller.newInstaller(
+        managedSdkDirectory,
+        version,
+        osInfo,
+        userAgentString,
+        usageReporting,
+        InstallProfile.builder().components(overrideComponents).build(),
+        environmentVariables,
+        archiveMirror);
+  }
+
+  /**
+   * Configure and create a new Installer instance for a minimal installation. Archive entries
+   * excluded by the profile are never extracted and the profile's pruned components are removed
+   * before the installation is published. The profile's components are passed to the install
+   * script, which only runs for "LATEST" SDKs.
+   *
+   * @param managedSdkDirectory directory where the Cloud SDK will be installed
+   * @param version version of the Cloud SDK to install
+   * @param osInfo target operating system for installation
+   * @param userAgentString user agent string for https requests
+   * @param usageReporting enable client side usage reporting on gcloud
+   * @param profile the parts of the Cloud SDK to install
+   * @param environmentVariables map of additional environment variables to be passed to the
+   *     installer process (proxy settings, etc.)
+   * @param archiveMirror a {@code file:} or {@code http(s):} URI of a directory containing Cloud
+   *     SDK archives and an {@code index.json} listing them, or {@code null} to download from the
+   *     default locations
+   * @return a new configured Cloud SDK Installer
+   */
+  public static SdkInstaller newInstaller(
+      Path managedSdkDirectory,
+      Version version,
+      OsInfo osInfo,
+      String userAgentString,
+      boolean usageReporting,
+      InstallProfile profile,
+      Map<String, String> environmentVariables,
+      @Nullable URI archiveMirror) {
     DownloaderFactory downloaderFactory = new DownloaderFactory(userAgentString);
-    ExtractorFactory extractorFactory = new ExtractorFactory();
+    ExtractorFactory extractorFactory =
+        profile.getExcludedPaths().isEmpty()
+            ? new ExtractorFactory()
+            : new ExtractorFactory(ExtractorFactory.DEFAULT_PARALLELISM, profile::includesEntry);
 
     InstallerFactory installerFactory =
         version == Version.LATEST
-            ? new InstallerFactory(osInfo, usageReporting, overrideComponents)
+            ? new InstallerFactory(
+                osInfo,
+                usageReporting,
+                profile.getComponents(),
+                profile.isPrecompilePython(),
+                profile.isNativeInstall())
             : null;
 
     FileResourceProviderFactory fileResourceProviderFactory =
-        new FileResourceProviderFactory(version, osInfo, managedSdkDirectory);
+        new FileResourceProviderFactory(
+            version,
+            osInfo,
+            managedSdkDirectory,
+            archiveMirror != null ? new ArchiveMirror(archiveMirror) : null);
 
     return new SdkInstaller(
         fileResourceProviderFactory,
         downloaderFactory,
         extractorFactory,
         installerFactory,
-        environmentVariables);
+        environmentVariables,
+        profile.getPrunedComponents(),
+        gcloud -> SdkComponentInstaller.newComponentInstaller(osInfo.name(), gcloud));
   }
 }
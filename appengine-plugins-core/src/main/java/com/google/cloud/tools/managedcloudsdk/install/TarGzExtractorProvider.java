@@ -16,14 +16,30 @@
 
 package com.google.cloud.tools.managedcloudsdk.install;
 
+import com.google.cloud.tools.managedcloudsdk.MeteredProgressListener;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.BufferedOutputStream;
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
@@ -33,6 +49,12 @@ import org.apache.commons.compress.utils.IOUtils;
 /**
  * {@link ExtractorProvider} implementation for *.tar.gz files.
  *
+ * <p>The calling thread always decompresses the archive and parses the tar headers. With a
+ * parallelism greater than one, file bodies are read into memory and handed off to a bounded pool
+ * of writer threads that persist them and apply their permissions, so that the many small files of
+ * an SDK archive are not written one syscall at a time behind the decompressor. The amount of
+ * buffered file content is capped, files that do not fit are written by the calling thread.
+ *
  * <p>NOTE: this does not handle links or symlinks or any other kind of special types in the tar. It
  * will only create files and directories.
  */
@@ -40,54 +62,222 @@ final class TarGzExtractorProvider implements ExtractorProvider {
 
   private static final Logger logger = Logger.getLogger(TarGzExtractorProvider.class.getName());
 
+  /** Upper bound on file content held in memory waiting for a writer thread. */
+  @VisibleForTesting static final int MAX_BUFFERED_BYTES = 32 * 1024 * 1024;
+
+  private final int parallelism;
+  private final Predicate<String> entryFilter;
+
   /** Only instantiated in {@link ExtractorFactory}. */
-  TarGzExtractorProvider() {}
+  TarGzExtractorProvider() {
+    this(1);
+  }
+
+  /**
+   * Only instantiated in {@link ExtractorFactory}.
+   *
+   * @param parallelism number of writer threads, {@code 1} extracts all entries on the calling
+   *     thread
+   */
+  TarGzExtractorProvider(int parallelism) {
+    this(parallelism, entryName -> true);
+  }
+
+  /**
+   * Only instantiated in {@link ExtractorFactory}.
+   *
+   * @param parallelism number of writer threads, {@code 1} extracts all entries on the calling
+   *     thread
+   * @param entryFilter returns true for the names of entries that should be extracted
+   */
+  TarGzExtractorProvider(int parallelism, Predicate<String> entryFilter) {
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+    this.parallelism = parallelism;
+    this.entryFilter = entryFilter;
+  }
 
   @Override
   public void extract(Path archive, Path destination, ProgressListener progressListener)
       throws IOException {
 
-    progressListener.start(
-        "Extracting archive: " + archive.getFileName(), ProgressListener.UNKNOWN);
+    // a tar has no index of its entries, progress is measured in compressed bytes consumed
+    long archiveSize = Files.size(archive);
+    MeteredProgressListener meteredListener = new MeteredProgressListener(progressListener);
+    meteredListener.start("Extracting archive: " + archive.getFileName(), archiveSize);
 
-    String canonicalDestination = destination.toFile().getCanonicalPath();
+    ExtractionDestination extractionDestination =
+        new ExtractionDestination(destination, entryFilter);
 
     GzipCompressorInputStream gzipIn = new GzipCompressorInputStream(Files.newInputStream(archive));
     try (TarArchiveInputStream in = new TarArchiveInputStream(gzipIn)) {
+      CompressedProgress progress = new CompressedProgress(gzipIn, meteredListener);
+      if (parallelism == 1) {
+        extractSequentially(in, extractionDestination, progress);
+      } else {
+        extractPipelined(in, extractionDestination, progress);
+      }
+      // the gzip trailer and any read-ahead are not reported by the entries
+      meteredListener.update(Math.max(0, archiveSize - progress.reported));
+      meteredListener.done();
+    }
+    logger.fine(
+        String.format(
+            Locale.ROOT,
+            "Extracted %,.2f MB in %.1fs (%,.2f MB/s)",
+            archiveSize / 1024.0 / 1024.0,
+            meteredListener.getElapsed().toMillis() / 1000.0,
+            meteredListener.getRate() / 1024.0 / 1024.0));
+  }
+
+  private static void extractSequentially(
+      TarArchiveInputStream in,
+      ExtractionDestination extractionDestination,
+      CompressedProgress progress)
+      throws IOException {
+    TarArchiveEntry entry;
+    while ((entry = in.getNextTarEntry()) != null) {
+      if (extractionDestination.isExcluded(entry.getName())) {
+        progress.update();
+        continue;
+      }
+      Path entryTarget = extractionDestination.resolve(entry.getName());
+      progress.update();
+      logger.fine(entryTarget.toString());
+
+      if (entry.isDirectory()) {
+        extractionDestination.createDirectories(entryTarget);
+      } else if (entry.isFile()) {
+        extractionDestination.createParentDirectories(entryTarget);
+        writeFile(in, entryTarget, entry.getMode(), extractionDestination);
+      } else {
+        // we don't know what kind of entry this is (we only process directories and files).
+        logger.warning("Skipping entry (unknown type): " + entry.getName());
+      }
+    }
+  }
+
+  private void extractPipelined(
+      TarArchiveInputStream in,
+      ExtractionDestination extractionDestination,
+      CompressedProgress progress)
+      throws IOException {
+    ExecutorService writers =
+        Executors.newFixedThreadPool(
+            parallelism,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("tar-extractor-writer-%d")
+                .build());
+    Semaphore bufferedBytes = new Semaphore(MAX_BUFFERED_BYTES);
+    Deque<Future<?>> writes = new ArrayDeque<>();
+    // tracks the last write per file so that duplicate entries are written in archive order
+    Map<Path, Future<?>> lastWrites = new HashMap<>();
+    try {
       TarArchiveEntry entry;
       while ((entry = in.getNextTarEntry()) != null) {
-        Path entryTarget = destination.resolve(entry.getName());
-
-        String canonicalTarget = entryTarget.toFile().getCanonicalPath();
-        if (!canonicalTarget.startsWith(canonicalDestination + File.separator)) {
-          throw new IOException("Blocked unzipping files outside destination: " + entry.getName());
+        if (extractionDestination.isExcluded(entry.getName())) {
+          progress.update();
+          continue;
         }
-
-        progressListener.update(1);
+        Path entryTarget = extractionDestination.resolve(entry.getName());
+        progress.update();
         logger.fine(entryTarget.toString());
 
         if (entry.isDirectory()) {
-          if (!Files.exists(entryTarget)) {
-            Files.createDirectories(entryTarget);
-          }
+          extractionDestination.createDirectories(entryTarget);
         } else if (entry.isFile()) {
-          if (!Files.exists(entryTarget.getParent())) {
-            Files.createDirectories(entryTarget.getParent());
+          extractionDestination.createParentDirectories(entryTarget);
+          Future<?> previousWrite = lastWrites.remove(entryTarget);
+          if (previousWrite != null) {
+            Uninterruptibles.getUninterruptibly(previousWrite);
           }
-          try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(entryTarget))) {
-            IOUtils.copy(in, out);
-            PosixFileAttributeView attributeView =
-                Files.getFileAttributeView(entryTarget, PosixFileAttributeView.class);
-            if (attributeView != null) {
-              attributeView.setPermissions(PosixUtil.getPosixFilePermissions(entry.getMode()));
+
+          long size = entry.getSize();
+          int mode = entry.getMode();
+          if (size > MAX_BUFFERED_BYTES) {
+            writeFile(in, entryTarget, mode, extractionDestination);
+          } else {
+            int permits = (int) size;
+            bufferedBytes.acquireUninterruptibly(permits);
+            byte[] contents;
+            try {
+              contents = IOUtils.toByteArray(in);
+            } catch (IOException ex) {
+              bufferedBytes.release(permits);
+              throw ex;
             }
+            Future<?> write =
+                writers.submit(
+                    () -> {
+                      try {
+                        writeFile(contents, entryTarget, mode, extractionDestination);
+                      } finally {
+                        bufferedBytes.release(permits);
+                      }
+                      return null;
+                    });
+            writes.add(write);
+            lastWrites.put(entryTarget, write);
           }
         } else {
           // we don't know what kind of entry this is (we only process directories and files).
           logger.warning("Skipping entry (unknown type): " + entry.getName());
         }
+
+        // fail fast if a writer has already failed
+        while (!writes.isEmpty() && writes.peekFirst().isDone()) {
+          Uninterruptibles.getUninterruptibly(writes.pollFirst());
+        }
+      }
+
+      // like the sequential extraction, an interrupt is not allowed to stop the extraction midway,
+      // the caller checks for it once the archive is fully extracted
+      for (Future<?> write : writes) {
+        Uninterruptibles.getUninterruptibly(write);
+      }
+    } catch (ExecutionException ex) {
+      Throwables.throwIfInstanceOf(ex.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(ex.getCause());
+      throw new IOException(ex.getCause());
+    } finally {
+      writers.shutdownNow();
+      Uninterruptibles.awaitTerminationUninterruptibly(writers);
+    }
+  }
+
+  private static void writeFile(
+      InputStream in, Path entryTarget, int mode, ExtractionDestination extractionDestination)
+      throws IOException {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(entryTarget))) {
+      IOUtils.copy(in, out);
+    }
+    extractionDestination.setPermissions(entryTarget, mode);
+  }
+
+  private static void writeFile(
+      byte[] contents, Path entryTarget, int mode, ExtractionDestination extractionDestination)
+      throws IOException {
+    Files.write(entryTarget, contents);
+    extractionDestination.setPermissions(entryTarget, mode);
+  }
+
+  /** Reports the compressed bytes consumed since the last update. */
+  private static class CompressedProgress {
+    private final GzipCompressorInputStream gzipIn;
+    private final ProgressListener progressListener;
+    private long reported;
+
+    CompressedProgress(GzipCompressorInputStream gzipIn, ProgressListener progressListener) {
+      this.gzipIn = gzipIn;
+      this.progressListener = progressListener;
+    }
+
+    void update() {
+      long compressed = gzipIn.getCompressedCount();
+      if (compressed > reported) {
+        progressListener.update(compressed - reported);
+        reported = compressed;
       }
-      progressListener.done();
     }
   }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Deletes directory trees without making the caller wait. A tree is renamed into a trash directory
+ * next to it, which is a single atomic operation on the same file system, and then deleted on a
+ * background daemon thread. Trees that are still in the trash when the JVM exits are deleted by the
+ * next {@link #sweep()}.
+ */
+final class Trash {
+
+  /** Name of the trash directory in the managed SDK directory. */
+  static final String DIRECTORY_NAME = ".trash";
+
+  private static final Logger logger = Logger.getLogger(Trash.class.getName());
+
+  private static final Executor backgroundDeleter =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("cloud-sdk-trash").build());
+
+  /** Trees already scheduled for deletion in this JVM, so that sweeps do not delete them twice. */
+  private static final Set<Path> scheduled = ConcurrentHashMap.newKeySet();
+
+  private final Path trashDirectory;
+  private final Executor deleter;
+
+  /** Creates a trash that deletes on a shared background thread. */
+  Trash(Path trashDirectory) {
+    this(trashDirectory, backgroundDeleter);
+  }
+
+  @VisibleForTesting
+  Trash(Path trashDirectory, Executor deleter) {
+    this.trashDirectory = trashDirectory;
+    this.deleter = deleter;
+  }
+
+  /**
+   * Move a directory tree into the trash and schedule its deletion. A tree that cannot be moved,
+   * because the trash is on another file system or a file in it is open on Windows, is deleted in
+   * place instead.
+   */
+  void dispose(Path target) throws IOException {
+    Path trashed = trashDirectory.resolve(target.getFileName() + "-" + UUID.randomUUID());
+    try {
+      Files.createDirectories(trashDirectory);
+      Files.move(target, trashed, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      logger.fine("Cannot move " + target + " to the trash, deleting it in place: " + ex);
+      MoreFiles.deleteRecursively(target, RecursiveDeleteOption.ALLOW_INSECURE);
+      return;
+    }
+    scheduleDeletion(trashed);
+  }
+
+  /** Schedule the deletion of trees left in the trash by earlier runs. */
+  void sweep() {
+    if (!Files.isDirectory(trashDirectory)) {
+      return;
+    }
+    try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(trashDirectory)) {
+      for (Path leftover : leftovers) {
+        scheduleDeletion(leftover);
+      }
+    } catch (IOException ex) {
+      logger.warning("Failed to list trash at " + trashDirectory + ": " + ex.getMessage());
+    }
+  }
+
+  private void scheduleDeletion(Path trashed) {
+    if (!scheduled.add(trashed)) {
+      return;
+    }
+    deleter.execute(
+        () -> {
+          try {
+            MoreFiles.deleteRecursively(trashed, RecursiveDeleteOption.ALLOW_INSECURE);
+          } catch (NoSuchFileException ex) {
+            // deleted by another process sweeping the same trash
+          } catch (IOException ex) {
+            logger.warning(
+                "Failed to delete " + trashed + ", retrying on the next run: " + ex.getMessage());
+          } finally {
+            scheduled.remove(trashed);
+          }
+        });
+  }
+}
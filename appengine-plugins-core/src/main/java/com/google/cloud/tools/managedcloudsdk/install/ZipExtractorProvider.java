@@ -16,17 +16,32 @@
 
 package com.google.cloud.tools.managedcloudsdk.install;
 
+import com.google.cloud.tools.managedcloudsdk.MeteredProgressListener;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.BufferedOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
@@ -35,6 +50,10 @@ import org.apache.commons.compress.utils.IOUtils;
 /**
  * {@link ExtractorProvider} implementation for *.zip files.
  *
+ * <p>Entries are validated and the directory skeleton is created up front, file contents are then
+ * inflated either on the calling thread or, when configured with a parallelism greater than one,
+ * concurrently on a bounded pool where each worker reads through its own {@link ZipFile} handle.
+ *
  * <p>NOTE: this does not handle links or symlinks or any other kind of special types in the tar. It
  * will only create files and directories.
  */
@@ -42,59 +61,191 @@ final class ZipExtractorProvider implements ExtractorProvider {
 
   private static final Logger logger = Logger.getLogger(ZipExtractorProvider.class.getName());
 
+  private final int parallelism;
+  private final Predicate<String> entryFilter;
+
   /** Only instantiated in {@link ExtractorFactory}. */
   @VisibleForTesting
-  ZipExtractorProvider() {}
+  ZipExtractorProvider() {
+    this(1);
+  }
+
+  /**
+   * Only instantiated in {@link ExtractorFactory}.
+   *
+   * @param parallelism maximum number of entries inflated concurrently, {@code 1} extracts all
+   *     entries on the calling thread
+   */
+  @VisibleForTesting
+  ZipExtractorProvider(int parallelism) {
+    this(parallelism, entryName -> true);
+  }
+
+  /**
+   * Only instantiated in {@link ExtractorFactory}.
+   *
+   * @param parallelism maximum number of entries inflated concurrently, {@code 1} extracts all
+   *     entries on the calling thread
+   * @param entryFilter returns true for the names of entries that should be extracted
+   */
+  ZipExtractorProvider(int parallelism, Predicate<String> entryFilter) {
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+    this.parallelism = parallelism;
+    this.entryFilter = entryFilter;
+  }
 
   @Override
   public void extract(Path archive, Path destination, ProgressListener progressListener)
       throws IOException {
 
-    progressListener.start(
-        "Extracting archive: " + archive.getFileName(), ProgressListener.UNKNOWN);
-
-    String canonicalDestination = destination.toFile().getCanonicalPath();
+    MeteredProgressListener meteredListener = new MeteredProgressListener(progressListener);
+    ExtractionDestination extractionDestination =
+        new ExtractionDestination(destination, entryFilter);
 
     // Use ZipFile instead of ZipArchiveInputStream so that we can obtain file permissions
     // on unix-like systems via getUnixMode(). ZipArchiveInputStream doesn't have access to
     // all the zip file data and will return "0" for any call to getUnixMode().
     try (ZipFile zipFile = new ZipFile(archive.toFile())) {
-      // TextProgressBar progressBar = textBarFactory.newProgressBar(messageListener, count);
+      // validate every entry before anything is written to disk
+      List<ZipArchiveEntry> fileEntries = new ArrayList<>();
+      List<Path> fileTargets = new ArrayList<>();
+      List<Path> directoryTargets = new ArrayList<>();
       Enumeration<ZipArchiveEntry> zipEntries = zipFile.getEntries();
       while (zipEntries.hasMoreElements()) {
         ZipArchiveEntry entry = zipEntries.nextElement();
-        Path entryTarget = destination.resolve(entry.getName());
+        if (extractionDestination.isExcluded(entry.getName())) {
+          continue;
+        }
+        Path entryTarget = extractionDestination.resolve(entry.getName());
+        if (entry.isDirectory()) {
+          directoryTargets.add(entryTarget);
+        } else {
+          fileEntries.add(entry);
+          fileTargets.add(entryTarget);
+        }
+      }
+
+      // the central directory gives the exact amount of work up front
+      meteredListener.start(
+          "Extracting archive: " + archive.getFileName(),
+          directoryTargets.size() + fileEntries.size());
 
-        String canonicalTarget = entryTarget.toFile().getCanonicalPath();
-        if (!canonicalTarget.startsWith(canonicalDestination + File.separator)) {
-          throw new IOException("Blocked unzipping files outside destination: " + entry.getName());
+      // create the directory skeleton once
+      for (Path directoryTarget : directoryTargets) {
+        logger.fine(directoryTarget.toString());
+        extractionDestination.createDirectories(directoryTarget);
+        meteredListener.update(1);
+      }
+      for (Path fileTarget : fileTargets) {
+        extractionDestination.createParentDirectories(fileTarget);
+      }
+
+      if (parallelism == 1 || fileEntries.size() < 2) {
+        for (int i = 0; i < fileEntries.size(); i++) {
+          extractFile(zipFile, fileEntries.get(i), fileTargets.get(i), extractionDestination);
+          meteredListener.update(1);
         }
+      } else {
+        extractFilesConcurrently(
+            archive, fileEntries, fileTargets, extractionDestination, meteredListener);
+      }
+    }
+    meteredListener.done();
+    logger.fine(
+        String.format(
+            Locale.ROOT,
+            "Extracted %d entries in %.1fs (%.0f entries/s)",
+            meteredListener.getWorkDone(),
+            meteredListener.getElapsed().toMillis() / 1000.0,
+            meteredListener.getRate()));
+  }
 
-        progressListener.update(1);
-        logger.fine(entryTarget.toString());
+  private void extractFilesConcurrently(
+      Path archive,
+      List<ZipArchiveEntry> fileEntries,
+      List<Path> fileTargets,
+      ExtractionDestination extractionDestination,
+      ProgressListener progressListener)
+      throws IOException {
+    int workers = Math.min(parallelism, fileEntries.size());
+    BlockingQueue<ZipFile> zipFiles = new ArrayBlockingQueue<>(workers);
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            workers,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("zip-extractor-%d").build());
+    try {
+      for (int i = 0; i < workers; i++) {
+        zipFiles.add(new ZipFile(archive.toFile()));
+      }
 
-        if (entry.isDirectory()) {
-          if (!Files.exists(entryTarget)) {
-            Files.createDirectories(entryTarget);
-          }
-        } else {
-          if (!Files.exists(entryTarget.getParent())) {
-            Files.createDirectories(entryTarget.getParent());
-          }
-          try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(entryTarget))) {
-            try (InputStream in = zipFile.getInputStream(entry)) {
-              IOUtils.copy(in, out);
-              PosixFileAttributeView attributeView =
-                  Files.getFileAttributeView(entryTarget, PosixFileAttributeView.class);
-              if (attributeView != null) {
-                attributeView.setPermissions(
-                    PosixUtil.getPosixFilePermissions(entry.getUnixMode()));
+      CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+      for (int i = 0; i < fileEntries.size(); i++) {
+        String entryName = fileEntries.get(i).getName();
+        Path entryTarget = fileTargets.get(i);
+        completionService.submit(
+            () -> {
+              // there is one handle per worker, so this never blocks
+              ZipFile zipFile = zipFiles.take();
+              try {
+                ZipArchiveEntry entry = zipFile.getEntry(entryName);
+                if (entry == null) {
+                  throw new IOException("Entry not found in archive: " + entryName);
+                }
+                extractFile(zipFile, entry, entryTarget, extractionDestination);
+              } finally {
+                zipFiles.add(zipFile);
               }
-            }
-          }
+              return null;
+            });
+      }
+
+      // progress is only ever reported from the calling thread, an interrupt is not allowed to stop
+      // the extraction midway, the caller checks for it once the archive is fully extracted
+      for (int i = 0; i < fileEntries.size(); i++) {
+        Uninterruptibles.getUninterruptibly(takeUninterruptibly(completionService));
+        progressListener.update(1);
+      }
+    } catch (ExecutionException ex) {
+      Throwables.throwIfInstanceOf(ex.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(ex.getCause());
+      throw new IOException(ex.getCause());
+    } finally {
+      executor.shutdownNow();
+      Uninterruptibles.awaitTerminationUninterruptibly(executor);
+      for (ZipFile zipFile : zipFiles) {
+        zipFile.close();
+      }
+    }
+  }
+
+  private static <T> Future<T> takeUninterruptibly(CompletionService<T> completionService) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return completionService.take();
+        } catch (InterruptedException ex) {
+          interrupted = true;
         }
       }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static void extractFile(
+      ZipFile zipFile,
+      ZipArchiveEntry entry,
+      Path entryTarget,
+      ExtractionDestination extractionDestination)
+      throws IOException {
+    logger.fine(entryTarget.toString());
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(entryTarget));
+        InputStream in = zipFile.getInputStream(entry)) {
+      IOUtils.copy(in, out);
     }
-    progressListener.done();
+    extractionDestination.setPermissions(entryTarget, entry.getUnixMode());
   }
 }
@@ -21,11 +21,14 @@ import static org.mockito.Mockito.when;
 import com.google.cloud.tools.appengine.operations.cloudsdk.AppEngineJavaComponentsNotInstalledException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.InvalidJavaSdkException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessBuilderFactory;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.AsyncProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessResult;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -45,6 +48,7 @@ public class AppCfgRunnerTest {
   @Mock private ProcessBuilderFactory processBuilderFactory;
   @Mock private ProcessBuilder processBuilder;
   @Mock private ProcessHandler processHandler;
+  @Mock private AsyncProcessHandler asyncProcessHandler;
   @Mock private Process process;
   private Path javaExecutablePath;
   private Path appengineToolsJar;
@@ -87,4 +91,18 @@ public class AppCfgRunnerTest {
     Mockito.verify(processHandler).handleProcess(process);
     Assert.assertEquals(appengineJavaSdkPath.toString(), System.getProperty("appengine.sdk.root"));
   }
+
+  @Test
+  public void testRunAsync() throws Exception {
+    AppCfgRunner appCfgRunner =
+        new AppCfgRunner.Factory(processBuilderFactory).newRunner(sdk, processHandler);
+    CompletableFuture<ProcessResult> result = new CompletableFuture<>();
+    when(asyncProcessHandler.handleProcessAsync(process)).thenReturn(result);
+
+    Assert.assertSame(
+        result, appCfgRunner.runAsync(ImmutableList.of("some", "command"), asyncProcessHandler));
+
+    Mockito.verify(processBuilder).start();
+    Mockito.verifyNoInteractions(processHandler);
+  }
 }
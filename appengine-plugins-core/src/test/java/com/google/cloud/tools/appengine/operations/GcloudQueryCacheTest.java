@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GcloudQueryCacheTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final List<String> COMMAND = ImmutableList.of("gcloud", "config", "list");
+
+  private final AtomicInteger runs = new AtomicInteger();
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+  private Path configDirectory;
+  private Path configFile;
+  private final Map<String, String> environment = new HashMap<>();
+  private GcloudQueryCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    configDirectory = temporaryFolder.newFolder("gcloud").toPath();
+    Files.write(
+        configDirectory.resolve("active_config"), "default".getBytes(StandardCharsets.UTF_8));
+    configFile =
+        Files.createFile(
+            Files.createDirectory(configDirectory.resolve("configurations"))
+                .resolve("config_default"));
+    environment.put("CLOUDSDK_CONFIG", configDirectory.toString());
+    cache = new GcloudQueryCache(() -> environment);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private String query() throws Exception {
+    return cache.get(COMMAND, ImmutableList.of(), () -> "output" + runs.incrementAndGet());
+  }
+
+  private static void touch(Path file) throws IOException {
+    FileTime modified = Files.getLastModifiedTime(file);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 10000));
+  }
+
+  @Test
+  public void testGet_cached() throws Exception {
+    Assert.assertEquals("output1", query());
+    Assert.assertEquals("output1", query());
+    Assert.assertEquals(1, runs.get());
+  }
+
+  @Test
+  public void testGet_keyedByCommand() throws Exception {
+    Assert.assertEquals("output1", query());
+    Assert.assertEquals(
+        "output2",
+        cache.get(
+            ImmutableList.of("gcloud", "components", "list"),
+            ImmutableList.of(),
+            () -> "output" + runs.incrementAndGet()));
+  }
+
+  @Test
+  public void testGet_configFileChanged() throws Exception {
+    query();
+    touch(configFile);
+    Assert.assertEquals("output2", query());
+  }
+
+  @Test
+  public void testGet_activeConfigChanged() throws Exception {
+    query();
+    Files.createFile(configDirectory.resolve("configurations").resolve("config_other"));
+    Assert.assertEquals("output2", query());
+    Files.write(configDirectory.resolve("active_config"), "other".getBytes(StandardCharsets.UTF_8));
+    touch(configDirectory.resolve("active_config"));
+    Assert.assertEquals("output3", query());
+    Assert.assertEquals("output3", query());
+  }
+
+  @Test
+  public void testGet_environmentChanged() throws Exception {
+    query();
+    environment.put("CLOUDSDK_CORE_PROJECT", "other-project");
+    Assert.assertEquals("output2", query());
+    Assert.assertEquals("output2", query());
+    environment.put("PATH", "/other");
+    Assert.assertEquals("output2", query());
+    environment.put("CLOUDSDK_ACTIVE_CONFIG_NAME", "other");
+    Assert.assertEquals("output3", query());
+  }
+
+  @Test
+  public void testGet_configDirectoryChanged() throws Exception {
+    query();
+    Path otherDirectory = temporaryFolder.newFolder("other").toPath();
+    Files.createFile(
+        Files.createDirectory(otherDirectory.resolve("configurations")).resolve("config_default"));
+    environment.put("CLOUDSDK_CONFIG", otherDirectory.toString());
+    Assert.assertEquals("output2", query());
+    environment.put("CLOUDSDK_CONFIG", configDirectory.toString());
+    touch(configFile);
+    Assert.assertEquals("output3", query());
+  }
+
+  @Test
+  public void testGet_watchedFileChanged() throws Exception {
+    Path installDirectory = temporaryFolder.newFolder(".install").toPath();
+    List<Path> watchedFiles = ImmutableList.of(installDirectory);
+    cache.get(COMMAND, watchedFiles, () -> "output" + runs.incrementAndGet());
+    touch(installDirectory);
+    Assert.assertEquals(
+        "output2", cache.get(COMMAND, watchedFiles, () -> "output" + runs.incrementAndGet()));
+  }
+
+  @Test
+  public void testGet_concurrentCallsShareOneRun() throws Exception {
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> first =
+        executor.submit(
+            () ->
+                cache.get(
+                    COMMAND,
+                    ImmutableList.of(),
+                    () -> {
+                      running.countDown();
+                      try {
+                        release.await();
+                      } catch (InterruptedException ex) {
+                        throw new ProcessHandlerException(ex);
+                      }
+                      return "output" + runs.incrementAndGet();
+                    }));
+    Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+    Future<String> second = executor.submit(this::query);
+
+    release.countDown();
+    Assert.assertEquals("output1", first.get(5, TimeUnit.SECONDS));
+    Assert.assertEquals("output1", second.get(5, TimeUnit.SECONDS));
+    Assert.assertEquals(1, runs.get());
+  }
+
+  @Test
+  public void testGet_failureNotCached() throws Exception {
+    try {
+      cache.get(
+          COMMAND,
+          ImmutableList.of(),
+          () -> {
+            throw new ProcessHandlerException("failed");
+          });
+      Assert.fail();
+    } catch (ProcessHandlerException ex) {
+      Assert.assertEquals("failed", ex.getMessage());
+    }
+    Assert.assertEquals("output1", query());
+  }
+
+  @Test
+  public void testGet_clear() throws Exception {
+    query();
+    cache.clear();
+    Assert.assertEquals("output2", query());
+  }
+
+  @Test
+  public void testGetConfigDirectory_cloudSdkConfig() {
+    Assert.assertEquals(
+        Paths.get("custom"),
+        GcloudQueryCache.getConfigDirectory(ImmutableMap.of("CLOUDSDK_CONFIG", "custom")));
+  }
+}
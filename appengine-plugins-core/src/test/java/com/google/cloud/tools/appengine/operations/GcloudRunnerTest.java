@@ -17,6 +17,7 @@
 package com.google.cloud.tools.appengine.operations;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -24,13 +25,16 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundExce
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkOutOfDateException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkVersionFileException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessBuilderFactory;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.AsyncProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessResult;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -51,6 +55,7 @@ public class GcloudRunnerTest {
   private List<Path> flagsFiles;
   private Path workingDirectory;
   @Mock private ProcessHandler processHandler;
+  @Mock private AsyncProcessHandler asyncProcessHandler;
   @Mock private ProcessBuilderFactory processBuilderFactory;
   @Mock private ProcessBuilder processBuilder;
   @Mock private Process process;
@@ -118,6 +123,24 @@ public class GcloudRunnerTest {
     Mockito.verify(processHandler).handleProcess(process);
   }
 
+  @Test
+  public void testRunAsync() throws Exception {
+    GcloudRunner gcloudRunner =
+        new GcloudRunner.Factory(processBuilderFactory)
+            .newRunner(sdk, null, null, null, null, null, null, null, processHandler);
+    CompletableFuture<ProcessResult> result = new CompletableFuture<>();
+    when(asyncProcessHandler.handleProcessAsync(process)).thenReturn(result);
+
+    assertSame(
+        result,
+        gcloudRunner.runAsync(
+            ImmutableList.of("some", "command"), workingDirectory, asyncProcessHandler));
+
+    Mockito.verify(processBuilder)
+        .command(ImmutableList.of(gcloudPath.toString(), "some", "command"));
+    Mockito.verifyNoInteractions(processHandler);
+  }
+
   @Test
   public void testGcloudCommandEnvironment() {
     GcloudRunner gcloudRunner =
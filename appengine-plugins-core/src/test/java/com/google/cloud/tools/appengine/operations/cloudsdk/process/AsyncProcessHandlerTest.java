@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.common.base.Preconditions;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncProcessHandlerTest {
+
+  @Mock private Process process;
+  @Mock private ProcessOutputLineListener stdOut;
+  @Mock private ProcessOutputLineListener stdErr;
+  @Mock private ProcessStartListener start;
+  @Mock private ProcessExitListener exit;
+
+  private static InputStream stream(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testHandleProcessAsync() throws Exception {
+    when(process.getInputStream()).thenReturn(stream("out1\nout2\n"));
+    when(process.getErrorStream()).thenReturn(stream("err1\n"));
+    when(process.waitFor()).thenReturn(3);
+
+    ProcessResult result =
+        AsyncProcessHandler.builder()
+            .addStdOutLineListener(stdOut)
+            .addStdErrLineListener(stdErr)
+            .setStartListener(start)
+            .setExitListener(exit)
+            .build()
+            .handleProcessAsync(process)
+            .get(5, TimeUnit.SECONDS);
+
+    Assert.assertEquals(3, result.getExitCode());
+    Assert.assertFalse(result.getDuration().isNegative());
+    Assert.assertEquals(3, result.getOutputTail().size());
+    Assert.assertTrue(result.getOutputTail().containsAll(Arrays.asList("out1", "out2", "err1")));
+    Mockito.verify(stdOut).onOutputLine("out1");
+    Mockito.verify(stdOut).onOutputLine("out2");
+    Mockito.verify(stdErr).onOutputLine("err1");
+    Mockito.verify(start).onStart(process);
+    Mockito.verify(exit).onExit(3);
+  }
+
+  @Test
+  public void testHandleProcessAsync_outputTail() throws Exception {
+    when(process.getInputStream()).thenReturn(stream("1\n2\n3\n4\n"));
+    when(process.getErrorStream()).thenReturn(stream(""));
+
+    ProcessResult result =
+        AsyncProcessHandler.builder()
+            .outputTailLines(2)
+            .build()
+            .handleProcessAsync(process)
+            .get(5, TimeUnit.SECONDS);
+
+    Assert.assertEquals(Arrays.asList("3", "4"), result.getOutputTail());
+  }
+
+  @Test
+  public void testHandleProcessAsync_bufferedOutput() throws Exception {
+    when(process.getInputStream()).thenReturn(stream("out1\nout2\n"));
+    when(process.getErrorStream()).thenReturn(stream("err1\n"));
+
+    AsyncProcessHandler.builder()
+        .addStdOutLineListener(stdOut)
+        .addStdErrLineListener(stdErr)
+        .bufferOutput(1, OutputLineBuffer.Policy.BLOCK)
+        .build()
+        .handleProcessAsync(process)
+        .get(5, TimeUnit.SECONDS);
+
+    InOrder inOrder = Mockito.inOrder(stdOut);
+    inOrder.verify(stdOut).onOutputLine("out1");
+    inOrder.verify(stdOut).onOutputLine("out2");
+    Mockito.verify(stdErr).onOutputLine("err1");
+  }
+
+  @Test
+  public void testHandleProcessAsync_exitListenerFails() throws Exception {
+    when(process.getInputStream()).thenReturn(stream(""));
+    when(process.getErrorStream()).thenReturn(stream(""));
+    when(process.waitFor()).thenReturn(1);
+
+    CompletableFuture<ProcessResult> result =
+        AsyncProcessHandler.builder()
+            .setExitListener(new NonZeroExceptionExitListener())
+            .build()
+            .handleProcessAsync(process);
+
+    try {
+      result.get(5, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (ExecutionException ex) {
+      Throwable cause = Preconditions.checkNotNull(ex.getCause());
+      Assert.assertTrue(cause instanceof AppEngineException);
+      Assert.assertEquals("Non zero exit: 1", cause.getMessage());
+    }
+  }
+
+  @Test
+  public void testHandleProcessAsync_exitListenerThrowsRuntimeException() throws Exception {
+    when(process.getInputStream()).thenReturn(stream(""));
+    when(process.getErrorStream()).thenReturn(stream(""));
+    Mockito.doThrow(new IllegalStateException("exit failed")).when(exit).onExit(0);
+
+    CompletableFuture<ProcessResult> result =
+        AsyncProcessHandler.builder().setExitListener(exit).build().handleProcessAsync(process);
+
+    try {
+      result.get(5, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (ExecutionException ex) {
+      Throwable cause = Preconditions.checkNotNull(ex.getCause());
+      Assert.assertTrue(cause instanceof IllegalStateException);
+      Assert.assertEquals("exit failed", cause.getMessage());
+    }
+  }
+
+  @Test
+  public void testHandleProcessAsync_lineListenerThrows() throws Exception {
+    when(process.getInputStream()).thenReturn(stream("out1\nout2\nout3\n"));
+    when(process.getErrorStream()).thenReturn(stream(""));
+    when(process.waitFor()).thenReturn(0);
+    Mockito.doThrow(new IllegalStateException("listener failed")).when(stdOut).onOutputLine("out1");
+
+    ProcessResult result =
+        AsyncProcessHandler.builder()
+            .addStdOutLineListener(stdOut)
+            .build()
+            .handleProcessAsync(process)
+            .get(5, TimeUnit.SECONDS);
+
+    // the stream is still read to the end, but the failed listener gets no more lines
+    Assert.assertEquals(Arrays.asList("out1", "out2", "out3"), result.getOutputTail());
+    Mockito.verify(stdOut).onOutputLine("out1");
+    Mockito.verifyNoMoreInteractions(stdOut);
+  }
+
+  @Test
+  public void testHandleProcessAsync_startListenerThrows() throws Exception {
+    when(process.getInputStream()).thenReturn(stream(""));
+    when(process.getErrorStream()).thenReturn(stream(""));
+    Mockito.doThrow(new IllegalStateException("start failed")).when(start).onStart(process);
+
+    CompletableFuture<ProcessResult> result =
+        AsyncProcessHandler.builder().setStartListener(start).build().handleProcessAsync(process);
+
+    Assert.assertTrue(result.isCompletedExceptionally());
+    Mockito.verify(process).destroy();
+  }
+
+  @Test
+  public void testHandleProcessAsync_cancelDestroysProcess() throws Exception {
+    CountDownLatch destroyed = new CountDownLatch(1);
+    when(process.getInputStream()).thenReturn(stream(""));
+    when(process.getErrorStream()).thenReturn(stream(""));
+    when(process.waitFor())
+        .thenAnswer(
+            invocation -> {
+              destroyed.await();
+              return 143;
+            });
+    Mockito.doAnswer(
+            invocation -> {
+              destroyed.countDown();
+              return null;
+            })
+        .when(process)
+        .destroy();
+
+    CompletableFuture<ProcessResult> result =
+        AsyncProcessHandler.builder().build().handleProcessAsync(process);
+    Assert.assertTrue(result.cancel(true));
+
+    Assert.assertTrue(destroyed.await(5, TimeUnit.SECONDS));
+    Mockito.verify(process).destroy();
+  }
+
+  @Test
+  public void testHandleProcess_blocking() throws Exception {
+    when(process.getInputStream()).thenReturn(stream(""));
+    when(process.getErrorStream()).thenReturn(stream(""));
+    when(process.waitFor()).thenReturn(2);
+
+    try {
+      AsyncProcessHandler.builder()
+          .setExitListener(new NonZeroExceptionExitListener())
+          .build()
+          .handleProcess(process);
+      Assert.fail();
+    } catch (ProcessHandlerException ex) {
+      Assert.assertTrue(ex.getCause() instanceof AppEngineException);
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OutputLineBufferTest {
+
+  private final List<String> received = new CopyOnWriteArrayList<>();
+  private final CountDownLatch firstLineReceived = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  /** Receives lines, blocking on the first line until released. */
+  private void onOutputLine(String line) {
+    received.add(line);
+    firstLineReceived.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException ex) {
+      throw new AssertionError(ex);
+    }
+  }
+
+  /** Create a buffer whose listener is stuck on the first line. */
+  private OutputLineBuffer newStuckBuffer(int capacity, OutputLineBuffer.Policy policy)
+      throws InterruptedException {
+    OutputLineBuffer buffer =
+        new OutputLineBuffer(
+            "test", Collections.singletonList(this::onOutputLine), capacity, policy);
+    buffer.add("1");
+    Assert.assertTrue(firstLineReceived.await(5, TimeUnit.SECONDS));
+    return buffer;
+  }
+
+  @Test
+  public void testAdd_deliversInOrder() throws InterruptedException {
+    List<String> other = new CopyOnWriteArrayList<>();
+    OutputLineBuffer buffer =
+        new OutputLineBuffer(
+            "test", ImmutableList.of(received::add, other::add), 2, OutputLineBuffer.Policy.BLOCK);
+    for (int i = 1; i <= 100; i++) {
+      buffer.add(Integer.toString(i));
+    }
+    buffer.close();
+
+    Assert.assertEquals(100, received.size());
+    Assert.assertEquals("1", received.get(0));
+    Assert.assertEquals("100", received.get(99));
+    Assert.assertEquals(received, other);
+    Assert.assertEquals(100, buffer.getDeliveredLines());
+    Assert.assertEquals(0, buffer.getDroppedLines());
+    Assert.assertTrue(buffer.getMaxDepth() <= 2);
+  }
+
+  @Test
+  public void testAdd_block() throws Exception {
+    // 1 is being delivered and 2 fills the buffer
+    OutputLineBuffer buffer = newStuckBuffer(2, OutputLineBuffer.Policy.BLOCK);
+    buffer.add("2");
+    Thread writer =
+        new Thread(
+            () -> {
+              try {
+                buffer.add("3");
+              } catch (InterruptedException ex) {
+                throw new AssertionError(ex);
+              }
+            });
+    writer.start();
+    writer.join(200);
+    Assert.assertTrue(writer.isAlive());
+
+    release.countDown();
+    writer.join(5000);
+    buffer.close();
+
+    Assert.assertEquals(Arrays.asList("1", "2", "3"), received);
+    Assert.assertEquals(0, buffer.getDroppedLines());
+    Assert.assertEquals(2, buffer.getMaxDepth());
+  }
+
+  @Test
+  public void testAdd_dropOldest() throws InterruptedException {
+    OutputLineBuffer buffer = newStuckBuffer(3, OutputLineBuffer.Policy.DROP_OLDEST);
+    for (String line : Arrays.asList("2", "3", "4", "5")) {
+      buffer.add(line);
+    }
+    release.countDown();
+    buffer.close();
+
+    Assert.assertEquals(Arrays.asList("1", "4", "5"), received);
+    Assert.assertEquals(2, buffer.getDroppedLines());
+    Assert.assertEquals(3, buffer.getDeliveredLines());
+    Assert.assertEquals(3, buffer.getMaxDepth());
+  }
+
+  @Test
+  public void testAdd_dropOldest_allLinesInFlight() throws InterruptedException {
+    OutputLineBuffer buffer = newStuckBuffer(1, OutputLineBuffer.Policy.DROP_OLDEST);
+    buffer.add("2");
+    release.countDown();
+    buffer.close();
+
+    Assert.assertEquals(Collections.singletonList("1"), received);
+    Assert.assertEquals(1, buffer.getDroppedLines());
+    Assert.assertEquals(1, buffer.getMaxDepth());
+  }
+
+  @Test
+  public void testAdd_sample() throws InterruptedException {
+    OutputLineBuffer buffer = newStuckBuffer(2, OutputLineBuffer.Policy.SAMPLE);
+    // 2 fills the buffer, 3 and 13 are sampled from the overflowing lines 3 to 13
+    for (int i = 2; i <= 13; i++) {
+      buffer.add(Integer.toString(i));
+    }
+    release.countDown();
+    buffer.close();
+
+    Assert.assertEquals(Arrays.asList("1", "13"), received);
+    Assert.assertEquals(11, buffer.getDroppedLines());
+  }
+
+  @Test
+  public void testAdd_listenerFails() throws InterruptedException {
+    OutputLineBuffer buffer =
+        new OutputLineBuffer(
+            "test",
+            Collections.singletonList(
+                line -> {
+                  throw new IllegalStateException("failed");
+                }),
+            1,
+            OutputLineBuffer.Policy.BLOCK);
+    for (int i = 1; i <= 10; i++) {
+      buffer.add(Integer.toString(i));
+    }
+    buffer.close();
+
+    Assert.assertEquals(0, buffer.getDeliveredLines());
+    Assert.assertEquals(10, buffer.getDroppedLines());
+  }
+
+  @Test
+  public void testAdd_listenerThrowsError() throws InterruptedException {
+    OutputLineBuffer buffer =
+        new OutputLineBuffer(
+            "test",
+            Collections.singletonList(
+                line -> {
+                  throw new AssertionError("failed");
+                }),
+            1,
+            OutputLineBuffer.Policy.BLOCK);
+    // blocks forever if the error leaves the buffer full
+    for (int i = 1; i <= 10; i++) {
+      buffer.add(Integer.toString(i));
+    }
+    buffer.close();
+
+    Assert.assertEquals(0, buffer.getDeliveredLines());
+    Assert.assertEquals(10, buffer.getDroppedLines());
+  }
+
+  @Test
+  public void testAdd_closed() throws InterruptedException {
+    OutputLineBuffer buffer =
+        new OutputLineBuffer(
+            "test", Collections.singletonList(received::add), 1, OutputLineBuffer.Policy.BLOCK);
+    buffer.close();
+    try {
+      buffer.add("line");
+      Assert.fail();
+    } catch (IllegalStateException ex) {
+      Assert.assertEquals("buffer is closed", ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testConstructor_capacityNotPositive() {
+    try {
+      new OutputLineBuffer(
+          "test", Collections.singletonList(received::add), 0, OutputLineBuffer.Policy.BLOCK);
+      Assert.fail();
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals("capacity must be positive", ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import static org.mockito.Mockito.when;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessRegistryTest {
+
+  @Mock private Process process;
+  @Mock private Process otherProcess;
+  @Mock private Closeable sink;
+
+  private final List<Thread> hooks = new ArrayList<>();
+  private final ProcessRegistry registry = new ProcessRegistry(hooks::add);
+
+  @Test
+  public void testRegister_addsOneShutdownHook() {
+    Assert.assertTrue(hooks.isEmpty());
+
+    registry.register(process);
+    registry.register(otherProcess);
+    registry.register(sink);
+
+    Assert.assertEquals(1, hooks.size());
+    Assert.assertEquals("destroy-processes", hooks.get(0).getName());
+  }
+
+  @Test
+  public void testRegister_process() {
+    when(process.isAlive()).thenReturn(true);
+    registry.register(process);
+    Assert.assertEquals(1, registry.getLiveProcessCount());
+
+    registry.deregister(process);
+    Assert.assertEquals(0, registry.getLiveProcessCount());
+  }
+
+  @Test
+  public void testRegister_dropsExitedProcesses() {
+    registry.register(process);
+    when(process.isAlive()).thenReturn(false);
+
+    registry.register(otherProcess);
+    registry.shutdown();
+
+    Mockito.verify(process, Mockito.never()).destroy();
+    Mockito.verify(otherProcess).destroy();
+  }
+
+  @Test
+  public void testRegister_sink() {
+    registry.register(sink);
+    Assert.assertEquals(1, registry.getOpenSinkCount());
+
+    registry.deregister(sink);
+    Assert.assertEquals(0, registry.getOpenSinkCount());
+  }
+
+  @Test
+  public void testShutdown() throws IOException, InterruptedException {
+    registry.register(process);
+    registry.register(sink);
+
+    Thread hook = hooks.get(0);
+    hook.start();
+    hook.join();
+
+    Mockito.verify(process).destroy();
+    Mockito.verify(sink).close();
+    Assert.assertEquals(0, registry.getLiveProcessCount());
+    Assert.assertEquals(0, registry.getOpenSinkCount());
+  }
+
+  @Test
+  public void testShutdown_sinkFails() throws IOException {
+    Closeable otherSink = Mockito.mock(Closeable.class);
+    Mockito.doThrow(new IOException("failed")).when(sink).close();
+    registry.register(sink);
+    registry.register(otherSink);
+
+    registry.shutdown();
+
+    Mockito.verify(otherSink).close();
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Tests for {@link ProcessIoExecutor}. */
+public class ProcessIoExecutorTest {
+
+  @Test
+  public void testSubmit_namesThread() throws Exception {
+    ProcessIoExecutor executor =
+        new ProcessIoExecutor(ProcessIoExecutor.newPooledExecutor(), false);
+
+    ListenableFuture<String> name =
+        executor.submit("standard-out", () -> Thread.currentThread().getName());
+
+    Assert.assertEquals("standard-out", name.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testSubmit_countsTasks() throws Exception {
+    ProcessIoExecutor executor =
+        new ProcessIoExecutor(ProcessIoExecutor.newPooledExecutor(), false);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<ListenableFuture<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      futures.add(
+          executor.submit(
+              "pump",
+              () -> {
+                started.countDown();
+                release.await();
+                return null;
+              }));
+    }
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(2, executor.getActiveTasks());
+
+    release.countDown();
+    for (ListenableFuture<?> future : futures) {
+      future.get(5, TimeUnit.SECONDS);
+    }
+    Assert.assertEquals(0, executor.getActiveTasks());
+    Assert.assertEquals(2, executor.getPeakActiveTasks());
+    Assert.assertEquals(2, executor.getCompletedTasks());
+  }
+
+  @Test
+  public void testExecute() throws Exception {
+    ProcessIoExecutor executor =
+        new ProcessIoExecutor(ProcessIoExecutor.newPooledExecutor(), false);
+    CountDownLatch ran = new CountDownLatch(1);
+    List<String> names = new ArrayList<>();
+
+    executor.execute(
+        "wait-for-process-exit",
+        () -> {
+          names.add(Thread.currentThread().getName());
+          ran.countDown();
+        });
+
+    Assert.assertTrue(ran.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals("wait-for-process-exit", names.get(0));
+  }
+
+  @Test
+  public void testSubmit_cancelInterrupts() throws Exception {
+    ProcessIoExecutor executor =
+        new ProcessIoExecutor(ProcessIoExecutor.newPooledExecutor(), false);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+
+    ListenableFuture<?> future =
+        executor.submit(
+            "pump",
+            () -> {
+              started.countDown();
+              try {
+                new CountDownLatch(1).await();
+              } catch (InterruptedException ex) {
+                interrupted.countDown();
+              }
+            });
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    future.cancel(true);
+
+    Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testPooledExecutor_overflowsInsteadOfQueueing() throws Exception {
+    ThreadPoolExecutor pool = ProcessIoExecutor.newPooledExecutor();
+    ProcessIoExecutor executor = new ProcessIoExecutor(pool, false);
+    int tasks = ProcessIoExecutor.MAX_POOLED_THREADS + 2;
+    CountDownLatch started = new CountDownLatch(tasks);
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<ListenableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < tasks; i++) {
+      futures.add(
+          executor.submit(
+              "pump",
+              () -> {
+                started.countDown();
+                release.await();
+                return null;
+              }));
+    }
+
+    // every task runs at once, a blocked pump must never hold up another process
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(ProcessIoExecutor.MAX_POOLED_THREADS, pool.getPoolSize());
+    release.countDown();
+    for (ListenableFuture<Void> future : futures) {
+      Assert.assertNull(future.get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testGetInstance() {
+    ProcessIoExecutor instance = ProcessIoExecutor.getInstance();
+    Assert.assertSame(instance, ProcessIoExecutor.getInstance());
+    Assert.assertEquals(
+        !System.getProperty("java.specification.version").startsWith("1.")
+            && Integer.parseInt(System.getProperty("java.specification.version")) >= 21,
+        instance.usesVirtualThreads());
+  }
+}
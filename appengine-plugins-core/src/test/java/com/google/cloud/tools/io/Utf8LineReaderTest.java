@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Tests for {@link Utf8LineReader}. */
+public class Utf8LineReaderTest {
+
+  private static List<String> readLines(InputStream inputStream, int maxLineLength)
+      throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (Utf8LineReader reader = new Utf8LineReader(inputStream, maxLineLength)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  private static List<String> readLines(String text) throws IOException {
+    return readLines(
+        new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+        Utf8LineReader.DEFAULT_MAX_LINE_LENGTH);
+  }
+
+  /** Returns at most one byte per read, to split every character and line break. */
+  private static InputStream trickle(String text) {
+    return new FilterInputStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))) {
+      @Override
+      public int read(byte[] bytes, int offset, int length) throws IOException {
+        return super.read(bytes, offset, Math.min(length, 1));
+      }
+    };
+  }
+
+  @Test
+  public void testReadLine_lineBreaks() throws IOException {
+    Assert.assertEquals(
+        Arrays.asList("unix", "windows", "mac", "", "last"),
+        readLines("unix\nwindows\r\nmac\r\rlast"));
+  }
+
+  @Test
+  public void testReadLine_trailingLineBreak() throws IOException {
+    Assert.assertEquals(Arrays.asList("one", "two"), readLines("one\ntwo\n"));
+    Assert.assertEquals(Arrays.asList("one", ""), readLines("one\n\n"));
+  }
+
+  @Test
+  public void testReadLine_empty() throws IOException {
+    Assert.assertEquals(Collections.emptyList(), readLines(""));
+  }
+
+  @Test
+  public void testReadLine_multibyteSplitAcrossReads() throws IOException {
+    String text = "déploiement ✓\r\n🚀 lancé\r\n";
+    Assert.assertEquals(
+        Arrays.asList("déploiement ✓", "🚀 lancé"),
+        readLines(trickle(text), Utf8LineReader.DEFAULT_MAX_LINE_LENGTH));
+  }
+
+  @Test
+  public void testReadLine_longerThanBuffer() throws IOException {
+    String longLine = String.join("", Collections.nCopies(3000, "0123456789"));
+    Assert.assertEquals(Arrays.asList(longLine, "next"), readLines(longLine + "\nnext"));
+  }
+
+  @Test
+  public void testReadLine_maxLineLength() throws IOException {
+    Assert.assertEquals(
+        Arrays.asList("abcd", "ef", "ghij"),
+        readLines(new ByteArrayInputStream("abcdef\nghij\n".getBytes(StandardCharsets.UTF_8)), 4));
+  }
+
+  @Test
+  public void testReadLine_maxLineLengthSplitsBetweenCharacters() throws IOException {
+    // "a" and the 4 byte rocket do not fit in 4 bytes, the rocket moves to the next part
+    Assert.assertEquals(Arrays.asList("a", "🚀", "éé", "b"), readLines(trickle("a🚀ééb"), 4));
+  }
+
+  @Test
+  public void testReadLine_malformed() throws IOException {
+    InputStream inputStream = new ByteArrayInputStream(new byte[] {'a', (byte) 0xFF, '\n', 'b'});
+    Assert.assertEquals(Arrays.asList("a\uFFFD", "b"), readLines(inputStream, 4));
+  }
+
+  @Test
+  public void testConstructor_maxLineLengthTooSmall() {
+    try {
+      new Utf8LineReader(new ByteArrayInputStream(new byte[0]), 3);
+      Assert.fail();
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals("maxLineLength must be at least 4", ex.getMessage());
+    }
+  }
+}
@@ -19,6 +19,7 @@ package com.google.cloud.tools.managedcloudsdk;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -124,15 +125,32 @@ public class ChildProgressListenerTest {
     testListener.update(10);
     testListener.update(80);
     testListener.update(10);
-    // should only update parent at done
+    // approaches the allocation without reaching it, the rest is reported at done
     testListener.done();
 
     InOrder verifier = Mockito.inOrder(mockParent);
     verifier.verify(mockParent).update("start");
-    verifier.verify(mockParent).update(100);
+    verifier.verify(mockParent).update(11);
+    verifier.verify(mockParent).update(9);
+    verifier.verify(mockParent).update(80);
     verifier.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void testChildProgressListener_unknownNeverReachesAllocation() {
+    ChildProgressListener testListener = new ChildProgressListener(mockParent, 100);
+
+    testListener.start("start", ProgressListener.UNKNOWN);
+    for (int i = 0; i < 1000; i++) {
+      testListener.update(1024 * 1024);
+    }
+
+    ArgumentCaptor<Long> updates = ArgumentCaptor.forClass(Long.class);
+    Mockito.verify(mockParent, Mockito.atLeastOnce()).update(updates.capture());
+    long reported = updates.getAllValues().stream().mapToLong(Long::longValue).sum();
+    Assert.assertTrue(reported > 50 && reported < 100);
+  }
+
   @Test
   public void testChildProgressListener_doneBeforeAnything() {
     ChildProgressListener testListener = new ChildProgressListener(mockParent, 100);
@@ -27,15 +27,21 @@ import com.google.cloud.tools.managedcloudsdk.components.WindowsBundledPythonCop
 import com.google.cloud.tools.managedcloudsdk.install.SdkInstallerException;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -171,6 +177,214 @@ public class ManagedCloudSdkTest {
       Paths.get("google-cloud-tools-java/managed-cloud-sdk");
   private static final Path CLOUD_SDK_PARTIAL_PATH_WINDOWS = Paths.get("google/ct4j-cloud-sdk");
 
+  @Test
+  public void testDeduplicate_latestUnsupported()
+      throws UnsupportedOsException, IOException, InterruptedException {
+    ManagedCloudSdk testSdk =
+        new ManagedCloudSdk(Version.LATEST, userHome, OsInfo.getSystemOsInfo());
+    try {
+      testSdk.deduplicate();
+      Assert.fail("UnsupportedOperationException expected");
+    } catch (UnsupportedOperationException expected) {
+      Assert.assertEquals("Cannot deduplicate a LATEST SDK.", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void testMissingComponents_notInstalled()
+      throws UnsupportedOsException, ManagedSdkVerificationException {
+    ManagedCloudSdk testSdk =
+        new ManagedCloudSdk(Version.LATEST, userHome, OsInfo.getSystemOsInfo());
+
+    Assert.assertEquals(
+        Arrays.asList(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA),
+        testSdk.missingComponents(
+            Arrays.asList(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA, SdkComponent.BETA)));
+  }
+
+  @Test
+  public void testMissingComponents_readsInstalledSnapshots()
+      throws UnsupportedOsException, ManagedSdkVerificationException, IOException {
+    ManagedCloudSdk testSdk =
+        new ManagedCloudSdk(Version.LATEST, userHome, OsInfo.getSystemOsInfo());
+    Files.createDirectories(testSdk.getGcloudPath().getParent());
+    Files.createFile(testSdk.getGcloudPath());
+    Path installDirectory = Files.createDirectories(testSdk.getSdkHome().resolve(".install"));
+    Files.write(
+        installDirectory.resolve("app-engine-java.snapshot.json"),
+        "{\"components\": [{\"id\": \"app-engine-java\"}]}".getBytes(StandardCharsets.UTF_8));
+
+    List<SdkComponent> components = Arrays.asList(SdkComponent.APP_ENGINE_JAVA, SdkComponent.BETA);
+    Assert.assertEquals(
+        Collections.singletonList(SdkComponent.BETA), testSdk.missingComponents(components));
+    Assert.assertFalse(testSdk.hasComponents(components));
+    Assert.assertTrue(
+        testSdk.hasComponents(Collections.singletonList(SdkComponent.APP_ENGINE_JAVA)));
+  }
+
+  private ManagedCloudSdk newFakeLatestSdk(long lastUpdateCheck, boolean upToDate)
+      throws UnsupportedOsException, IOException {
+    Assume.assumeFalse(System.getProperty("os.name").startsWith("Windows"));
+    ManagedCloudSdk testSdk =
+        new ManagedCloudSdk(Version.LATEST, userHome, OsInfo.getSystemOsInfo());
+    // a gcloud that always fails, so querying it can be detected
+    Files.createDirectories(testSdk.getGcloudPath().getParent());
+    Files.write(testSdk.getGcloudPath(), "#!/bin/sh\nexit 1\n".getBytes(StandardCharsets.UTF_8));
+    Assert.assertTrue(testSdk.getGcloudPath().toFile().setExecutable(true));
+    Files.createDirectories(testSdk.getSdkHome().resolve(".install"));
+    SdkVerificationState state = SdkVerificationState.load(testSdk.getSdkHome());
+    state.setUpdateCheck(lastUpdateCheck, upToDate);
+    state.save();
+    return testSdk;
+  }
+
+  @Test
+  public void testIsUpToDate_withinCheckInterval()
+      throws UnsupportedOsException, IOException, ManagedSdkVerificationException {
+    ManagedCloudSdk testSdk = newFakeLatestSdk(System.currentTimeMillis() - 60_000, true);
+
+    Assert.assertTrue(testSdk.isUpToDate(Duration.ofHours(24)));
+  }
+
+  @Test
+  public void testIsUpToDate_checkIntervalElapsed() throws UnsupportedOsException, IOException {
+    ManagedCloudSdk testSdk =
+        newFakeLatestSdk(System.currentTimeMillis() - Duration.ofHours(25).toMillis(), true);
+
+    try {
+      testSdk.isUpToDate(Duration.ofHours(24));
+      Assert.fail("ManagedSdkVerificationException expected, gcloud should have been queried");
+    } catch (ManagedSdkVerificationException expected) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testIsUpToDate_previousCheckFoundUpdates()
+      throws UnsupportedOsException, IOException {
+    ManagedCloudSdk testSdk = newFakeLatestSdk(System.currentTimeMillis() - 60_000, false);
+
+    try {
+      testSdk.isUpToDate(Duration.ofHours(24));
+      Assert.fail("ManagedSdkVerificationException expected, gcloud should have been queried");
+    } catch (ManagedSdkVerificationException expected) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testIsUpToDate_zeroCheckInterval() throws UnsupportedOsException, IOException {
+    ManagedCloudSdk testSdk = newFakeLatestSdk(System.currentTimeMillis() - 60_000, true);
+
+    try {
+      testSdk.isUpToDate(Duration.ZERO);
+      Assert.fail("ManagedSdkVerificationException expected, gcloud should have been queried");
+    } catch (ManagedSdkVerificationException expected) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testSharedSdk_readsStoreWithoutWriting()
+      throws UnsupportedOsException, IOException, ManagedSdkVerificationException,
+          ManagedSdkVersionMismatchException, BadCloudSdkVersionException {
+    Path store = userHome.resolve("shared-store");
+    Path overlay = userHome.resolve("overlay");
+    ManagedCloudSdk testSdk =
+        ManagedCloudSdk.newManagedSdk(new Version(FIXED_VERSION), store, overlay);
+    Files.createDirectories(testSdk.getGcloudPath().getParent());
+    Files.createFile(testSdk.getGcloudPath());
+    Files.write(
+        testSdk.getSdkHome().resolve("VERSION"), FIXED_VERSION.getBytes(StandardCharsets.UTF_8));
+    Files.createDirectories(testSdk.getSdkHome().resolve(".install"));
+
+    Assert.assertTrue(testSdk.isShared());
+    Assert.assertEquals(
+        store.resolve(FIXED_VERSION).resolve("google-cloud-sdk"), testSdk.getSdkHome());
+    Assert.assertTrue(testSdk.isInstalled());
+    Assert.assertTrue(testSdk.isUpToDate());
+    Assert.assertFalse(
+        Files.exists(testSdk.getSdkHome().resolve(SdkVerificationState.STATE_FILE_NAME)));
+    Assert.assertFalse(Files.exists(testSdk.getSdkHome().resolveSibling(".last-used")));
+    Assert.assertEquals(
+        Collections.singletonMap("CLOUDSDK_CONFIG", overlay.resolve("config").toString()),
+        testSdk.getEnvironment());
+  }
+
+  @Test
+  public void testSharedSdk_upToDateWithMirror()
+      throws UnsupportedOsException, IOException, ManagedSdkVerificationException {
+    ManagedCloudSdk testSdk =
+        ManagedCloudSdk.newManagedSdk(
+            Version.LATEST, userHome.resolve("shared-store"), userHome.resolve("overlay"));
+    Files.createDirectories(testSdk.getGcloudPath().getParent());
+    Files.createFile(testSdk.getGcloudPath());
+
+    // the mirror has no snapshot, a shared SDK must not read it
+    Assert.assertTrue(testSdk.isUpToDate(tempDir.newFolder("mirror").toPath()));
+  }
+
+  @Test
+  public void testSharedSdk_cannotBeModified() throws Exception {
+    ManagedCloudSdk testSdk =
+        ManagedCloudSdk.newManagedSdk(
+            Version.LATEST, userHome.resolve("shared-store"), userHome.resolve("overlay"));
+
+    try {
+      testSdk.newInstaller();
+      Assert.fail("UnsupportedOperationException expected");
+    } catch (UnsupportedOperationException expected) {
+      Assert.assertEquals(
+          "Cannot modify the shared Cloud SDK store at " + userHome.resolve("shared-store"),
+          expected.getMessage());
+    }
+    try {
+      testSdk.newComponentInstaller();
+      Assert.fail("UnsupportedOperationException expected");
+    } catch (UnsupportedOperationException expected) {
+      // pass
+    }
+    try {
+      testSdk.newUpdater();
+      Assert.fail("UnsupportedOperationException expected");
+    } catch (UnsupportedOperationException expected) {
+      // pass
+    }
+    try {
+      testSdk.removeUnusedVersions(Duration.ZERO, 0);
+      Assert.fail("UnsupportedOperationException expected");
+    } catch (UnsupportedOperationException expected) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testRemoveUnusedVersions_keepsOwnVersion() throws Exception {
+    ManagedCloudSdk testSdk =
+        new ManagedCloudSdk(new Version(FIXED_VERSION), userHome, OsInfo.getSystemOsInfo());
+    Files.createDirectories(testSdk.getSdkHome());
+    Path otherVersion =
+        Files.createDirectories(userHome.resolve("100.0.0").resolve("google-cloud-sdk"));
+    // last used before the grace period
+    Files.setLastModifiedTime(
+        otherVersion.getParent(), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+    Assert.assertEquals(
+        Collections.singletonList("100.0.0"), testSdk.removeUnusedVersions(Duration.ZERO, 0));
+    Assert.assertTrue(Files.exists(testSdk.getSdkHome()));
+    Assert.assertFalse(Files.exists(otherVersion));
+  }
+
+  @Test
+  public void testOwnedSdk_defaultEnvironment() throws UnsupportedOsException {
+    ManagedCloudSdk testSdk =
+        new ManagedCloudSdk(Version.LATEST, userHome, OsInfo.getSystemOsInfo());
+
+    Assert.assertFalse(testSdk.isShared());
+    Assert.assertNull(testSdk.getConfigDirectory());
+    Assert.assertTrue(testSdk.getEnvironment().isEmpty());
+  }
+
   @Test
   public void testGetOsSpecificManagedSdk_windowsStandard() throws IOException {
     Path localAppData = Files.createDirectories(userHome.resolve("AppData").resolve("Local"));
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MeteredProgressListenerTest {
+
+  @Mock private ProgressListener mockDelegate;
+
+  private final FakeTicker ticker = new FakeTicker();
+
+  @Test
+  public void testUpdate_coalescedWithinInterval() {
+    MeteredProgressListener testListener = new MeteredProgressListener(mockDelegate, 100, ticker);
+
+    testListener.start("start", 1000);
+    testListener.update(10);
+    testListener.update(20);
+    ticker.advance(100);
+    testListener.update(30);
+    testListener.update(40);
+    testListener.done();
+
+    InOrder verifier = Mockito.inOrder(mockDelegate);
+    verifier.verify(mockDelegate).start("start", 1000);
+    verifier.verify(mockDelegate).update(60);
+    verifier.verify(mockDelegate).update(40);
+    verifier.verify(mockDelegate).done();
+    verifier.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void testUpdateMessage_flushesPendingWork() {
+    MeteredProgressListener testListener = new MeteredProgressListener(mockDelegate, 100, ticker);
+
+    testListener.start("start", ProgressListener.UNKNOWN);
+    testListener.update(10);
+    testListener.update("message");
+
+    InOrder verifier = Mockito.inOrder(mockDelegate);
+    verifier.verify(mockDelegate).start("start", ProgressListener.UNKNOWN);
+    verifier.verify(mockDelegate).update(10);
+    verifier.verify(mockDelegate).update("message");
+    verifier.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void testRateAndEstimatedTimeRemaining() {
+    MeteredProgressListener testListener = new MeteredProgressListener(mockDelegate, 100, ticker);
+
+    testListener.start("start", 1000);
+    ticker.advance(2000);
+    testListener.update(250);
+
+    Assert.assertEquals(250, testListener.getWorkDone());
+    Assert.assertEquals(Duration.ofSeconds(2), testListener.getElapsed());
+    Assert.assertEquals(125.0, testListener.getRate(), 0.001);
+    Assert.assertEquals(Duration.ofSeconds(6), testListener.getEstimatedTimeRemaining());
+
+    testListener.done();
+    ticker.advance(5000);
+    Assert.assertEquals(Duration.ofSeconds(2), testListener.getElapsed());
+  }
+
+  @Test
+  public void testEstimatedTimeRemaining_unknownTotal() {
+    MeteredProgressListener testListener = new MeteredProgressListener(mockDelegate, 100, ticker);
+
+    testListener.start("start", ProgressListener.UNKNOWN);
+    ticker.advance(1000);
+    testListener.update(250);
+
+    Assert.assertEquals(250.0, testListener.getRate(), 0.001);
+    Assert.assertNull(testListener.getEstimatedTimeRemaining());
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk;
+
+import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link SdkVerificationState}. */
+public class SdkVerificationStateTest {
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  private Path sdkHome;
+  private Path installDirectory;
+  private Path coreSnapshot;
+
+  @Before
+  public void setUp() throws IOException {
+    sdkHome = tmp.getRoot().toPath();
+    installDirectory = Files.createDirectories(sdkHome.resolve(".install"));
+    coreSnapshot = installDirectory.resolve("core.snapshot.json");
+    Files.write(coreSnapshot, "{}".getBytes(StandardCharsets.UTF_8));
+    setModified(coreSnapshot, 1000);
+    setModified(installDirectory, 1000);
+  }
+
+  private static void setModified(Path path, long millis) throws IOException {
+    Files.setLastModifiedTime(path, FileTime.fromMillis(millis));
+  }
+
+  private static void saveVerifiedState(Path sdkHome) {
+    SdkVerificationState state = SdkVerificationState.load(sdkHome);
+    state.setVerifiedVersion("1.2.3");
+    state.addComponent(SdkComponent.APP_ENGINE_JAVA);
+    state.setUpdateCheck(42, true);
+    state.save();
+  }
+
+  @Test
+  public void testLoad_noStateFile() {
+    SdkVerificationState state = SdkVerificationState.load(sdkHome);
+
+    Assert.assertFalse(state.isVersionVerified("1.2.3"));
+    Assert.assertFalse(state.hasComponent(SdkComponent.APP_ENGINE_JAVA));
+    Assert.assertEquals(0, state.getLastUpdateCheck());
+  }
+
+  @Test
+  public void testSaveAndLoad() {
+    saveVerifiedState(sdkHome);
+
+    SdkVerificationState state = SdkVerificationState.load(sdkHome);
+    Assert.assertTrue(state.isVersionVerified("1.2.3"));
+    Assert.assertFalse(state.isVersionVerified("1.2.4"));
+    Assert.assertTrue(state.hasComponent(SdkComponent.APP_ENGINE_JAVA));
+    Assert.assertFalse(state.hasComponent(SdkComponent.BETA));
+    Assert.assertEquals(42, state.getLastUpdateCheck());
+    Assert.assertTrue(state.wasUpToDate());
+  }
+
+  @Test
+  public void testLoad_invalidatedBySnapshotChange() throws IOException {
+    saveVerifiedState(sdkHome);
+    setModified(coreSnapshot, 2000);
+
+    SdkVerificationState state = SdkVerificationState.load(sdkHome);
+    Assert.assertFalse(state.isVersionVerified("1.2.3"));
+    Assert.assertFalse(state.hasComponent(SdkComponent.APP_ENGINE_JAVA));
+    Assert.assertEquals(0, state.getLastUpdateCheck());
+  }
+
+  @Test
+  public void testLoad_invalidatedByComponentRemoval() throws IOException {
+    saveVerifiedState(sdkHome);
+    Files.delete(coreSnapshot);
+    setModified(installDirectory, 2000);
+
+    Assert.assertFalse(SdkVerificationState.load(sdkHome).isVersionVerified("1.2.3"));
+  }
+
+  @Test
+  public void testLoad_corruptStateFile() throws IOException {
+    Files.write(
+        sdkHome.resolve(SdkVerificationState.STATE_FILE_NAME),
+        "{not json".getBytes(StandardCharsets.UTF_8));
+
+    Assert.assertFalse(SdkVerificationState.load(sdkHome).isVersionVerified("1.2.3"));
+  }
+
+  @Test
+  public void testSave_noInstallState() throws IOException {
+    Path emptySdkHome = tmp.newFolder("empty").toPath();
+    saveVerifiedState(emptySdkHome);
+
+    Assert.assertFalse(Files.exists(emptySdkHome.resolve(SdkVerificationState.STATE_FILE_NAME)));
+    Assert.assertFalse(SdkVerificationState.load(emptySdkHome).isVersionVerified("1.2.3"));
+  }
+}
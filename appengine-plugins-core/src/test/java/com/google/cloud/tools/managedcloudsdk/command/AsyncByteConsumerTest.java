@@ -16,13 +16,12 @@
 
 package com.google.cloud.tools.managedcloudsdk.command;
 
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
+import com.google.cloud.tools.io.ProcessIoExecutor;
 import com.google.common.util.concurrent.SettableFuture;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Callable;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -38,38 +37,37 @@ public class AsyncByteConsumerTest {
   private final InputStream fakeInputStream =
       new ByteArrayInputStream(TEST_STRING.getBytes(StandardCharsets.UTF_8));
 
-  @Mock private ExecutorService executorService;
+  @Mock private ProcessIoExecutor processIoExecutor;
   @Mock private ByteHandler mockByteHandler;
   @Mock private InputStream mockInputStream;
 
   private SettableFuture<String> future = SettableFuture.create();
 
+  private void mockSubmit() {
+    Mockito.when(
+            processIoExecutor.submit(Mockito.eq("command-output"), Mockito.<Callable<String>>any()))
+        .thenReturn(SettableFuture.create());
+  }
+
   @Test
   public void testHandleStream() {
-    Mockito.when(executorService.isShutdown()).thenReturn(false);
-
-    ListeningExecutorService listeningExecutorService =
-        MoreExecutors.listeningDecorator(executorService);
-
-    AsyncByteConsumer consumer =
-        new AsyncByteConsumer(mockByteHandler, listeningExecutorService, future);
+    mockSubmit();
+    AsyncByteConsumer consumer = new AsyncByteConsumer(mockByteHandler, processIoExecutor, future);
     consumer.handleStream(mockInputStream);
 
-    Mockito.verify(executorService).isShutdown();
-    Mockito.verify(executorService).execute(Mockito.<Runnable>any());
-    Mockito.verify(executorService).shutdown();
-    Mockito.verifyNoMoreInteractions(executorService);
+    Mockito.verify(processIoExecutor)
+        .submit(Mockito.eq("command-output"), Mockito.<Callable<String>>any());
+    Mockito.verifyNoMoreInteractions(processIoExecutor);
   }
 
   @Test
   public void testHandleStream_failIfReused() {
-    Mockito.when(executorService.isShutdown()).thenReturn(true);
-    ListeningExecutorService listeningExecutorService =
-        MoreExecutors.listeningDecorator(executorService);
+    mockSubmit();
+    AsyncByteConsumer consumer = new AsyncByteConsumer(mockByteHandler, processIoExecutor, future);
+    consumer.handleStream(mockInputStream);
 
     try {
-      new AsyncByteConsumer(mockByteHandler, listeningExecutorService, future)
-          .handleStream(mockInputStream);
+      consumer.handleStream(mockInputStream);
       Assert.fail("IllegalStateException expected but not thrown");
     } catch (IllegalStateException ex) {
       // pass
@@ -79,10 +77,7 @@ public class AsyncByteConsumerTest {
 
   @Test
   public void testConsumeBytes() throws Exception {
-    ListeningExecutorService listeningExecutorService =
-        MoreExecutors.listeningDecorator(executorService);
-    new AsyncByteConsumer(mockByteHandler, listeningExecutorService, future)
-        .consumeBytes(fakeInputStream);
+    new AsyncByteConsumer(mockByteHandler, processIoExecutor, future).consumeBytes(fakeInputStream);
 
     ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
     ArgumentCaptor<Integer> nBytes = ArgumentCaptor.forClass(Integer.class);
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.components;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ComponentSnapshotTest {
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  /** Write a snapshot in the format of {@code components-2.json}. */
+  static void writeSnapshot(Path file, String... componentsAndBuildNumbers) throws IOException {
+    StringBuilder json = new StringBuilder("{\"revision\": 1, \"components\": [");
+    for (int i = 0; i < componentsAndBuildNumbers.length; i += 2) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"id\": \"")
+          .append(componentsAndBuildNumbers[i])
+          .append("\", \"version\": {\"build_number\": ")
+          .append(componentsAndBuildNumbers[i + 1])
+          .append(", \"version_string\": \"1.0\"}}");
+    }
+    json.append("]}");
+    Files.createDirectories(file.getParent());
+    Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testFromInstalledSdk() throws IOException {
+    Path sdkHome = tmp.getRoot().toPath();
+    writeSnapshot(sdkHome.resolve(".install/core.snapshot.json"), "core", "100");
+    writeSnapshot(
+        sdkHome.resolve(".install/app-engine-java.snapshot.json"), "app-engine-java", "200");
+    Files.createFile(sdkHome.resolve(".install/core.manifest"));
+
+    ComponentSnapshot snapshot = ComponentSnapshot.fromInstalledSdk(sdkHome);
+
+    Assert.assertEquals(ImmutableSet.of("core", "app-engine-java"), snapshot.getComponentIds());
+    Assert.assertTrue(snapshot.hasComponent(SdkComponent.APP_ENGINE_JAVA));
+    Assert.assertFalse(snapshot.hasComponent(SdkComponent.BETA));
+  }
+
+  @Test
+  public void testFromInstalledSdk_noInstallState() throws IOException {
+    Assert.assertTrue(
+        ComponentSnapshot.fromInstalledSdk(tmp.getRoot().toPath()).getComponentIds().isEmpty());
+  }
+
+  @Test
+  public void testGetChangedComponents() throws IOException {
+    Path installed = tmp.getRoot().toPath().resolve("installed.json");
+    writeSnapshot(installed, "core", "100", "beta", "100", "app-engine-java", "200");
+    Path available = tmp.getRoot().toPath().resolve("components-2.json");
+    writeSnapshot(available, "core", "101", "beta", "100", "alpha", "300");
+
+    Assert.assertEquals(
+        ImmutableSet.of("core"),
+        ComponentSnapshot.fromFile(installed)
+            .getChangedComponents(ComponentSnapshot.fromFile(available)));
+  }
+
+  @Test
+  public void testFromFile_invalid() throws IOException {
+    Path file = tmp.newFile("components-2.json").toPath();
+    Files.write(file, "not json".getBytes(StandardCharsets.UTF_8));
+    try {
+      ComponentSnapshot.fromFile(file);
+      Assert.fail("IOException expected");
+    } catch (IOException expected) {
+      Assert.assertEquals("Failed to parse component snapshot " + file, expected.getMessage());
+    }
+  }
+}
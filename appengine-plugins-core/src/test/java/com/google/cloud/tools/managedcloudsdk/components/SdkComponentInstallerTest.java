@@ -100,6 +100,27 @@ public class SdkComponentInstallerTest {
             Mockito.any(ConsoleListener.class));
   }
 
+  @Test
+  public void testRemoveComponents_successRun()
+      throws InterruptedException, CommandExitException, CommandExecutionException {
+    SdkComponentInstaller testInstaller =
+        new SdkComponentInstaller(fakeGcloudPath, mockCommandRunner, null);
+    testInstaller.removeComponents(
+        Arrays.asList(SdkComponent.BQ, SdkComponent.GSUTIL),
+        mockProgressListener,
+        mockConsoleListener);
+    Mockito.verify(mockProgressListener).start("Removing bq, gsutil", -1L);
+    Mockito.verify(mockProgressListener).done();
+    Mockito.verify(mockCommandRunner)
+        .run(
+            Mockito.eq(
+                Arrays.asList(
+                    fakeGcloudPath.toString(), "components", "remove", "bq", "gsutil", "--quiet")),
+            Mockito.nullable(Path.class),
+            Mockito.<Map<String, String>>any(),
+            Mockito.eq(mockConsoleListener));
+  }
+
   private List<String> expectedCommand() {
     return Arrays.asList(
         fakeGcloudPath.toString(), "components", "install", testComponent.toString(), "--quiet");
@@ -21,13 +21,17 @@ import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExecutionException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
+import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -37,6 +41,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class SdkUpdaterTest {
 
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
   @Mock private ConsoleListener mockConsoleListener;
   @Mock private ProgressListener mockProgressListener;
   @Mock private CommandRunner mockCommandRunner;
@@ -97,6 +103,49 @@ public class SdkUpdaterTest {
             Mockito.any(ConsoleListener.class));
   }
 
+  @Test
+  public void testUpdate_mirrorWithoutChanges()
+      throws InterruptedException, CommandExitException, CommandExecutionException, IOException {
+    Path sdkHome = tmp.getRoot().toPath().resolve("google-cloud-sdk");
+    ComponentSnapshotTest.writeSnapshot(
+        sdkHome.resolve(".install/core.snapshot.json"), "core", "100");
+    Path mirror = tmp.newFolder("mirror").toPath();
+    ComponentSnapshotTest.writeSnapshot(
+        mirror.resolve("components-2.json"), "core", "100", "beta", "300");
+
+    SdkUpdater testUpdater =
+        new SdkUpdater(sdkHome.resolve("bin/gcloud"), mockCommandRunner, null, mirror);
+    testUpdater.update(mockProgressListener, mockConsoleListener);
+
+    Mockito.verify(mockProgressListener).start(Mockito.anyString(), Mockito.eq(-1L));
+    Mockito.verify(mockProgressListener).done();
+    Mockito.verifyNoInteractions(mockCommandRunner);
+  }
+
+  @Test
+  public void testUpdate_mirrorWithChanges()
+      throws InterruptedException, CommandExitException, CommandExecutionException, IOException {
+    Path sdkHome = tmp.getRoot().toPath().resolve("google-cloud-sdk");
+    ComponentSnapshotTest.writeSnapshot(
+        sdkHome.resolve(".install/core.snapshot.json"), "core", "100");
+    Path mirror = tmp.newFolder("mirror").toPath();
+    ComponentSnapshotTest.writeSnapshot(mirror.resolve("components-2.json"), "core", "101");
+    Path gcloud = sdkHome.resolve("bin/gcloud");
+
+    SdkUpdater testUpdater = new SdkUpdater(gcloud, mockCommandRunner, null, mirror);
+    testUpdater.update(mockProgressListener, mockConsoleListener);
+
+    Mockito.verify(mockCommandRunner)
+        .run(
+            Mockito.eq(Arrays.asList(gcloud.toString(), "components", "update", "--quiet")),
+            Mockito.nullable(Path.class),
+            Mockito.eq(
+                Collections.singletonMap(
+                    SdkUpdater.SNAPSHOT_URL_ENV,
+                    mirror.resolve("components-2.json").toUri().toString())),
+            Mockito.eq(mockConsoleListener));
+  }
+
   private List<String> expectedCommand() {
     return Arrays.asList(fakeGcloudPath.toString(), "components", "update", "--quiet");
   }
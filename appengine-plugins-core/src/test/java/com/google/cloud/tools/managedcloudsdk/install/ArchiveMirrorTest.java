@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.cloud.tools.managedcloudsdk.BadCloudSdkVersionException;
+import com.google.cloud.tools.managedcloudsdk.OsInfo;
+import com.google.cloud.tools.managedcloudsdk.Version;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link ArchiveMirror}. */
+public class ArchiveMirrorTest {
+
+  @Rule public TemporaryFolder testDir = new TemporaryFolder();
+
+  private static final OsInfo LINUX = new OsInfo(OsInfo.Name.LINUX, OsInfo.Architecture.X86_64);
+
+  private Path mirror;
+
+  @Before
+  public void setUp() throws IOException {
+    mirror = testDir.newFolder("mirror").toPath();
+  }
+
+  private void writeIndex(String json) throws IOException {
+    Files.write(
+        mirror.resolve(ArchiveMirror.INDEX_FILE_NAME), json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testFind() throws IOException, BadCloudSdkVersionException {
+    writeIndex(
+        "{\"archives\": ["
+            + "{\"version\": \"1.2.3\", \"os\": \"mac\", \"arch\": \"x86_64\", \"file\": \"mac.tar.gz\"},"
+            + "{\"version\": \"1.2.3\", \"os\": \"linux\", \"arch\": \"x86_64\","
+            + " \"file\": \"sdk/linux.tar.gz\", \"sha256\": \"abcd\"}"
+            + "]}");
+
+    ArchiveMirror.MirroredArchive archive =
+        new ArchiveMirror(mirror.toUri()).find(new Version("1.2.3"), LINUX);
+
+    Assert.assertEquals(mirror.resolve("sdk/linux.tar.gz").toUri().toURL(), archive.getUrl());
+    Assert.assertEquals("linux.tar.gz", archive.getFileName());
+    Assert.assertEquals("abcd", archive.getSha256());
+  }
+
+  @Test
+  public void testFind_latestWithoutDigest() throws IOException {
+    writeIndex(
+        "{\"archives\": ["
+            + "{\"version\": \"LATEST\", \"os\": \"LINUX\", \"arch\": \"X86_64\", \"file\": \"latest.tar.gz\"}"
+            + "]}");
+
+    // a mirror uri without a trailing slash is still treated as a directory
+    URI mirrorUri = URI.create(mirror.toUri().toString().replaceAll("/$", ""));
+    ArchiveMirror.MirroredArchive archive =
+        new ArchiveMirror(mirrorUri).find(Version.LATEST, LINUX);
+
+    Assert.assertEquals(mirror.resolve("latest.tar.gz").toUri().toURL(), archive.getUrl());
+    Assert.assertNull(archive.getSha256());
+  }
+
+  @Test
+  public void testFind_noMatchingArchive() throws IOException, BadCloudSdkVersionException {
+    writeIndex(
+        "{\"archives\": ["
+            + "{\"version\": \"1.2.3\", \"os\": \"linux\", \"arch\": \"x86\", \"file\": \"linux.tar.gz\"}"
+            + "]}");
+
+    try {
+      new ArchiveMirror(mirror.toUri()).find(new Version("1.2.3"), LINUX);
+      Assert.fail("IOException expected but not thrown");
+    } catch (IOException ex) {
+      Assert.assertEquals(
+          "No Cloud SDK 1.2.3 archive for LINUX/X86_64 in "
+              + mirror.toUri().resolve(ArchiveMirror.INDEX_FILE_NAME),
+          ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testFind_badIndex() throws IOException {
+    writeIndex("{\"archives\": [");
+
+    try {
+      new ArchiveMirror(mirror.toUri()).find(Version.LATEST, LINUX);
+      Assert.fail("IOException expected but not thrown");
+    } catch (IOException ex) {
+      MatcherAssert.assertThat(
+          ex.getMessage(), CoreMatchers.startsWith("Failed to parse mirror index"));
+    }
+  }
+
+  @Test
+  public void testFind_readTimeout() throws IOException {
+    // the server never responds, the connection is only accepted by the backlog
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      URI mirrorUri =
+          URI.create(
+              "http://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort());
+      try {
+        new ArchiveMirror(mirrorUri, 1000, 100).find(Version.LATEST, LINUX);
+        Assert.fail("SocketTimeoutException expected but not thrown");
+      } catch (SocketTimeoutException ex) {
+        // expected
+      }
+    }
+  }
+}
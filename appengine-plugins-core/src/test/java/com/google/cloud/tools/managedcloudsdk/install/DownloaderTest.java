@@ -17,8 +17,12 @@
 package com.google.cloud.tools.managedcloudsdk.install;
 
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
@@ -26,16 +30,21 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -188,4 +197,136 @@ public class DownloaderTest {
     Assert.assertFalse(Files.exists(destination));
     Mockito.verify(mockProgressListener, Mockito.never()).update(100);
   }
+
+  @Test
+  public void testDownload_setsTimeouts() throws IOException {
+    Path destination = tmp.getRoot().toPath().resolve("destination-file");
+    URLConnection mockConnection = Mockito.mock(URLConnection.class);
+    URL testUrl = new URL("", "", 80, "", newStreamHandler(mockConnection));
+
+    Downloader downloader =
+        new Downloader(testUrl, destination, "user agent", mockProgressListener, 1000, 2000, 1, 0);
+    try {
+      downloader.download();
+    } catch (Exception ex) {
+      // ignore, we're only looking for the timeouts being set
+    }
+    Mockito.verify(mockConnection).setConnectTimeout(1000);
+    Mockito.verify(mockConnection).setReadTimeout(2000);
+  }
+
+  @Test
+  public void testDownload_retriesServerErrors() throws IOException, InterruptedException {
+    byte[] contents = "archive contents".getBytes(StandardCharsets.UTF_8);
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server =
+        startServer(
+            exchange -> {
+              if (requests.incrementAndGet() < 3) {
+                exchange.sendResponseHeaders(503, -1);
+              } else {
+                exchange.sendResponseHeaders(200, contents.length);
+                exchange.getResponseBody().write(contents);
+              }
+              exchange.close();
+            });
+    try {
+      Path destination = tmp.getRoot().toPath().resolve("destination-file");
+      new Downloader(serverUrl(server), destination, "user agent", mockProgressListener, 0, 0, 3, 1)
+          .download();
+
+      Assert.assertEquals(3, requests.get());
+      Assert.assertArrayEquals(contents, Files.readAllBytes(destination));
+      Mockito.verify(mockProgressListener).start(Mockito.anyString(), Mockito.eq(16L));
+      Mockito.verify(mockProgressListener).done();
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void testDownload_resumesTruncatedTransfer() throws IOException, InterruptedException {
+    byte[] contents = "0123456789".getBytes(StandardCharsets.UTF_8);
+    List<String> ranges = new ArrayList<>();
+    HttpServer server =
+        startServer(
+            exchange -> {
+              String range = exchange.getRequestHeaders().getFirst("Range");
+              ranges.add(range);
+              if (range == null) {
+                // promise the whole archive but only send half of it
+                exchange.sendResponseHeaders(200, contents.length);
+                exchange.getResponseBody().write(contents, 0, 5);
+              } else {
+                Assert.assertEquals("bytes=5-", range);
+                exchange.sendResponseHeaders(206, 5);
+                exchange.getResponseBody().write(contents, 5, 5);
+              }
+              exchange.close();
+            });
+    try {
+      Path destination = tmp.getRoot().toPath().resolve("destination-file");
+      new Downloader(serverUrl(server), destination, "user agent", mockProgressListener, 0, 0, 3, 1)
+          .download();
+
+      Assert.assertEquals(Arrays.asList(null, "bytes=5-"), ranges);
+      Assert.assertArrayEquals(contents, Files.readAllBytes(destination));
+      Mockito.verify(mockProgressListener, Mockito.times(1))
+          .start(Mockito.anyString(), Mockito.eq(10L));
+      ArgumentCaptor<Long> updates = ArgumentCaptor.forClass(Long.class);
+      Mockito.verify(mockProgressListener, Mockito.atLeastOnce()).update(updates.capture());
+      Assert.assertEquals(10L, updates.getAllValues().stream().mapToLong(Long::longValue).sum());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void testDownload_doesNotRetryClientErrors() throws IOException, InterruptedException {
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server =
+        startServer(
+            exchange -> {
+              requests.incrementAndGet();
+              exchange.sendResponseHeaders(404, -1);
+              exchange.close();
+            });
+    try {
+      Path destination = tmp.getRoot().toPath().resolve("destination-file");
+      Downloader downloader =
+          new Downloader(
+              serverUrl(server), destination, "user agent", mockProgressListener, 0, 0, 3, 1);
+      try {
+        downloader.download();
+        Assert.fail("IOException expected but not thrown.");
+      } catch (IOException ex) {
+        Assert.assertEquals("Server returned HTTP 404 for " + serverUrl(server), ex.getMessage());
+      }
+      Assert.assertEquals(1, requests.get());
+      Assert.assertFalse(Files.exists(destination));
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static HttpServer startServer(HttpHandler handler) throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", handler);
+    server.start();
+    return server;
+  }
+
+  private static URL serverUrl(HttpServer server) throws IOException {
+    return new URL("http", "127.0.0.1", server.getAddress().getPort(), "/google-cloud-sdk.tar.gz");
+  }
+
+  private static URLStreamHandler newStreamHandler(URLConnection connection) {
+    return new URLStreamHandler() {
+      @Override
+      protected URLConnection openConnection(URL url) {
+        return connection;
+      }
+    };
+  }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExtractionDestinationTest {
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testResolve() throws IOException {
+    Path root = tmp.getRoot().toPath();
+    ExtractionDestination destination = new ExtractionDestination(root);
+
+    Assert.assertEquals(
+        root.toAbsolutePath().resolve("a").resolve("b.txt"), destination.resolve("a/./c/../b.txt"));
+  }
+
+  @Test
+  public void testResolve_outsideDestination() {
+    ExtractionDestination destination = new ExtractionDestination(tmp.getRoot().toPath());
+    for (String entryName : new String[] {"../evil.txt", "a/../../evil.txt", ".", "a/.."}) {
+      try {
+        destination.resolve(entryName);
+        Assert.fail("IOException expected for " + entryName);
+      } catch (IOException expected) {
+        Assert.assertEquals(
+            "Blocked unzipping files outside destination: " + entryName, expected.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testCreateDirectories() throws IOException {
+    Path root = tmp.getRoot().toPath();
+    ExtractionDestination destination = new ExtractionDestination(root);
+    Path directory = destination.resolve("a/b/c");
+
+    destination.createDirectories(directory);
+    Assert.assertTrue(Files.isDirectory(directory));
+
+    // already created directories (including parents) are not created again
+    Files.delete(directory);
+    destination.createDirectories(directory);
+    destination.createParentDirectories(directory);
+    Assert.assertFalse(Files.exists(directory));
+  }
+}
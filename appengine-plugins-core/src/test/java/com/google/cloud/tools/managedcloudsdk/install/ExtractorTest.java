@@ -20,6 +20,8 @@ import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -92,4 +94,38 @@ public class ExtractorTest {
     Mockito.verify(mockExtractorProvider)
         .extract(extractionSource, extractionDestination, mockProgressListener);
   }
+
+  @Test
+  public void testExtract_cleanupToTrashAfterException() throws Exception {
+    final Path extractionDestination = tmp.newFolder("target").toPath();
+    Path extractionSource = tmp.newFile("fake.archive").toPath();
+    Path trashDirectory = tmp.getRoot().toPath().resolve(Trash.DIRECTORY_NAME);
+    List<Runnable> pendingDeletions = new ArrayList<>();
+
+    Mockito.doAnswer(
+            invocation -> {
+              Files.createFile(extractionDestination.resolve("some-file"));
+              throw new IOException("Failed during extraction");
+            })
+        .when(mockExtractorProvider)
+        .extract(extractionSource, extractionDestination, mockProgressListener);
+
+    Extractor extractor =
+        new Extractor(
+            extractionSource,
+            extractionDestination,
+            mockExtractorProvider,
+            mockProgressListener,
+            new Trash(trashDirectory, pendingDeletions::add));
+
+    try {
+      extractor.extract();
+      Assert.fail("IOException expected but thrown - test infrastructure failure");
+    } catch (IOException ex) {
+      Assert.assertEquals("Failed during extraction", ex.getMessage());
+    }
+
+    Assert.assertFalse(Files.exists(extractionDestination));
+    Assert.assertEquals(1, pendingDeletions.size());
+  }
 }
@@ -19,8 +19,10 @@ package com.google.cloud.tools.managedcloudsdk.install;
 import com.google.cloud.tools.managedcloudsdk.BadCloudSdkVersionException;
 import com.google.cloud.tools.managedcloudsdk.OsInfo;
 import com.google.cloud.tools.managedcloudsdk.Version;
-import java.net.MalformedURLException;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
@@ -102,7 +104,7 @@ public class FileResourceProviderFactoryTest {
   }
 
   @Test
-  public void testNewFileResourceProvider_latest() throws MalformedURLException {
+  public void testNewFileResourceProvider_latest() throws IOException {
     FileResourceProviderFactory factory =
         new FileResourceProviderFactory(Version.LATEST, osInfo, fakeSdkHome);
     FileResourceProvider provider = factory.newFileResourceProvider();
@@ -125,7 +127,7 @@ public class FileResourceProviderFactoryTest {
 
   @Test
   public void testNewFileResourceProvider_versioned()
-      throws MalformedURLException, BadCloudSdkVersionException {
+      throws IOException, BadCloudSdkVersionException {
     FileResourceProviderFactory factory =
         new FileResourceProviderFactory(new Version("123.123.123"), osInfo, fakeSdkHome);
     FileResourceProvider provider = factory.newFileResourceProvider();
@@ -152,4 +154,32 @@ public class FileResourceProviderFactoryTest {
             .resolve(gcloudExecutable),
         provider.getExtractedGcloud());
   }
+
+  @Test
+  public void testNewFileResourceProvider_mirror() throws IOException, BadCloudSdkVersionException {
+    Path mirror = testDir.newFolder("mirror").toPath();
+    String index =
+        String.format(
+            "{\"archives\": [{\"version\": \"123.123.123\", \"os\": \"%s\", \"arch\": \"%s\","
+                + " \"file\": \"sdk.archive\", \"sha256\": \"abcd\"}]}",
+            osInfo.name(), osInfo.arch());
+    Files.write(
+        mirror.resolve(ArchiveMirror.INDEX_FILE_NAME), index.getBytes(StandardCharsets.UTF_8));
+
+    FileResourceProviderFactory factory =
+        new FileResourceProviderFactory(
+            new Version("123.123.123"), osInfo, fakeSdkHome, new ArchiveMirror(mirror.toUri()));
+    FileResourceProvider provider = factory.newFileResourceProvider();
+
+    Assert.assertEquals(mirror.resolve("sdk.archive").toUri().toURL(), provider.getArchiveSource());
+    Assert.assertEquals(fakeDownloadsDir.resolve("sdk.archive"), provider.getArchiveDestination());
+    Assert.assertEquals("abcd", provider.getArchiveSha256());
+    Assert.assertEquals(
+        fakeSdkHome
+            .resolve("123.123.123")
+            .resolve("google-cloud-sdk")
+            .resolve("bin")
+            .resolve(gcloudExecutable),
+        provider.getExtractedGcloud());
+  }
 }
@@ -45,5 +45,13 @@ public class FileResourceProviderTest {
             .resolve("bin")
             .resolve(testGcloudExecutableName),
         testProvider.getExtractedGcloud());
+    Assert.assertEquals(
+        Paths.get("/tmp/extract.staging"), testProvider.getArchiveStagingDestination());
+    Assert.assertEquals(
+        Paths.get("/tmp/extract.staging/google-cloud-sdk"), testProvider.getStagedSdkHome());
+    Assert.assertEquals(
+        Paths.get("/tmp/extract.staging/google-cloud-sdk/bin").resolve(testGcloudExecutableName),
+        testProvider.getStagedGcloud());
+    Assert.assertEquals(Paths.get("/tmp/extract.lock"), testProvider.getInstallLock());
   }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InstallLockTest {
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testAcquire_uncontended() throws Exception {
+    Path lockFile = tmp.getRoot().toPath().resolve("sub").resolve("test.lock");
+    try (InstallLock lock = InstallLock.acquire(lockFile)) {
+      Assert.assertFalse(lock.wasContended());
+      Assert.assertTrue(Files.exists(lockFile));
+    }
+    // can be reacquired after release
+    try (InstallLock lock = InstallLock.acquire(lockFile)) {
+      Assert.assertFalse(lock.wasContended());
+    }
+  }
+
+  @Test
+  public void testAcquire_contended() throws Exception {
+    Path lockFile = tmp.getRoot().toPath().resolve("test.lock");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Boolean> contended;
+      try (InstallLock lock = InstallLock.acquire(lockFile)) {
+        contended =
+            executor.submit(
+                () -> {
+                  try (InstallLock other = InstallLock.acquire(lockFile)) {
+                    return other.wasContended();
+                  }
+                });
+        while (!InstallLock.hasQueuedThreads(lockFile)) {
+          Thread.sleep(10);
+        }
+      }
+      Assert.assertTrue(contended.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
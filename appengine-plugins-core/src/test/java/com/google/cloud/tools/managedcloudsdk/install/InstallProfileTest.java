@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Tests for {@link InstallProfile}. */
+public class InstallProfileTest {
+
+  @Test
+  public void testFull_includesEverything() {
+    Assert.assertNull(InstallProfile.FULL.getComponents());
+    Assert.assertTrue(InstallProfile.FULL.getPrunedComponents().isEmpty());
+    Assert.assertTrue(InstallProfile.FULL.includesEntry("google-cloud-sdk/help/man/gcloud.1"));
+    Assert.assertFalse(InstallProfile.FULL.isPrecompilePython());
+    Assert.assertFalse(InstallProfile.FULL.isNativeInstall());
+  }
+
+  @Test
+  public void testPrecompilePython() {
+    Assert.assertTrue(InstallProfile.builder().precompilePython(true).build().isPrecompilePython());
+  }
+
+  @Test
+  public void testNativeInstall() {
+    Assert.assertTrue(InstallProfile.builder().nativeInstall(true).build().isNativeInstall());
+  }
+
+  @Test
+  public void testAppEngineJava() {
+    InstallProfile profile = InstallProfile.APP_ENGINE_JAVA;
+
+    Assert.assertEquals(ImmutableSet.of("app-engine-java"), profile.getComponents());
+    Assert.assertEquals(
+        Arrays.asList(SdkComponent.BQ, SdkComponent.GSUTIL), profile.getPrunedComponents());
+    Assert.assertTrue(profile.includesEntry("google-cloud-sdk/bin/gcloud"));
+    Assert.assertFalse(profile.includesEntry("google-cloud-sdk/help/"));
+    Assert.assertFalse(profile.includesEntry("google-cloud-sdk/help/man/gcloud.1"));
+    Assert.assertFalse(profile.includesEntry("google-cloud-sdk/RELEASE_NOTES"));
+  }
+
+  @Test
+  public void testIncludesEntry_matchesWholePathSegments() {
+    InstallProfile profile =
+        InstallProfile.builder().excludedPaths(ImmutableSet.of("lib/third_party/docs")).build();
+
+    Assert.assertFalse(profile.includesEntry("google-cloud-sdk/lib/third_party/docs/index.html"));
+    Assert.assertFalse(profile.includesEntry("google-cloud-sdk\\lib\\third_party\\docs\\a.txt"));
+    Assert.assertTrue(profile.includesEntry("google-cloud-sdk/lib/third_party/docsgen/a.py"));
+    Assert.assertTrue(profile.includesEntry("google-cloud-sdk/"));
+    Assert.assertTrue(profile.includesEntry("google-cloud-sdk"));
+  }
+
+  @Test
+  public void testExcludedPaths_invalid() {
+    try {
+      InstallProfile.builder().excludedPaths(ImmutableSet.of("/help"));
+      Assert.fail("IllegalArgumentException expected but not thrown");
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals("Invalid excluded path: '/help'", ex.getMessage());
+    }
+  }
+}
@@ -53,5 +53,23 @@ public class InstallerFactoryTest {
     Installer installer = new InstallerFactory(os, false).newInstaller(null, null, null);
     Assert.assertEquals(
         expectedInstallScriptProviderClass, installer.getInstallScriptProvider().getClass());
+    Assert.assertNull(installer.getPythonPrecompiler());
+    Assert.assertNull(installer.getNativeInstaller());
+  }
+
+  @Test
+  public void testNewInstaller_nativeInstall() {
+    Installer installer =
+        new InstallerFactory(os, false, null, false, true).newInstaller(null, null, null);
+    Assert.assertNotNull(installer.getNativeInstaller());
+    Assert.assertEquals(
+        expectedInstallScriptProviderClass, installer.getInstallScriptProvider().getClass());
+  }
+
+  @Test
+  public void testNewInstaller_precompilePython() {
+    Installer installer =
+        new InstallerFactory(os, false, null, true).newInstaller(null, null, null);
+    Assert.assertNotNull(installer.getPythonPrecompiler());
   }
 }
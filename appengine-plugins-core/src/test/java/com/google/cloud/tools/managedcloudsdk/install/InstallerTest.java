@@ -18,12 +18,14 @@ package com.google.cloud.tools.managedcloudsdk.install;
 
 import com.google.cloud.tools.managedcloudsdk.ConsoleListener;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
+import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +36,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -46,6 +49,8 @@ public class InstallerTest {
   @Mock private CommandRunner mockCommandRunner;
   @Mock private ProgressListener mockProgressListener;
   @Mock private ConsoleListener mockConsoleListener;
+  @Mock private PythonPrecompiler mockPythonPrecompiler;
+  @Mock private NativeInstaller mockNativeInstaller;
 
   @Rule public TemporaryFolder tmp = new TemporaryFolder();
 
@@ -116,6 +121,93 @@ public class InstallerTest {
     Mockito.verifyNoMoreInteractions(mockCommandRunner);
   }
 
+  @Test
+  public void testCall_withPythonPrecompiler() throws Exception {
+    new Installer(
+            fakeSdkRoot,
+            mockInstallScriptProvider,
+            false,
+            null,
+            mockPythonPrecompiler,
+            mockProgressListener,
+            mockConsoleListener,
+            mockCommandRunner)
+        .install();
+
+    InOrder inOrder = Mockito.inOrder(mockCommandRunner, mockPythonPrecompiler);
+    inOrder
+        .verify(mockCommandRunner)
+        .run(expectedCommand(false), sdkParentDirectory, fakeEnv, mockConsoleListener);
+    inOrder.verify(mockPythonPrecompiler).precompile(fakeSdkRoot, mockConsoleListener);
+    Mockito.verify(mockProgressListener).update("Precompiling Python sources");
+    ProgressVerifier.verifyUnknownProgress(mockProgressListener, "Installing Cloud SDK");
+  }
+
+  @Test
+  public void testCall_pythonPrecompilerFailureIsIgnored() throws Exception {
+    Mockito.doThrow(new CommandExitException(1, "compileall failed"))
+        .when(mockPythonPrecompiler)
+        .precompile(fakeSdkRoot, mockConsoleListener);
+
+    new Installer(
+            fakeSdkRoot,
+            mockInstallScriptProvider,
+            false,
+            null,
+            mockPythonPrecompiler,
+            mockProgressListener,
+            mockConsoleListener,
+            mockCommandRunner)
+        .install();
+
+    ProgressVerifier.verifyUnknownProgress(mockProgressListener, "Installing Cloud SDK");
+  }
+
+  @Test
+  public void testCall_nativeInstaller() throws Exception {
+    Set<String> overrides = Collections.singleton("mycomponent");
+
+    new Installer(
+            fakeSdkRoot,
+            mockInstallScriptProvider,
+            true,
+            overrides,
+            mockNativeInstaller,
+            null,
+            mockProgressListener,
+            mockConsoleListener,
+            mockCommandRunner)
+        .install();
+
+    Mockito.verify(mockNativeInstaller)
+        .install(fakeSdkRoot, true, overrides, fakeEnv, mockConsoleListener);
+    Mockito.verifyNoInteractions(mockCommandRunner);
+    ProgressVerifier.verifyUnknownProgress(mockProgressListener, "Installing Cloud SDK");
+  }
+
+  @Test
+  public void testCall_nativeInstallerFallsBackToScript() throws Exception {
+    Mockito.doThrow(new IOException("unexpected layout"))
+        .when(mockNativeInstaller)
+        .install(fakeSdkRoot, false, null, fakeEnv, mockConsoleListener);
+
+    new Installer(
+            fakeSdkRoot,
+            mockInstallScriptProvider,
+            false,
+            null,
+            mockNativeInstaller,
+            null,
+            mockProgressListener,
+            mockConsoleListener,
+            mockCommandRunner)
+        .install();
+
+    Mockito.verify(mockCommandRunner)
+        .run(expectedCommand(false), sdkParentDirectory, fakeEnv, mockConsoleListener);
+    ProgressVerifier.verifyUnknownProgress(mockProgressListener, "Installing Cloud SDK");
+  }
+
   private List<String> expectedCommand(boolean usageReporting) {
     return expectedCommand(usageReporting, null);
   }
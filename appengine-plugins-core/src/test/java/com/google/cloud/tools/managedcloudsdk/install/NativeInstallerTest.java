@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.cloud.tools.managedcloudsdk.ConsoleListener;
+import com.google.cloud.tools.managedcloudsdk.OsInfo;
+import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/** Tests for {@link NativeInstaller}. */
+@RunWith(MockitoJUnitRunner.class)
+public class NativeInstallerTest {
+
+  @Mock private CommandRunner mockCommandRunner;
+  @Mock private ConsoleListener mockConsoleListener;
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  private Path sdkRoot;
+  private Map<String, String> environment = ImmutableMap.of("PROPERTY", "value");
+
+  @Before
+  public void setUp() throws IOException {
+    sdkRoot = tmp.newFolder("google-cloud-sdk").toPath();
+    Path installState = Files.createDirectory(sdkRoot.resolve(".install"));
+    Files.createFile(installState.resolve("core.snapshot.json"));
+    Files.createFile(installState.resolve("bq.snapshot.json"));
+  }
+
+  @Test
+  public void testInstall_writesProperties() throws Exception {
+    new NativeInstaller(OsInfo.Name.LINUX, mockCommandRunner)
+        .install(sdkRoot, false, null, environment, mockConsoleListener);
+
+    Assert.assertEquals(
+        NativeInstaller.getProperties(false),
+        Files.readAllLines(sdkRoot.resolve("properties"), StandardCharsets.UTF_8));
+    Mockito.verifyNoInteractions(mockCommandRunner);
+  }
+
+  @Test
+  public void testGetProperties_usageReporting() {
+    Assert.assertTrue(
+        NativeInstaller.getProperties(true).contains("disable_usage_reporting = False"));
+    Assert.assertTrue(
+        NativeInstaller.getProperties(false).contains("disable_usage_reporting = True"));
+  }
+
+  @Test
+  public void testGetProperties_onlyUsageReporting() {
+    Assert.assertEquals(
+        Arrays.asList("[core]", "disable_usage_reporting = True"),
+        NativeInstaller.getProperties(false));
+  }
+
+  @Test
+  public void testInstall_bundledComponents() throws Exception {
+    new NativeInstaller(OsInfo.Name.LINUX, mockCommandRunner)
+        .install(sdkRoot, false, ImmutableSet.of("core", "bq"), environment, mockConsoleListener);
+
+    Mockito.verifyNoInteractions(mockCommandRunner);
+  }
+
+  @Test
+  public void testInstall_missingComponents() throws Exception {
+    new NativeInstaller(OsInfo.Name.LINUX, mockCommandRunner)
+        .install(
+            sdkRoot,
+            false,
+            ImmutableSet.of("core", "app-engine-java", "beta"),
+            environment,
+            mockConsoleListener);
+
+    Mockito.verify(mockCommandRunner)
+        .run(
+            Arrays.asList(
+                sdkRoot.resolve("bin").resolve("gcloud").toString(),
+                "components",
+                "install",
+                "app-engine-java",
+                "beta",
+                "--quiet"),
+            sdkRoot,
+            environment,
+            mockConsoleListener);
+  }
+
+  @Test
+  public void testInstall_missingComponentsOnWindows() throws Exception {
+    try {
+      new NativeInstaller(OsInfo.Name.WINDOWS, mockCommandRunner)
+          .install(
+              sdkRoot, false, ImmutableSet.of("app-engine-java"), environment, mockConsoleListener);
+      Assert.fail();
+    } catch (IOException ex) {
+      Assert.assertEquals(
+          "Cannot install components natively on Windows: [app-engine-java]", ex.getMessage());
+    }
+    Assert.assertFalse(Files.exists(sdkRoot.resolve("properties")));
+  }
+
+  @Test
+  public void testInstall_noInstallState() throws Exception {
+    Path otherRoot = tmp.newFolder("other").toPath();
+    try {
+      new NativeInstaller(OsInfo.Name.LINUX, mockCommandRunner)
+          .install(otherRoot, false, null, environment, mockConsoleListener);
+      Assert.fail();
+    } catch (IOException ex) {
+      MatcherAssert.assertThat(
+          ex.getMessage(), CoreMatchers.startsWith("Cloud SDK install state not found at "));
+    }
+  }
+
+  @Test
+  public void testInstall_existingProperties() throws Exception {
+    Files.createFile(sdkRoot.resolve("properties"));
+    try {
+      new NativeInstaller(OsInfo.Name.LINUX, mockCommandRunner)
+          .install(sdkRoot, false, null, environment, mockConsoleListener);
+      Assert.fail();
+    } catch (IOException ex) {
+      MatcherAssert.assertThat(
+          ex.getMessage(),
+          CoreMatchers.startsWith("Cloud SDK installation properties already exist at "));
+    }
+  }
+}
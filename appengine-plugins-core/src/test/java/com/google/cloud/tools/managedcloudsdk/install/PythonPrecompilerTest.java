@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.cloud.tools.managedcloudsdk.ConsoleListener;
+import com.google.cloud.tools.managedcloudsdk.OsInfo;
+import com.google.cloud.tools.managedcloudsdk.command.CommandCaller;
+import com.google.cloud.tools.managedcloudsdk.command.CommandRunner;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/** Tests for {@link PythonPrecompiler}. */
+@RunWith(MockitoJUnitRunner.class)
+public class PythonPrecompilerTest {
+
+  @Mock private CommandRunner mockCommandRunner;
+  @Mock private CommandCaller mockCommandCaller;
+  @Mock private ConsoleListener mockConsoleListener;
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  private Path sdkRoot;
+
+  @Before
+  public void setUp() throws IOException {
+    sdkRoot = tmp.newFolder("google-cloud-sdk").toPath();
+  }
+
+  @Test
+  public void testPrecompile() throws Exception {
+    Map<String, String> environment = ImmutableMap.of("PROPERTY", "value");
+
+    new PythonPrecompiler(OsInfo.Name.LINUX, environment, mockCommandRunner, mockCommandCaller)
+        .precompile(sdkRoot, mockConsoleListener);
+
+    Mockito.verify(mockCommandRunner)
+        .run(
+            Arrays.asList("python3", "-m", "compileall", "-q", "-j", "0", "lib"),
+            sdkRoot,
+            environment,
+            mockConsoleListener);
+  }
+
+  @Test
+  public void testGetInterpreter_cloudSdkPython() {
+    PythonPrecompiler precompiler =
+        new PythonPrecompiler(
+            OsInfo.Name.LINUX,
+            ImmutableMap.of("CLOUDSDK_PYTHON", "/opt/python3.11"),
+            mockCommandRunner,
+            mockCommandCaller);
+    Assert.assertEquals("/opt/python3.11", precompiler.getInterpreter(sdkRoot));
+  }
+
+  @Test
+  public void testGetInterpreter_bundledUnix() throws IOException {
+    Path bundledPython =
+        sdkRoot.resolve("platform").resolve("bundledpythonunix").resolve("bin").resolve("python3");
+    Files.createDirectories(bundledPython.getParent());
+    Files.createFile(bundledPython);
+
+    PythonPrecompiler precompiler =
+        new PythonPrecompiler(
+            OsInfo.Name.MAC, Collections.emptyMap(), mockCommandRunner, mockCommandCaller);
+    Assert.assertEquals(bundledPython.toString(), precompiler.getInterpreter(sdkRoot));
+  }
+
+  @Test
+  public void testGetInterpreter_bundledWindows() throws IOException {
+    Path bundledPython = sdkRoot.resolve("platform").resolve("bundledpython").resolve("python.exe");
+    Files.createDirectories(bundledPython.getParent());
+    Files.createFile(bundledPython);
+
+    PythonPrecompiler precompiler =
+        new PythonPrecompiler(
+            OsInfo.Name.WINDOWS, Collections.emptyMap(), mockCommandRunner, mockCommandCaller);
+    Assert.assertEquals(bundledPython.toString(), precompiler.getInterpreter(sdkRoot));
+  }
+
+  @Test
+  public void testGetInterpreter_pathWindows() {
+    PythonPrecompiler precompiler =
+        new PythonPrecompiler(
+            OsInfo.Name.WINDOWS, Collections.emptyMap(), mockCommandRunner, mockCommandCaller);
+    Assert.assertEquals("python", precompiler.getInterpreter(sdkRoot));
+  }
+
+  @Test
+  public void testIsPrecompiled() throws Exception {
+    PythonPrecompiler precompiler =
+        new PythonPrecompiler(
+            OsInfo.Name.LINUX, Collections.emptyMap(), mockCommandRunner, mockCommandCaller);
+    Assert.assertFalse(precompiler.isPrecompiled(sdkRoot));
+
+    Mockito.when(mockCommandCaller.call(Mockito.anyList(), Mockito.eq(sdkRoot), Mockito.anyMap()))
+        .thenReturn("cpython-311\n");
+    Path cacheDirectory = sdkRoot.resolve("lib").resolve("googlecloudsdk").resolve("__pycache__");
+    Files.createDirectories(cacheDirectory);
+    Assert.assertFalse(precompiler.isPrecompiled(sdkRoot));
+
+    // bytecode of another Python version
+    Files.createFile(cacheDirectory.resolve("__init__.cpython-39.pyc"));
+    Assert.assertFalse(precompiler.isPrecompiled(sdkRoot));
+
+    Files.createFile(cacheDirectory.resolve("__init__.cpython-311.pyc"));
+    Assert.assertTrue(precompiler.isPrecompiled(sdkRoot));
+  }
+
+  @Test
+  public void testGetCacheTag() throws Exception {
+    Map<String, String> environment = ImmutableMap.of("CLOUDSDK_PYTHON", "/opt/python3.11");
+    Mockito.when(
+            mockCommandCaller.call(
+                Arrays.asList(
+                    "/opt/python3.11", "-c", "import sys; print(sys.implementation.cache_tag)"),
+                sdkRoot,
+                environment))
+        .thenReturn("cpython-311\n");
+
+    Assert.assertEquals(
+        "cpython-311",
+        new PythonPrecompiler(OsInfo.Name.LINUX, environment, mockCommandRunner, mockCommandCaller)
+            .getCacheTag(sdkRoot));
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SdkDeduplicatorTest {
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  private Path contentStore;
+  private Path sdk1;
+  private Path sdk2;
+
+  @Before
+  public void setUp() throws IOException {
+    Path root = tmp.getRoot().toPath();
+    contentStore = root.resolve("content-store");
+    sdk1 = root.resolve("1.0.0").resolve("google-cloud-sdk");
+    sdk2 = root.resolve("2.0.0").resolve("google-cloud-sdk");
+    for (Path sdk : new Path[] {sdk1, sdk2}) {
+      write(sdk.resolve("lib/shared.py"), "shared contents");
+      write(sdk.resolve(".install/core.snapshot.json"), "{}");
+      write(sdk.resolve("VERSION"), "1.0.0");
+    }
+    write(sdk1.resolve("lib/changed.py"), "old contents");
+    write(sdk2.resolve("lib/changed.py"), "new contents");
+  }
+
+  @Test
+  public void testDeduplicate() throws IOException, InterruptedException {
+    SdkDeduplicator deduplicator = new SdkDeduplicator(contentStore);
+
+    Assert.assertEquals(0, deduplicator.deduplicate(sdk1));
+    Assert.assertEquals("shared contents".length(), deduplicator.deduplicate(sdk2));
+
+    Assert.assertTrue(
+        Files.isSameFile(sdk1.resolve("lib/shared.py"), sdk2.resolve("lib/shared.py")));
+    Assert.assertEquals("old contents", read(sdk1.resolve("lib/changed.py")));
+    Assert.assertEquals("new contents", read(sdk2.resolve("lib/changed.py")));
+    // files gcloud rewrites in place are never shared
+    Assert.assertFalse(
+        Files.isSameFile(
+            sdk1.resolve(".install/core.snapshot.json"),
+            sdk2.resolve(".install/core.snapshot.json")));
+    Assert.assertFalse(Files.isSameFile(sdk1.resolve("VERSION"), sdk2.resolve("VERSION")));
+  }
+
+  @Test
+  public void testDeduplicate_idempotent() throws IOException, InterruptedException {
+    SdkDeduplicator deduplicator = new SdkDeduplicator(contentStore);
+    deduplicator.deduplicate(sdk1);
+    deduplicator.deduplicate(sdk2);
+
+    Assert.assertEquals(0, deduplicator.deduplicate(sdk2));
+    Assert.assertEquals("shared contents", read(sdk2.resolve("lib/shared.py")));
+  }
+
+  @Test
+  public void testDeduplicate_differentPermissionsNotShared()
+      throws IOException, InterruptedException {
+    Assume.assumeTrue(sdk1.getFileSystem().supportedFileAttributeViews().contains("posix"));
+    Files.setPosixFilePermissions(
+        sdk2.resolve("lib/shared.py"), PosixFilePermissions.fromString("rwxr-xr-x"));
+
+    SdkDeduplicator deduplicator = new SdkDeduplicator(contentStore);
+    deduplicator.deduplicate(sdk1);
+
+    Assert.assertEquals(0, deduplicator.deduplicate(sdk2));
+    Assert.assertFalse(
+        Files.isSameFile(sdk1.resolve("lib/shared.py"), sdk2.resolve("lib/shared.py")));
+  }
+
+  @Test
+  public void testGetReclaimedBytes() throws IOException, InterruptedException {
+    Assume.assumeTrue(contentStore.getFileSystem().supportedFileAttributeViews().contains("unix"));
+    SdkDeduplicator deduplicator = new SdkDeduplicator(contentStore);
+    Assert.assertEquals(0, deduplicator.getReclaimedBytes());
+
+    deduplicator.deduplicate(sdk1);
+    Assert.assertEquals(0, deduplicator.getReclaimedBytes());
+
+    deduplicator.deduplicate(sdk2);
+    Assert.assertEquals("shared contents".length(), deduplicator.getReclaimedBytes());
+  }
+
+  @Test
+  public void testDeduplicate_waitsForInstallLock() throws Exception {
+    Path installLock = tmp.getRoot().toPath().resolve("2.0.0.lock");
+    SdkDeduplicator deduplicator = new SdkDeduplicator(contentStore);
+    deduplicator.deduplicate(sdk1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Long> result;
+      try (InstallLock ignored = InstallLock.acquire(installLock)) {
+        result = executor.submit(() -> deduplicator.deduplicate(sdk2));
+        while (!InstallLock.hasQueuedThreads(installLock)) {
+          Thread.sleep(10);
+        }
+        Assert.assertFalse(
+            Files.isSameFile(sdk1.resolve("lib/shared.py"), sdk2.resolve("lib/shared.py")));
+      }
+
+      Assert.assertEquals("shared contents".length(), result.get().longValue());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDeduplicate_leavesNoTemporaryFiles() throws IOException, InterruptedException {
+    SdkDeduplicator deduplicator = new SdkDeduplicator(contentStore);
+    deduplicator.deduplicate(sdk1);
+    deduplicator.deduplicate(sdk2);
+
+    try (Stream<Path> files = Files.walk(sdk2)) {
+      Assert.assertFalse(files.anyMatch(file -> file.toString().endsWith(".dedup")));
+    }
+  }
+
+  @Test
+  public void testPrune() throws IOException, InterruptedException {
+    Assume.assumeTrue(contentStore.getFileSystem().supportedFileAttributeViews().contains("unix"));
+    SdkDeduplicator deduplicator = new SdkDeduplicator(contentStore);
+    deduplicator.deduplicate(sdk1);
+    deduplicator.deduplicate(sdk2);
+    Assert.assertEquals(0, deduplicator.prune());
+
+    MoreFiles.deleteRecursively(sdk1, RecursiveDeleteOption.ALLOW_INSECURE);
+    // only old contents was unique to sdk1
+    Assert.assertEquals("old contents".length(), deduplicator.prune());
+    Assert.assertEquals("shared contents", read(sdk2.resolve("lib/shared.py")));
+
+    MoreFiles.deleteRecursively(sdk2, RecursiveDeleteOption.ALLOW_INSECURE);
+    Assert.assertEquals("shared contents".length() + "new contents".length(), deduplicator.prune());
+  }
+
+  private static void write(Path file, String contents) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link SdkGarbageCollector}. */
+public class SdkGarbageCollectorTest {
+
+  private static final Instant NOW = Instant.parse("2026-06-01T00:00:00Z");
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  private Path managedSdkDirectory;
+  private SdkGarbageCollector collector;
+
+  @Before
+  public void setUp() throws IOException {
+    managedSdkDirectory = tmp.newFolder("managed").toPath();
+    collector = new SdkGarbageCollector(managedSdkDirectory, Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  private Path createVersion(String version, Duration unusedFor, int sizeBytes) throws IOException {
+    Path versionDirectory = managedSdkDirectory.resolve(version);
+    Path sdkHome = Files.createDirectories(versionDirectory.resolve("google-cloud-sdk"));
+    Files.write(sdkHome.resolve("data"), new byte[sizeBytes]);
+    Path marker = Files.createFile(versionDirectory.resolve(SdkGarbageCollector.LAST_USED_FILE));
+    Files.setLastModifiedTime(marker, FileTime.from(NOW.minus(unusedFor)));
+    return versionDirectory;
+  }
+
+  @Test
+  public void testCollect_maxUnused() throws Exception {
+    createVersion("100.0.0", Duration.ofDays(60), 10);
+    createVersion("200.0.0", Duration.ofDays(40), 10);
+    Path recent = createVersion("300.0.0", Duration.ofDays(1), 10);
+
+    Assert.assertEquals(
+        Arrays.asList("100.0.0", "200.0.0"),
+        collector.collect(Duration.ofDays(30), -1, Collections.emptySet()));
+
+    Assert.assertFalse(Files.exists(managedSdkDirectory.resolve("100.0.0")));
+    Assert.assertFalse(Files.exists(managedSdkDirectory.resolve("200.0.0")));
+    Assert.assertTrue(Files.exists(recent));
+  }
+
+  @Test
+  public void testCollect_maxTotalBytes() throws Exception {
+    createVersion("100.0.0", Duration.ofDays(3), 100);
+    createVersion("200.0.0", Duration.ofDays(2), 100);
+    createVersion("300.0.0", Duration.ofDays(1), 100);
+
+    // the size includes the marker files, which are empty
+    Assert.assertEquals(
+        Arrays.asList("100.0.0", "200.0.0"), collector.collect(null, 150, Collections.emptySet()));
+    Assert.assertTrue(Files.exists(managedSdkDirectory.resolve("300.0.0")));
+  }
+
+  @Test
+  public void testCollect_keptVersions() throws Exception {
+    Path kept = createVersion("100.0.0", Duration.ofDays(60), 100);
+    createVersion("200.0.0", Duration.ofDays(2), 100);
+
+    Assert.assertEquals(
+        Collections.singletonList("200.0.0"),
+        collector.collect(Duration.ofDays(30), 0, ImmutableSet.of("100.0.0")));
+    Assert.assertTrue(Files.exists(kept));
+  }
+
+  @Test
+  public void testCollect_gracePeriod() throws Exception {
+    Path recent = createVersion("100.0.0", Duration.ofHours(1), 100);
+
+    Assert.assertEquals(
+        Collections.emptyList(), collector.collect(Duration.ZERO, 0, Collections.emptySet()));
+    Assert.assertTrue(Files.exists(recent));
+  }
+
+  @Test
+  public void testCollect_sharedFilesCountedOnce() throws Exception {
+    Path shared = createVersion("100.0.0", Duration.ofDays(3), 100).resolve("google-cloud-sdk");
+    Path other = createVersion("200.0.0", Duration.ofDays(2), 0).resolve("google-cloud-sdk");
+    try {
+      Files.createLink(other.resolve("shared"), shared.resolve("data"));
+    } catch (UnsupportedOperationException ex) {
+      Assume.assumeNoException(ex);
+    }
+
+    // together they take 100 bytes, removing 100.0.0 would not free any of it
+    Assert.assertEquals(
+        Collections.emptyList(), collector.collect(null, 100, Collections.emptySet()));
+    Assert.assertEquals(
+        Arrays.asList("100.0.0", "200.0.0"), collector.collect(null, 50, Collections.emptySet()));
+  }
+
+  @Test
+  public void testCollect_prunesContentStore() throws Exception {
+    Path sdkHome = createVersion("100.0.0", Duration.ofDays(60), 0).resolve("google-cloud-sdk");
+    Path contentStore = managedSdkDirectory.resolve("content-store");
+    Assume.assumeTrue(contentStore.getFileSystem().supportedFileAttributeViews().contains("unix"));
+    // files directly in the SDK home are not deduplicated
+    Files.write(Files.createDirectories(sdkHome.resolve("lib")).resolve("data"), new byte[100]);
+    new SdkDeduplicator(contentStore).deduplicate(sdkHome);
+    Assert.assertEquals(100, sizeOfFiles(contentStore));
+
+    Assert.assertEquals(
+        Collections.singletonList("100.0.0"),
+        collector.collect(Duration.ofDays(30), -1, Collections.emptySet()));
+    Assert.assertEquals(0, sizeOfFiles(contentStore));
+  }
+
+  private static long sizeOfFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+    }
+  }
+
+  @Test
+  public void testCollect_ignoresOtherEntries() throws Exception {
+    Path downloads = Files.createDirectories(managedSdkDirectory.resolve("downloads"));
+    Path contentStore = Files.createDirectories(managedSdkDirectory.resolve("content-store"));
+    Path staging =
+        Files.createDirectories(
+            managedSdkDirectory.resolve("100.0.0.staging").resolve("google-cloud-sdk"));
+    Path lock = Files.createFile(managedSdkDirectory.resolve("100.0.0.lock"));
+    Path incomplete = Files.createDirectories(managedSdkDirectory.resolve("200.0.0"));
+    for (Path path : Arrays.asList(downloads, contentStore, staging, lock, incomplete)) {
+      Files.setLastModifiedTime(path, FileTime.from(NOW.minus(Duration.ofDays(365))));
+    }
+
+    Assert.assertEquals(
+        Collections.emptyList(), collector.collect(Duration.ZERO, 0, Collections.emptySet()));
+    for (Path path : Arrays.asList(downloads, contentStore, staging, lock, incomplete)) {
+      Assert.assertTrue(Files.exists(path));
+    }
+  }
+
+  @Test
+  public void testCollect_noMarkerUsesDirectoryTime() throws Exception {
+    Path versionDirectory = createVersion("100.0.0", Duration.ZERO, 10);
+    Files.delete(versionDirectory.resolve(SdkGarbageCollector.LAST_USED_FILE));
+    Files.setLastModifiedTime(versionDirectory, FileTime.from(NOW.minus(Duration.ofDays(60))));
+
+    Assert.assertEquals(
+        Collections.singletonList("100.0.0"),
+        collector.collect(Duration.ofDays(30), -1, Collections.emptySet()));
+  }
+
+  @Test
+  public void testCollect_missingManagedDirectory() throws Exception {
+    SdkGarbageCollector missing =
+        new SdkGarbageCollector(
+            managedSdkDirectory.resolve("missing"), Clock.fixed(NOW, ZoneOffset.UTC));
+    Assert.assertEquals(
+        Collections.emptyList(), missing.collect(Duration.ZERO, 0, Collections.emptySet()));
+  }
+
+  @Test
+  public void testRecordUse() throws Exception {
+    Path versionDirectory = createVersion("100.0.0", Duration.ofDays(60), 10);
+
+    SdkGarbageCollector.recordUse(versionDirectory);
+
+    Assert.assertEquals(
+        Collections.emptyList(),
+        new SdkGarbageCollector(managedSdkDirectory)
+            .collect(Duration.ofDays(30), -1, Collections.emptySet()));
+    Assert.assertTrue(Files.exists(versionDirectory));
+  }
+
+  @Test
+  public void testRecordUse_createsMarker() throws Exception {
+    Path versionDirectory = tmp.newFolder("100.0.0").toPath();
+
+    SdkGarbageCollector.recordUse(versionDirectory);
+
+    Assert.assertTrue(
+        Files.isRegularFile(versionDirectory.resolve(SdkGarbageCollector.LAST_USED_FILE)));
+  }
+}
@@ -20,11 +20,20 @@ import com.google.cloud.tools.managedcloudsdk.ConsoleListener;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExecutionException;
 import com.google.cloud.tools.managedcloudsdk.command.CommandExitException;
+import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
+import com.google.cloud.tools.managedcloudsdk.components.SdkComponentInstaller;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -64,9 +73,12 @@ public class SdkInstallerTest {
   private URL fakeArchiveSource;
   private Path fakeArchiveDestination;
   private Path fakeArchiveExtractionDestination;
+  private Path fakeArchiveStagingDestination;
   private Path fakeSdkHome;
+  private Path fakeStagedSdkHome;
   private String fakeGcloudExecutable;
   private Path fakeGcloud;
+  private Path fakeStagedGcloud;
 
   @Before
   public void setUpMocksAndFakes()
@@ -85,8 +97,11 @@ public class SdkInstallerTest {
             fakeArchiveExtractionDestination,
             fakeGcloudExecutable);
 
+    fakeArchiveStagingDestination = fakeFileResourceProvider.getArchiveStagingDestination();
     fakeSdkHome = fakeFileResourceProvider.getExtractedSdkHome();
+    fakeStagedSdkHome = fakeFileResourceProvider.getStagedSdkHome();
     fakeGcloud = fakeFileResourceProvider.getExtractedGcloud();
+    fakeStagedGcloud = fakeFileResourceProvider.getStagedGcloud();
 
     Mockito.when(fileResourceProviderFactory.newFileResourceProvider())
         .thenReturn(fakeFileResourceProvider);
@@ -104,24 +119,23 @@ public class SdkInstallerTest {
     // A "LATEST" extractor will result in a cloud sdk home with no gcloud file until install
     Mockito.doReturn(successfulLatestExtractor)
         .when(successfulLatestExtractorFactory)
-        .newExtractor(fakeArchiveDestination, fakeArchiveExtractionDestination, progressListener);
-    Mockito.doAnswer(
-            createPathAnswer(fakeArchiveExtractionDestination.resolve("google-cloud-sdk"), true))
+        .newExtractor(fakeArchiveDestination, fakeArchiveStagingDestination, progressListener);
+    Mockito.doAnswer(createPathAnswer(fakeStagedSdkHome, true))
         .when(successfulLatestExtractor)
         .extract();
 
     // A "versioned" extractor will result in a gcloud file
     Mockito.doReturn(successfulVersionedExtractor)
         .when(successfulVersionedExtractorFactory)
-        .newExtractor(fakeArchiveDestination, fakeArchiveExtractionDestination, progressListener);
-    Mockito.doAnswer(createPathAnswer(fakeGcloud, false))
+        .newExtractor(fakeArchiveDestination, fakeArchiveStagingDestination, progressListener);
+    Mockito.doAnswer(createPathAnswer(fakeStagedGcloud, false))
         .when(successfulVersionedExtractor)
         .extract();
 
     Mockito.doReturn(successfulInstaller)
         .when(successfulInstallerFactory)
-        .newInstaller(fakeSdkHome, progressListener, consoleListener, Collections.emptyMap());
-    Mockito.doAnswer(createPathAnswer(fakeGcloud, false)).when(successfulInstaller).install();
+        .newInstaller(fakeStagedSdkHome, progressListener, consoleListener, Collections.emptyMap());
+    Mockito.doAnswer(createPathAnswer(fakeStagedGcloud, false)).when(successfulInstaller).install();
 
     // FAIL (NO-OP) MOCKS
     Mockito.doReturn(Mockito.mock(Downloader.class))
@@ -130,11 +144,11 @@ public class SdkInstallerTest {
 
     Mockito.doReturn(Mockito.mock(Extractor.class))
         .when(failureExtractorFactory)
-        .newExtractor(fakeArchiveDestination, fakeArchiveExtractionDestination, progressListener);
+        .newExtractor(fakeArchiveDestination, fakeArchiveStagingDestination, progressListener);
 
     Mockito.doReturn(Mockito.mock(Installer.class))
         .when(failureInstallerFactory)
-        .newInstaller(fakeSdkHome, progressListener, consoleListener, Collections.emptyMap());
+        .newInstaller(fakeStagedSdkHome, progressListener, consoleListener, Collections.emptyMap());
   }
 
   private Answer<Void> createPathAnswer(Path pathToCreate, boolean isDirectory) {
@@ -169,6 +183,152 @@ public class SdkInstallerTest {
     Path result = testInstaller.install(progressListener, consoleListener);
 
     Assert.assertEquals(fakeSdkHome, result);
+    Assert.assertTrue(Files.isRegularFile(fakeGcloud));
+    Assert.assertFalse(Files.exists(fakeArchiveStagingDestination));
+  }
+
+  @Test
+  public void testDownloadSdk_replacesStaleInstall()
+      throws CommandExecutionException, InterruptedException, IOException, CommandExitException,
+          SdkInstallerException {
+    Path staleFile = fakeSdkHome.resolve("stale-file");
+    Files.createDirectories(fakeSdkHome);
+    Files.createFile(staleFile);
+    Path staleStagedFile = fakeStagedSdkHome.resolve("stale-file");
+    Files.createDirectories(fakeStagedSdkHome);
+    Files.createFile(staleStagedFile);
+
+    SdkInstaller testInstaller =
+        new SdkInstaller(
+            fileResourceProviderFactory,
+            successfulDownloaderFactory,
+            successfulVersionedExtractorFactory,
+            null);
+    Path result = testInstaller.install(progressListener, consoleListener);
+
+    Assert.assertEquals(fakeSdkHome, result);
+    Assert.assertTrue(Files.isRegularFile(fakeGcloud));
+    Assert.assertFalse(Files.exists(staleFile));
+    Assert.assertFalse(Files.exists(fakeArchiveStagingDestination));
+    // stale trees are moved aside and deleted in the background
+    Assert.assertTrue(Files.isDirectory(fakeFileResourceProvider.getTrashDirectory()));
+  }
+
+  @Test
+  public void testDownloadSdk_reusesInstallCompletedWhileWaiting() throws Exception {
+    SdkInstaller testInstaller =
+        new SdkInstaller(
+            fileResourceProviderFactory,
+            failureDownloaderFactory,
+            failureExtractorFactory,
+            failureInstallerFactory);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Path> result;
+      try (InstallLock ignored = InstallLock.acquire(fakeFileResourceProvider.getInstallLock())) {
+        result = executor.submit(() -> testInstaller.install(progressListener, consoleListener));
+        while (!InstallLock.hasQueuedThreads(fakeFileResourceProvider.getInstallLock())) {
+          Thread.sleep(10);
+        }
+        // the "other" installer completes while holding the lock
+        Files.createDirectories(fakeGcloud.getParent());
+        Files.createFile(fakeGcloud);
+      }
+
+      Assert.assertEquals(fakeSdkHome, result.get());
+      Mockito.verifyNoInteractions(failureDownloaderFactory);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDownloadSdk_verifiesChecksum()
+      throws CommandExecutionException, InterruptedException, IOException, CommandExitException,
+          SdkInstallerException {
+    // the sha256 of the empty archive created by the download mock
+    Mockito.when(fileResourceProviderFactory.newFileResourceProvider())
+        .thenReturn(
+            newFileResourceProvider(
+                "E3B0C44298FC1C149AFBF4C8996FB92427AE41E4649B934CA495991B7852B855"));
+
+    SdkInstaller testInstaller =
+        new SdkInstaller(
+            fileResourceProviderFactory,
+            successfulDownloaderFactory,
+            successfulVersionedExtractorFactory,
+            null);
+    Path result = testInstaller.install(progressListener, consoleListener);
+
+    Assert.assertEquals(fakeSdkHome, result);
+  }
+
+  @Test
+  public void testDownloadSdk_checksumMismatch()
+      throws CommandExecutionException, InterruptedException, IOException, CommandExitException {
+    Mockito.when(fileResourceProviderFactory.newFileResourceProvider())
+        .thenReturn(newFileResourceProvider("0000"));
+
+    SdkInstaller testInstaller =
+        new SdkInstaller(
+            fileResourceProviderFactory,
+            successfulDownloaderFactory,
+            successfulVersionedExtractorFactory,
+            null);
+    try {
+      testInstaller.install(progressListener, consoleListener);
+      Assert.fail("SdKInstallerException expected but not thrown");
+    } catch (SdkInstallerException ex) {
+      MatcherAssert.assertThat(
+          ex.getMessage(), CoreMatchers.startsWith("Checksum mismatch for " + fakeArchiveSource));
+    }
+    Assert.assertFalse(Files.exists(fakeArchiveDestination));
+    Assert.assertFalse(Files.exists(fakeSdkHome));
+  }
+
+  @Test
+  public void testDownloadSdk_prunesComponentsBeforePublishing()
+      throws CommandExecutionException, InterruptedException, IOException, CommandExitException,
+          SdkInstallerException {
+    SdkComponentInstaller componentInstaller = Mockito.mock(SdkComponentInstaller.class);
+    List<SdkComponent> pruned = Arrays.asList(SdkComponent.BQ, SdkComponent.GSUTIL);
+    Mockito.doAnswer(
+            invocation -> {
+              // pruning happens in the staging directory
+              Assert.assertTrue(Files.isRegularFile(fakeStagedGcloud));
+              Assert.assertFalse(Files.exists(fakeSdkHome));
+              return null;
+            })
+        .when(componentInstaller)
+        .removeComponents(pruned, progressListener, consoleListener);
+
+    SdkInstaller testInstaller =
+        new SdkInstaller(
+            fileResourceProviderFactory,
+            successfulDownloaderFactory,
+            successfulVersionedExtractorFactory,
+            null,
+            Collections.emptyMap(),
+            pruned,
+            gcloud -> {
+              Assert.assertEquals(fakeStagedGcloud, gcloud);
+              return componentInstaller;
+            });
+    Path result = testInstaller.install(progressListener, consoleListener);
+
+    Assert.assertEquals(fakeSdkHome, result);
+    Mockito.verify(componentInstaller).removeComponents(pruned, progressListener, consoleListener);
+    Mockito.verify(progressListener).start("Installing Cloud SDK", 300);
+  }
+
+  private FileResourceProvider newFileResourceProvider(String archiveSha256) {
+    return new FileResourceProvider(
+        fakeArchiveSource,
+        fakeArchiveDestination,
+        fakeArchiveExtractionDestination,
+        fakeGcloudExecutable,
+        archiveSha256);
   }
 
   @Test
@@ -221,7 +381,7 @@ public class SdkInstallerTest {
       Assert.fail("SdKInstallerException expected but not thrown");
     } catch (SdkInstallerException ex) {
       Assert.assertEquals(
-          "Extraction succeeded but valid sdk home not found at " + fakeSdkHome.toString(),
+          "Extraction succeeded but valid sdk home not found at " + fakeStagedSdkHome.toString(),
           ex.getMessage());
     }
   }
@@ -241,7 +401,8 @@ public class SdkInstallerTest {
       Assert.fail("SdKInstallerException expected but not thrown");
     } catch (SdkInstallerException ex) {
       Assert.assertEquals(
-          "Installation succeeded but gcloud executable not found at " + fakeGcloud.toString(),
+          "Installation succeeded but gcloud executable not found at "
+              + fakeStagedGcloud.toString(),
           ex.getMessage());
     }
   }
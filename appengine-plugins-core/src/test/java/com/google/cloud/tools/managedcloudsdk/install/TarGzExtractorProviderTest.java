@@ -19,10 +19,14 @@ package com.google.cloud.tools.managedcloudsdk.install;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Locale;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
 import org.junit.Assert;
@@ -55,10 +59,75 @@ public class TarGzExtractorProviderTest {
       GenericArchivesVerifier.assertFilePermissions(extractionRoot);
     }
 
-    ProgressVerifier.verifyUnknownProgress(
+    ProgressVerifier.verifyProgress(
         mockProgressListener, "Extracting archive: " + testArchive.getFileName());
   }
 
+  @Test
+  public void testCall_pipelined() throws URISyntaxException, IOException {
+    Path extractionRoot = tmp.getRoot().toPath();
+    Path testArchive = getResource("genericArchives/test.tar.gz");
+
+    new TarGzExtractorProvider(4).extract(testArchive, extractionRoot, mockProgressListener);
+
+    GenericArchivesVerifier.assertArchiveExtraction(extractionRoot);
+    // only check file permissions on non-windows
+    if (!System.getProperty("os.name").toLowerCase(Locale.ENGLISH).contains("windows")) {
+      GenericArchivesVerifier.assertFilePermissions(extractionRoot);
+    }
+
+    ProgressVerifier.verifyProgress(
+        mockProgressListener, "Extracting archive: " + testArchive.getFileName());
+  }
+
+  @Test
+  public void testCall_pipelinedManyEntries() throws IOException {
+    Path testArchive = tmp.getRoot().toPath().resolve("many.tar.gz");
+    try (TarArchiveOutputStream out =
+        new TarArchiveOutputStream(
+            new GzipCompressorOutputStream(Files.newOutputStream(testArchive)))) {
+      for (int i = 0; i < 200; i++) {
+        // files only, parent directories must be created from the file entries
+        addFile(out, "root/dir" + (i % 7) + "/file" + i + ".txt", "contents " + i);
+      }
+      // a later duplicate entry must win, as it does when extracting sequentially
+      addFile(out, "root/dir0/file0.txt", "replaced");
+    }
+    Path extractionRoot = tmp.newFolder("extracted").toPath();
+
+    new TarGzExtractorProvider(4).extract(testArchive, extractionRoot, mockProgressListener);
+
+    for (int i = 1; i < 200; i++) {
+      Path file = extractionRoot.resolve("root/dir" + (i % 7) + "/file" + i + ".txt");
+      Assert.assertEquals(
+          "contents " + i, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+    Assert.assertEquals(
+        "replaced",
+        new String(
+            Files.readAllBytes(extractionRoot.resolve("root/dir0/file0.txt")),
+            StandardCharsets.UTF_8));
+    ProgressVerifier.verifyProgress(mockProgressListener, "Extracting archive: many.tar.gz");
+  }
+
+  @Test
+  public void testCall_skipsExcludedEntries() throws IOException {
+    Path testArchive = tmp.getRoot().toPath().resolve("filtered.tar.gz");
+    try (TarArchiveOutputStream out =
+        new TarArchiveOutputStream(
+            new GzipCompressorOutputStream(Files.newOutputStream(testArchive)))) {
+      addFile(out, "root/bin/gcloud", "gcloud");
+      addFile(out, "root/help/man/gcloud.1", "help");
+    }
+    Path extractionRoot = tmp.newFolder("extracted").toPath();
+
+    new TarGzExtractorProvider(1, entryName -> !entryName.startsWith("root/help/"))
+        .extract(testArchive, extractionRoot, mockProgressListener);
+
+    Assert.assertTrue(Files.isRegularFile(extractionRoot.resolve("root/bin/gcloud")));
+    Assert.assertFalse(Files.exists(extractionRoot.resolve("root/help")));
+  }
+
   @Test
   public void testZipSlipVulnerability_windows() throws URISyntaxException {
     Assume.assumeTrue(System.getProperty("os.name").startsWith("Windows"));
@@ -91,6 +160,16 @@ public class TarGzExtractorProviderTest {
     }
   }
 
+  private static void addFile(TarArchiveOutputStream out, String name, String contents)
+      throws IOException {
+    byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+    TarArchiveEntry entry = new TarArchiveEntry(name);
+    entry.setSize(bytes.length);
+    out.putArchiveEntry(entry);
+    out.write(bytes);
+    out.closeArchiveEntry();
+  }
+
   private Path getResource(String resourcePath) throws URISyntaxException {
     Path resource = Paths.get(getClass().getClassLoader().getResource(resourcePath).toURI());
     Assert.assertTrue(Files.exists(resource));
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.managedcloudsdk.install;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link Trash}. */
+public class TrashTest {
+
+  @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+  private Path trashDirectory;
+  private Path tree;
+  private final List<Runnable> pendingDeletions = new ArrayList<>();
+
+  @Before
+  public void setUp() throws IOException {
+    trashDirectory = tmp.getRoot().toPath().resolve(Trash.DIRECTORY_NAME);
+    tree = createTree(tmp.getRoot().toPath().resolve("1.0.0"));
+  }
+
+  @Test
+  public void testDispose_movesBeforeDeleting() throws IOException {
+    new Trash(trashDirectory, pendingDeletions::add).dispose(tree);
+
+    Assert.assertFalse(Files.exists(tree));
+    Assert.assertEquals(1, countEntries(trashDirectory));
+    Assert.assertEquals(1, pendingDeletions.size());
+
+    pendingDeletions.get(0).run();
+    Assert.assertEquals(0, countEntries(trashDirectory));
+  }
+
+  @Test
+  public void testDispose_sameNameTwice() throws IOException {
+    Trash trash = new Trash(trashDirectory, pendingDeletions::add);
+    trash.dispose(tree);
+    trash.dispose(createTree(tree));
+
+    Assert.assertEquals(2, countEntries(trashDirectory));
+  }
+
+  @Test
+  public void testSweep_deletesLeftovers() throws IOException {
+    // left by a JVM that exited before the deletion ran
+    createTree(trashDirectory.resolve("1.0.0-leftover"));
+
+    new Trash(trashDirectory, MoreExecutors.directExecutor()).sweep();
+    Assert.assertEquals(0, countEntries(trashDirectory));
+  }
+
+  @Test
+  public void testSweep_noTrash() {
+    new Trash(trashDirectory, pendingDeletions::add).sweep();
+    Assert.assertTrue(pendingDeletions.isEmpty());
+  }
+
+  @Test
+  public void testSweep_skipsScheduledDeletions() throws IOException {
+    Trash trash = new Trash(trashDirectory, pendingDeletions::add);
+    trash.dispose(tree);
+    trash.sweep();
+    Assert.assertEquals(1, pendingDeletions.size());
+
+    pendingDeletions.get(0).run();
+    Assert.assertEquals(0, countEntries(trashDirectory));
+  }
+
+  private static Path createTree(Path root) throws IOException {
+    Files.createDirectories(root.resolve("google-cloud-sdk").resolve("bin"));
+    Files.createFile(root.resolve("google-cloud-sdk").resolve("bin").resolve("gcloud"));
+    return root;
+  }
+
+  private static long countEntries(Path directory) throws IOException {
+    try (Stream<Path> entries = Files.list(directory)) {
+      return entries.count();
+    }
+  }
+}
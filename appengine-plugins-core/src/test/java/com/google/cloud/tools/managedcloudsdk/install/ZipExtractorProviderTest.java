@@ -19,10 +19,13 @@ package com.google.cloud.tools.managedcloudsdk.install;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
 import org.junit.Assert;
@@ -55,10 +58,97 @@ public class ZipExtractorProviderTest {
       GenericArchivesVerifier.assertFilePermissions(extractionRoot);
     }
 
-    ProgressVerifier.verifyUnknownProgress(
+    ProgressVerifier.verifyProgress(
         mockProgressListener, "Extracting archive: " + testArchive.getFileName());
   }
 
+  @Test
+  public void testCall_parallel() throws URISyntaxException, IOException {
+    Path extractionRoot = tmp.getRoot().toPath();
+    Path testArchive = getResource("genericArchives/test.zip");
+
+    new ZipExtractorProvider(4).extract(testArchive, extractionRoot, mockProgressListener);
+
+    GenericArchivesVerifier.assertArchiveExtraction(extractionRoot);
+    // only check file permissions on non-windows
+    if (!System.getProperty("os.name").toLowerCase(Locale.ENGLISH).contains("windows")) {
+      GenericArchivesVerifier.assertFilePermissions(extractionRoot);
+    }
+
+    ProgressVerifier.verifyProgress(
+        mockProgressListener, "Extracting archive: " + testArchive.getFileName());
+  }
+
+  @Test
+  public void testCall_parallelManyEntries() throws IOException {
+    Path testArchive = tmp.getRoot().toPath().resolve("many.zip");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(testArchive))) {
+      for (int i = 0; i < 200; i++) {
+        // files only, the directory skeleton must be derived from the file entries
+        out.putNextEntry(new ZipEntry("root/dir" + (i % 7) + "/file" + i + ".txt"));
+        out.write(("contents " + i).getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+      }
+    }
+    Path extractionRoot = tmp.newFolder("extracted").toPath();
+
+    new ZipExtractorProvider(4).extract(testArchive, extractionRoot, mockProgressListener);
+
+    for (int i = 0; i < 200; i++) {
+      Path file = extractionRoot.resolve("root/dir" + (i % 7) + "/file" + i + ".txt");
+      Assert.assertEquals(
+          "contents " + i, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+    ProgressVerifier.verifyProgress(mockProgressListener, "Extracting archive: many.zip");
+  }
+
+  @Test
+  public void testCall_skipsExcludedEntries() throws IOException {
+    Path testArchive = tmp.getRoot().toPath().resolve("filtered.zip");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(testArchive))) {
+      out.putNextEntry(new ZipEntry("root/bin/gcloud"));
+      out.write("gcloud".getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+      out.putNextEntry(new ZipEntry("root/help/"));
+      out.closeEntry();
+      out.putNextEntry(new ZipEntry("root/help/man/gcloud.1"));
+      out.write("help".getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+    Path extractionRoot = tmp.newFolder("extracted").toPath();
+
+    new ZipExtractorProvider(4, entryName -> !entryName.startsWith("root/help/"))
+        .extract(testArchive, extractionRoot, mockProgressListener);
+
+    Assert.assertTrue(Files.isRegularFile(extractionRoot.resolve("root/bin/gcloud")));
+    Assert.assertFalse(Files.exists(extractionRoot.resolve("root/help")));
+  }
+
+  @Test
+  public void testZipSlipVulnerability_parallelWritesNothing() throws IOException {
+    Path testArchive = tmp.getRoot().toPath().resolve("slip.zip");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(testArchive))) {
+      out.putNextEntry(new ZipEntry("good1.txt"));
+      out.closeEntry();
+      out.putNextEntry(new ZipEntry("good2.txt"));
+      out.closeEntry();
+      out.putNextEntry(new ZipEntry("../evil.txt"));
+      out.closeEntry();
+    }
+    Path extractionRoot = tmp.newFolder("extracted").toPath();
+
+    try {
+      new ZipExtractorProvider(4).extract(testArchive, extractionRoot, mockProgressListener);
+      Assert.fail("IOException expected");
+    } catch (IOException expected) {
+      Assert.assertEquals(
+          "Blocked unzipping files outside destination: ../evil.txt", expected.getMessage());
+    }
+    // entries are validated before anything is extracted
+    Assert.assertFalse(Files.exists(extractionRoot.resolve("good1.txt")));
+    Assert.assertFalse(Files.exists(tmp.getRoot().toPath().resolve("evil.txt")));
+  }
+
   @Test
   public void testZipSlipVulnerability_windows() throws URISyntaxException {
     Assume.assumeTrue(System.getProperty("os.name").startsWith("Windows"));